@@ -30,8 +30,18 @@ import org.slf4j.LoggerFactory;
  */
 @NonNullByDefault
 public class CosemObjectFactory {
+    /**
+     * Maximum number of parsed OBIS Identifiers to keep, a meter only sends a few dozen different identifiers
+     */
+    private static final int MAX_PARSED_OBIS_IDS = 256;
+
     private final Logger logger = LoggerFactory.getLogger(CosemObjectFactory.class);
 
+    /**
+     * Lookup cache for the parsed OBIS Identifiers by the received String
+     */
+    private final Map<String, OBISIdentifier> parsedObisIds = new HashMap<>();
+
     /**
      * Lookup cache for fixed OBIS Identifiers
      */
@@ -88,27 +98,33 @@ public class CosemObjectFactory {
      * @return CosemObject or null if parsing failed
      */
     public @Nullable CosemObject getCosemObject(String obisIdString, String cosemStringValues) {
-        OBISIdentifier obisId;
-        OBISIdentifier reducedObisId;
-
-        try {
-            obisId = new OBISIdentifier(obisIdString);
-            reducedObisId = obisId.getReducedOBISIdentifier();
-        } catch (ParseException pe) {
-            logger.debug("Received invalid OBIS identifier: {}", obisIdString);
-            return null;
+        OBISIdentifier obisId = parsedObisIds.get(obisIdString);
+
+        if (obisId == null) {
+            try {
+                obisId = new OBISIdentifier(obisIdString);
+            } catch (ParseException pe) {
+                logger.debug("Received invalid OBIS identifier: {}", obisIdString);
+                return null;
+            }
+            if (parsedObisIds.size() < MAX_PARSED_OBIS_IDS) {
+                parsedObisIds.put(obisIdString, obisId);
+            }
         }
+        OBISIdentifier reducedObisId = obisId.getReducedOBISIdentifier();
 
         logger.trace("Received obisIdString {}, obisId: {}, values: {}", obisIdString, obisId, cosemStringValues);
 
         CosemObject cosemObject = null;
+        CosemObjectType fixedType = obisLookupTableFixed.get(reducedObisId);
+        CosemObjectType dynamicType = fixedType == null ? obisLookupTableDynamic.get(reducedObisId) : null;
 
-        if (obisLookupTableFixed.containsKey(reducedObisId)) {
-            cosemObject = getCosemObjectInternal(obisLookupTableFixed.get(reducedObisId), obisId, cosemStringValues);
+        if (fixedType != null) {
+            cosemObject = getCosemObjectInternal(fixedType, obisId, cosemStringValues);
             logger.trace("Found obisId {} in the fixed lookup table", reducedObisId);
-        } else if (obisLookupTableDynamic.containsKey(reducedObisId)) {
+        } else if (dynamicType != null) {
             logger.trace("Found obisId {} in the dynamic lookup table", reducedObisId);
-            cosemObject = getCosemObjectInternal(obisLookupTableDynamic.get(reducedObisId), obisId, cosemStringValues);
+            cosemObject = getCosemObjectInternal(dynamicType, obisId, cosemStringValues);
         } else {
             for (CosemObjectType obisMsgType : obisWildcardCosemTypeList) {
                 if (obisMsgType.obisId.equalsWildCard(reducedObisId)) {
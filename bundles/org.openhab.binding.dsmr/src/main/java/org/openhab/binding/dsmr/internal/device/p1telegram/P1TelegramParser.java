@@ -17,7 +17,6 @@ import java.util.AbstractMap.SimpleEntry;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map.Entry;
-import java.util.regex.Pattern;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.openhab.binding.dsmr.internal.device.cosem.CosemObject;
@@ -59,9 +58,9 @@ public class P1TelegramParser implements TelegramParser {
     }
 
     /**
-     * Pattern for the CRC-code
+     * Number of hexadecimal characters of the CRC-code
      */
-    private static final String CRC_PATTERN = "[0-9A-Z]{4}";
+    private static final int CRC_LENGTH = 4;
 
     private final Logger logger = LoggerFactory.getLogger(P1TelegramParser.class);
 
@@ -244,11 +243,12 @@ public class P1TelegramParser implements TelegramParser {
                         logger.trace("telegramState {}, crcValue to check 0x{}", telegramState, crcValue);
                         // Only perform CRC check if telegram is still ok
                         if (telegramState == TelegramState.OK && crcValue.length() > 0) {
-                            if (Pattern.matches(CRC_PATTERN, crcValue)) {
-                                int crcP1Telegram = Integer.parseInt(crcValue.toString(), 16);
+                            int crcP1Telegram = parseCrcValue();
+
+                            if (crcP1Telegram >= 0) {
                                 int calculatedCRC = crc.getCurrentCRCCode();
 
-                                if (logger.isDebugEnabled()) {
+                                if (logger.isTraceEnabled()) {
                                     logger.trace("received CRC value: {}, calculated CRC value: 0x{}", crcValue,
                                             String.format("%04X", calculatedCRC));
                                 }
@@ -279,6 +279,31 @@ public class P1TelegramParser implements TelegramParser {
         logger.trace("State after parsing: {}", state);
     }
 
+    /**
+     * Parses the received CRC value without creating intermediate strings.
+     *
+     * @return the CRC value or -1 if the received value isn't a 4 character uppercase hexadecimal value
+     */
+    private int parseCrcValue() {
+        if (crcValue.length() != CRC_LENGTH) {
+            return -1;
+        }
+        int value = 0;
+
+        for (int i = 0; i < CRC_LENGTH; i++) {
+            char c = crcValue.charAt(i);
+
+            if (c >= '0' && c <= '9') {
+                value = (value << 4) + c - '0';
+            } else if (c >= 'A' && c <= 'F') {
+                value = (value << 4) + c - 'A' + 10;
+            } else {
+                return -1;
+            }
+        }
+        return value;
+    }
+
     private P1Telegram constructTelegram() {
         final List<CosemObject> cosemObjectsCopy = new ArrayList<>(cosemObjects);
 
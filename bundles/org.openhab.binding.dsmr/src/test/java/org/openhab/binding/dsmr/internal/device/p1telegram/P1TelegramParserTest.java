@@ -16,7 +16,9 @@ import static org.junit.Assert.assertEquals;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import org.junit.Ignore;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.junit.runners.Parameterized;
@@ -24,6 +26,8 @@ import org.junit.runners.Parameterized.Parameter;
 import org.junit.runners.Parameterized.Parameters;
 import org.openhab.binding.dsmr.internal.TelegramReaderUtil;
 import org.openhab.binding.dsmr.internal.device.p1telegram.P1Telegram.TelegramState;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * Test class for {@link P1TelegramParser}.
@@ -32,6 +36,7 @@ import org.openhab.binding.dsmr.internal.device.p1telegram.P1Telegram.TelegramSt
  */
 @RunWith(value = Parameterized.class)
 public class P1TelegramParserTest {
+    private final Logger logger = LoggerFactory.getLogger(P1TelegramParserTest.class);
 
     // @formatter:off
     @Parameters(name = "{0}")
@@ -63,4 +68,43 @@ public class P1TelegramParserTest {
         assertEquals("Expected number of objects", numberOfCosemObjects,
                 telegram.getCosemObjects().stream().mapToInt(co -> co.getCosemValues().size()).sum());
     }
+
+    /**
+     * Parses the recorded telegram twice in chunks as they are received from a serial port.
+     */
+    @Test
+    public void testChunkedParsing() {
+        assertEquals("Expected all telegrams to be received", 2, parseInChunks(2));
+    }
+
+    /**
+     * Parses the recorded telegram repeatedly, to compare the throughput of the parser between changes.
+     */
+    @Test
+    @Ignore("Benchmark, only run manually")
+    public void benchmark() {
+        final int iterations = 2000;
+        long start = System.nanoTime();
+        int received = parseInChunks(iterations);
+        long duration = Math.max(1, (System.nanoTime() - start) / 1000000);
+        assertEquals("Expected all telegrams to be received", iterations, received);
+        logger.info("Parsed {} {} telegrams in {} ms, {} telegrams/s", iterations, telegramName, duration,
+                iterations * 1000L / duration);
+    }
+
+    private int parseInChunks(int iterations) {
+        byte[] telegram = TelegramReaderUtil.readRawTelegram(telegramName);
+        AtomicInteger received = new AtomicInteger();
+        P1TelegramParser parser = new P1TelegramParser(t -> received.incrementAndGet());
+        byte[] chunk = new byte[64];
+
+        for (int i = 0; i < iterations; i++) {
+            for (int offset = 0; offset < telegram.length; offset += chunk.length) {
+                int length = Math.min(chunk.length, telegram.length - offset);
+                System.arraycopy(telegram, offset, chunk, 0, length);
+                parser.parse(chunk, length);
+            }
+        }
+        return received.get();
+    }
 }
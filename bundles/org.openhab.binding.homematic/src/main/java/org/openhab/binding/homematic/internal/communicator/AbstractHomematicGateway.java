@@ -14,26 +14,35 @@ package org.openhab.binding.homematic.internal.communicator;
 
 import static org.openhab.binding.homematic.internal.misc.HomematicConstants.*;
 
+import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
 import java.util.TreeMap;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.Future;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 
 import org.apache.commons.lang.StringUtils;
 import org.eclipse.jetty.client.HttpClient;
+import org.eclipse.smarthome.config.core.ConfigConstants;
 import org.eclipse.smarthome.core.common.ThreadPoolManager;
 import org.openhab.binding.homematic.internal.common.HomematicConfig;
 import org.openhab.binding.homematic.internal.communicator.client.BinRpcClient;
+import org.openhab.binding.homematic.internal.communicator.client.ParamsetDescriptionCache;
 import org.openhab.binding.homematic.internal.communicator.client.RpcClient;
 import org.openhab.binding.homematic.internal.communicator.client.TransferMode;
 import org.openhab.binding.homematic.internal.communicator.client.UnknownParameterSetException;
@@ -90,6 +99,9 @@ public abstract class AbstractHomematicGateway implements RpcEventListener, Home
     public static final double DEFAULT_DISABLE_DELAY = 2.0;
     private static final long CONNECTION_TRACKER_INTERVAL_SECONDS = 15;
     private static final String GATEWAY_POOL_NAME = "homematicGateway";
+    private static final String METADATA_POOL_NAME = "homematicMetadata";
+    private static final int METADATA_LOAD_CONCURRENCY = 4;
+    private static final String CACHE_FOLDER = "cache" + File.separator + "org.openhab.binding.homematic";
 
     private final Map<TransferMode, RpcClient<?>> rpcClients = new HashMap<TransferMode, RpcClient<?>>();
     private final Map<TransferMode, RpcServer> rpcServers = new HashMap<TransferMode, RpcServer>();
@@ -106,11 +118,12 @@ public abstract class AbstractHomematicGateway implements RpcEventListener, Home
     private final Map<String, HmDevice> devices = Collections.synchronizedMap(new HashMap<String, HmDevice>());
     private final Map<HmInterface, TransferMode> availableInterfaces = new TreeMap<HmInterface, TransferMode>();
     private static List<VirtualDatapointHandler> virtualDatapointHandlers = new ArrayList<VirtualDatapointHandler>();
-    private boolean cancelLoadAllMetadata;
+    private volatile boolean cancelLoadAllMetadata;
     private boolean initialized;
     private boolean newDeviceEventsEnabled;
     private ScheduledFuture<?> enableNewDeviceFuture;
     private final ScheduledExecutorService scheduler = ThreadPoolManager.getScheduledPool(GATEWAY_POOL_NAME);
+    private final ParamsetDescriptionCache paramsetDescriptionCache;
 
     static {
         // loads all virtual datapoints
@@ -139,6 +152,8 @@ public abstract class AbstractHomematicGateway implements RpcEventListener, Home
         this.config = config;
         this.gatewayAdapter = gatewayAdapter;
         this.httpClient = httpClient;
+        this.paramsetDescriptionCache = new ParamsetDescriptionCache(
+                new File(new File(ConfigConstants.getUserDataFolder(), CACHE_FOLDER), id + ".paramsets"));
     }
 
     @Override
@@ -188,6 +203,7 @@ public abstract class AbstractHomematicGateway implements RpcEventListener, Home
             sb.setLength(sb.length() - 2);
         }
         logger.debug("Used Homematic transfer modes: {}", sb.toString());
+        paramsetDescriptionCache.load(gatewayInfo.getFirmware());
         startClients();
         startServers();
 
@@ -226,8 +242,10 @@ public abstract class AbstractHomematicGateway implements RpcEventListener, Home
     protected synchronized void startClients() throws IOException {
         for (TransferMode mode : availableInterfaces.values()) {
             if (!rpcClients.containsKey(mode)) {
-                rpcClients.put(mode,
-                        mode == TransferMode.XML_RPC ? new XmlRpcClient(config, httpClient) : new BinRpcClient(config));
+                RpcClient<?> rpcClient = mode == TransferMode.XML_RPC ? new XmlRpcClient(config, httpClient)
+                        : new BinRpcClient(config);
+                rpcClient.setParamsetDescriptionCache(paramsetDescriptionCache);
+                rpcClients.put(mode, rpcClient);
             }
         }
     }
@@ -368,62 +386,107 @@ public abstract class AbstractHomematicGateway implements RpcEventListener, Home
     @Override
     public void loadAllDeviceMetadata() throws IOException {
         cancelLoadAllMetadata = false;
+        long start = System.currentTimeMillis();
+        int cachedDescriptions = paramsetDescriptionCache.size();
         // load all device descriptions
         List<HmDevice> deviceDescriptions = getDeviceDescriptions();
 
-        // loading datapoints for all channels
+        // loading datapoints for all channels, a few devices in parallel
         Set<String> loadedDevices = new HashSet<String>();
-        Map<String, Collection<HmDatapoint>> datapointsByChannelIdCache = new HashMap<String, Collection<HmDatapoint>>();
-        for (HmDevice device : deviceDescriptions) {
-            if (!cancelLoadAllMetadata) {
-                try {
-                    logger.trace("Loading metadata for device '{}' of type '{}'", device.getAddress(),
-                            device.getType());
-                    if (device.isGatewayExtras()) {
-                        loadChannelValues(device.getChannel(HmChannel.CHANNEL_NUMBER_VARIABLE));
-                        loadChannelValues(device.getChannel(HmChannel.CHANNEL_NUMBER_SCRIPT));
+        Map<String, Collection<HmDatapoint>> datapointsByChannelIdCache = new ConcurrentHashMap<>();
+        CompletionService<HmDevice> completionService = new ExecutorCompletionService<>(
+                ThreadPoolManager.getPool(METADATA_POOL_NAME));
+        Iterator<HmDevice> pendingDevices = deviceDescriptions.iterator();
+        int running = 0;
+        while (running < METADATA_LOAD_CONCURRENCY && pendingDevices.hasNext()) {
+            HmDevice device = pendingDevices.next();
+            completionService.submit(() -> loadDeviceMetadata(device, datapointsByChannelIdCache));
+            running++;
+        }
+        while (running > 0) {
+            HmDevice device;
+            try {
+                device = completionService.take().get();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                cancelLoadAllMetadata = true;
+                break;
+            } catch (ExecutionException ex) {
+                logger.warn("Can't load device from gateway '{}': {}", id, ex.getCause().getMessage(), ex.getCause());
+                device = null;
+            }
+            running--;
+            if (!cancelLoadAllMetadata && pendingDevices.hasNext()) {
+                HmDevice nextDevice = pendingDevices.next();
+                completionService.submit(() -> loadDeviceMetadata(nextDevice, datapointsByChannelIdCache));
+                running++;
+            }
+
+            // devices are handed to the adapter one after the other
+            if (device != null && !cancelLoadAllMetadata) {
+                prepareDevice(device);
+                loadedDevices.add(device.getAddress());
+                gatewayAdapter.onDeviceLoaded(device);
+            }
+        }
+        if (!cancelLoadAllMetadata) {
+            devices.keySet().retainAll(loadedDevices);
+        }
+        paramsetDescriptionCache.save();
+        logger.debug("Loaded metadata of {} devices from gateway '{}' in {} ms, {} of {} paramset descriptions cached",
+                loadedDevices.size(), id, System.currentTimeMillis() - start, cachedDescriptions,
+                paramsetDescriptionCache.size());
+        initialized = true;
+    }
+
+    /**
+     * Loads the datapoints of all channels of the device, returns null if the device can't be loaded.
+     */
+    private HmDevice loadDeviceMetadata(HmDevice device,
+            Map<String, Collection<HmDatapoint>> datapointsByChannelIdCache) {
+        if (cancelLoadAllMetadata) {
+            return null;
+        }
+        try {
+            logger.trace("Loading metadata for device '{}' of type '{}'", device.getAddress(), device.getType());
+            if (device.isGatewayExtras()) {
+                loadChannelValues(device.getChannel(HmChannel.CHANNEL_NUMBER_VARIABLE));
+                loadChannelValues(device.getChannel(HmChannel.CHANNEL_NUMBER_SCRIPT));
+            } else {
+                for (HmChannel channel : device.getChannels()) {
+                    logger.trace("  Loading channel {}", channel);
+                    // speed up metadata generation a little bit for equal channels in the gateway devices
+                    if ((DEVICE_TYPE_VIRTUAL.equals(device.getType())
+                            || DEVICE_TYPE_VIRTUAL_WIRED.equals(device.getType())) && channel.getNumber() > 1) {
+                        HmChannel previousChannel = device.getChannel(channel.getNumber() - 1);
+                        cloneAllDatapointsIntoChannel(channel, previousChannel.getDatapoints());
                     } else {
-                        for (HmChannel channel : device.getChannels()) {
-                            logger.trace("  Loading channel {}", channel);
-                            // speed up metadata generation a little bit for equal channels in the gateway devices
-                            if ((DEVICE_TYPE_VIRTUAL.equals(device.getType())
-                                    || DEVICE_TYPE_VIRTUAL_WIRED.equals(device.getType())) && channel.getNumber() > 1) {
-                                HmChannel previousChannel = device.getChannel(channel.getNumber() - 1);
-                                cloneAllDatapointsIntoChannel(channel, previousChannel.getDatapoints());
-                            } else {
-                                String channelId = String.format("%s:%s:%s", channel.getDevice().getType(),
-                                        channel.getDevice().getFirmware(), channel.getNumber());
-                                Collection<HmDatapoint> cachedDatapoints = datapointsByChannelIdCache.get(channelId);
-                                if (cachedDatapoints != null) {
-                                    // clone all datapoints
-                                    cloneAllDatapointsIntoChannel(channel, cachedDatapoints);
-                                } else {
-                                    logger.trace("    Loading datapoints into channel {}", channel);
-                                    addChannelDatapoints(channel, HmParamsetType.MASTER);
-                                    addChannelDatapoints(channel, HmParamsetType.VALUES);
-
-                                    // Make sure to only cache non-reconfigurable channels. For reconfigurable channels,
-                                    // the data point set might change depending on the selected mode.
-                                    if (!channel.isReconfigurable()) {
-                                        datapointsByChannelIdCache.put(channelId, channel.getDatapoints());
-                                    }
-                                }
+                        String channelId = String.format("%s:%s:%s", channel.getDevice().getType(),
+                                channel.getDevice().getFirmware(), channel.getNumber());
+                        Collection<HmDatapoint> cachedDatapoints = datapointsByChannelIdCache.get(channelId);
+                        if (cachedDatapoints != null) {
+                            // clone all datapoints
+                            cloneAllDatapointsIntoChannel(channel, cachedDatapoints);
+                        } else {
+                            logger.trace("    Loading datapoints into channel {}", channel);
+                            addChannelDatapoints(channel, HmParamsetType.MASTER);
+                            addChannelDatapoints(channel, HmParamsetType.VALUES);
+
+                            // Make sure to only cache non-reconfigurable channels. For reconfigurable channels,
+                            // the data point set might change depending on the selected mode.
+                            if (!channel.isReconfigurable()) {
+                                datapointsByChannelIdCache.put(channelId, channel.getDatapoints());
                             }
                         }
                     }
-                    prepareDevice(device);
-                    loadedDevices.add(device.getAddress());
-                    gatewayAdapter.onDeviceLoaded(device);
-                } catch (IOException ex) {
-                    logger.warn("Can't load device with address '{}' from gateway '{}': {}", device.getAddress(), id,
-                            ex.getMessage());
                 }
             }
+            return device;
+        } catch (IOException ex) {
+            logger.warn("Can't load device with address '{}' from gateway '{}': {}", device.getAddress(), id,
+                    ex.getMessage());
+            return null;
         }
-        if (!cancelLoadAllMetadata) {
-            devices.keySet().retainAll(loadedDevices);
-        }
-        initialized = true;
     }
 
     /**
@@ -773,6 +836,7 @@ public abstract class AbstractHomematicGateway implements RpcEventListener, Home
                     logger.error("{}", ex.getMessage(), ex);
                 }
             }
+            paramsetDescriptionCache.save();
         }
     }
 
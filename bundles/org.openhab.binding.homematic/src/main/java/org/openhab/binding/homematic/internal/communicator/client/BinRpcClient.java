@@ -60,10 +60,11 @@ public class BinRpcClient extends RpcClient<byte[]> {
     }
 
     /**
-     * Sends a BIN-RPC message and parses the response to see if there was an error.
+     * Sends a BIN-RPC message and parses the response to see if there was an error. Messages are sent in parallel,
+     * each over its own socket of the pool.
      */
     @Override
-    protected synchronized Object[] sendMessage(int port, RpcRequest<byte[]> request) throws IOException {
+    protected Object[] sendMessage(int port, RpcRequest<byte[]> request) throws IOException {
         if (logger.isTraceEnabled()) {
             logger.trace("Client BinRpcRequest:\n{}", request);
         }
@@ -77,8 +78,14 @@ public class BinRpcClient extends RpcClient<byte[]> {
         BinRpcMessage resp = null;
         try {
             Socket socket = socketHandler.getSocket(port);
-            socket.getOutputStream().write(request.createMessage());
-            resp = new BinRpcMessage(socket.getInputStream(), false, config.getEncoding());
+            try {
+                socket.getOutputStream().write(request.createMessage());
+                resp = new BinRpcMessage(socket.getInputStream(), false, config.getEncoding());
+            } catch (IOException | RuntimeException ex) {
+                socketHandler.closeSocket(port, socket);
+                throw ex;
+            }
+            socketHandler.releaseSocket(port, socket);
             return new RpcResponseParser(request).parse(resp.getResponseData());
         } catch (UnknownRpcFailureException | UnknownParameterSetException rpcEx) {
             // throw immediately, don't retry the message
@@ -0,0 +1,142 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.homematic.internal.communicator.client;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.openhab.binding.homematic.internal.misc.HomematicConstants;
+import org.openhab.binding.homematic.internal.model.HmChannel;
+import org.openhab.binding.homematic.internal.model.HmDevice;
+import org.openhab.binding.homematic.internal.model.HmParamsetType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Caches the paramset descriptions of a gateway on disk. The description of a channel only depends on the device type,
+ * the firmware of the device and the channel number, so it's loaded only once from the gateway for all devices of the
+ * same type and stays valid across restarts. A new gateway firmware invalidates the whole cache.
+ *
+ * @author Martin van Wingerden - Initial contribution
+ */
+public class ParamsetDescriptionCache {
+    private final Logger logger = LoggerFactory.getLogger(ParamsetDescriptionCache.class);
+
+    private final File file;
+    private final Map<String, Object[]> descriptions = new ConcurrentHashMap<>();
+    private String gatewayFirmware;
+    private volatile boolean changed;
+
+    public ParamsetDescriptionCache(File file) {
+        this.file = file;
+    }
+
+    /**
+     * Loads the cached descriptions, discards them if they are from another gateway firmware.
+     */
+    @SuppressWarnings("unchecked")
+    public void load(String gatewayFirmware) {
+        this.gatewayFirmware = gatewayFirmware;
+        descriptions.clear();
+        changed = false;
+        if (!file.exists()) {
+            return;
+        }
+        try (ObjectInputStream in = new ObjectInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            String cachedFirmware = (String) in.readObject();
+            if (Objects.equals(cachedFirmware, gatewayFirmware)) {
+                descriptions.putAll((Map<String, Object[]>) in.readObject());
+                logger.debug("Loaded {} cached paramset descriptions from '{}'", descriptions.size(), file);
+            } else {
+                logger.debug("Gateway firmware changed from '{}' to '{}', discarding cached paramset descriptions",
+                        cachedFirmware, gatewayFirmware);
+                changed = true;
+            }
+        } catch (IOException | ClassNotFoundException | ClassCastException ex) {
+            logger.debug("Can't read cached paramset descriptions from '{}': {}", file, ex.getMessage());
+            descriptions.clear();
+        }
+    }
+
+    /**
+     * Writes the descriptions to disk, if new descriptions have been added since the last load or save.
+     */
+    public synchronized void save() {
+        if (!changed) {
+            return;
+        }
+        changed = false;
+        file.getParentFile().mkdirs();
+        try (ObjectOutputStream out = new ObjectOutputStream(new BufferedOutputStream(new FileOutputStream(file)))) {
+            out.writeObject(gatewayFirmware);
+            out.writeObject(new HashMap<>(descriptions));
+            logger.debug("Saved {} paramset descriptions to '{}'", descriptions.size(), file);
+        } catch (IOException ex) {
+            logger.warn("Can't write paramset descriptions to '{}': {}", file, ex.getMessage());
+        }
+    }
+
+    /**
+     * Returns the cached paramset description for the channel or null, if it's not cached.
+     */
+    public Object[] get(HmChannel channel, HmParamsetType paramsetType) {
+        String key = getKey(channel, paramsetType);
+        return key == null ? null : descriptions.get(key);
+    }
+
+    /**
+     * Adds the paramset description of the channel. Descriptions with a channel function datapoint are ignored, the
+     * datapoints of reconfigurable channels depend on the selected function.
+     */
+    public void put(HmChannel channel, HmParamsetType paramsetType, Object[] description) {
+        String key = getKey(channel, paramsetType);
+        if (key != null && !hasChannelFunction(description)) {
+            descriptions.put(key, description);
+            changed = true;
+        }
+    }
+
+    private boolean hasChannelFunction(Object[] description) {
+        return description.length > 0 && description[0] instanceof Map
+                && ((Map<?, ?>) description[0]).containsKey(HomematicConstants.DATAPOINT_NAME_CHANNEL_FUNCTION);
+    }
+
+    /**
+     * Returns the number of cached descriptions.
+     */
+    public int size() {
+        return descriptions.size();
+    }
+
+    /**
+     * Returns the cache key of the paramset of a channel or null, if the paramset can't be cached.
+     */
+    private String getKey(HmChannel channel, HmParamsetType paramsetType) {
+        HmDevice device = channel.getDevice();
+        if (device.getType() == null || device.getFirmware() == null) {
+            return null;
+        }
+        return String.format("%s:%s:%s:%s:%s", device.getHmInterface(), device.getType(), device.getFirmware(),
+                channel.getNumber(), paramsetType);
+    }
+}
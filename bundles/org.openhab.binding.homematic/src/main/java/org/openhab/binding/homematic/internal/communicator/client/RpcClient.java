@@ -54,11 +54,19 @@ public abstract class RpcClient<T> {
     protected static final int MAX_RPC_RETRY = 1;
 
     protected HomematicConfig config;
+    private ParamsetDescriptionCache paramsetDescriptionCache;
 
     public RpcClient(HomematicConfig config) {
         this.config = config;
     }
 
+    /**
+     * Sets the cache for paramset descriptions, without a cache all descriptions are loaded from the gateway.
+     */
+    public void setParamsetDescriptionCache(ParamsetDescriptionCache paramsetDescriptionCache) {
+        this.paramsetDescriptionCache = paramsetDescriptionCache;
+    }
+
     /**
      * Disposes the client.
      */
@@ -169,7 +177,7 @@ public abstract class RpcClient<T> {
     }
 
     /**
-     * Loads all datapoint metadata into the given channel.
+     * Loads all datapoint metadata into the given channel, from the cache if available.
      */
     public void addChannelDatapoints(HmChannel channel, HmParamsetType paramsetType) throws IOException {
         if (isConfigurationChannel(channel) && paramsetType != HmParamsetType.MASTER) {
@@ -177,10 +185,22 @@ public abstract class RpcClient<T> {
             return;
         }
 
-        RpcRequest<T> request = createRpcRequest("getParamsetDescription");
-        request.addArg(getRpcAddress(channel.getDevice().getAddress()) + getChannelSuffix(channel));
-        request.addArg(paramsetType.toString());
-        new GetParamsetDescriptionParser(channel, paramsetType).parse(sendMessage(config.getRpcPort(channel), request));
+        // the datapoints of reconfigurable channels depend on the selected function, they are never cached
+        ParamsetDescriptionCache cache = paramsetDescriptionCache;
+        Object[] description = cache == null || channel.isReconfigurable() ? null : cache.get(channel, paramsetType);
+        if (description == null) {
+            RpcRequest<T> request = createRpcRequest("getParamsetDescription");
+            request.addArg(getRpcAddress(channel.getDevice().getAddress()) + getChannelSuffix(channel));
+            request.addArg(paramsetType.toString());
+            description = sendMessage(config.getRpcPort(channel), request);
+            new GetParamsetDescriptionParser(channel, paramsetType).parse(description);
+            // the MASTER paramset has just been parsed, so only now it's known if the channel is reconfigurable
+            if (cache != null && !channel.isReconfigurable()) {
+                cache.put(channel, paramsetType, description);
+            }
+        } else {
+            new GetParamsetDescriptionParser(channel, paramsetType).parse(description);
+        }
     }
 
     /**
@@ -15,64 +15,148 @@ package org.openhab.binding.homematic.internal.communicator.client;
 import java.io.IOException;
 import java.net.InetSocketAddress;
 import java.net.Socket;
-import java.util.HashMap;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
 
 import org.openhab.binding.homematic.internal.common.HomematicConfig;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
- * Simple socket cache class.
+ * Simple socket pool class. Each port has its own pool with at most {@link #MAX_SOCKETS_PER_PORT} sockets, so that
+ * requests to different interfaces are independent of each other.
+ *
+ * A socket returned by {@link #getSocket(int)} is used exclusively by the caller and must be handed back with
+ * {@link #releaseSocket(int, Socket)} or, after a failure, {@link #closeSocket(int, Socket)}.
  *
  * @author Gerhard Riegler - Initial contribution
  */
 public class SocketHandler {
+    /**
+     * The maximum number of sockets per port, further requests wait for a free socket
+     */
+    private static final int MAX_SOCKETS_PER_PORT = 2;
+
     private final Logger logger = LoggerFactory.getLogger(SocketHandler.class);
 
-    private Map<Integer, SocketInfo> socketsPerPort = new HashMap<Integer, SocketInfo>();
+    private final Map<Integer, SocketPool> poolsPerPort = new ConcurrentHashMap<>();
     private HomematicConfig config;
 
+    /**
+     * The sockets of one port.
+     */
+    private static class SocketPool {
+        private final Semaphore permits = new Semaphore(MAX_SOCKETS_PER_PORT, true);
+        private final Deque<SocketInfo> idle = new ArrayDeque<>();
+        private final Map<Socket, SocketInfo> borrowed = new IdentityHashMap<>();
+    }
+
     public SocketHandler(HomematicConfig config) {
         this.config = config;
     }
 
     /**
-     * Returns a socket for the given port, (re)creates it if required.
+     * Returns a socket for the given port, reuses an idle socket or creates a new one.
      */
     public Socket getSocket(int port) throws IOException {
-        SocketInfo socketInfo = socketsPerPort.get(port);
-        if (socketInfo == null) {
-            logger.trace("Creating new socket for port {}", port);
-            Socket socket = new Socket();
-            socket.setSoTimeout(config.getTimeout() * 1000);
-            socket.setReuseAddress(true);
-            socket.connect(new InetSocketAddress(config.getGatewayAddress(), port), socket.getSoTimeout());
-            socketInfo = new SocketInfo(socket);
-            socketsPerPort.put(port, socketInfo);
-        } else {
-            boolean isMaxAliveReached = System.currentTimeMillis()
-                    - socketInfo.getCreated() > (config.getSocketMaxAlive() * 1000);
+        SocketPool pool = poolsPerPort.computeIfAbsent(port, p -> new SocketPool());
+        try {
+            if (!pool.permits.tryAcquire(config.getTimeout(), TimeUnit.SECONDS)) {
+                throw new IOException("Timeout waiting for a free socket on port " + port);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for a free socket on port " + port);
+        }
 
-            if (isMaxAliveReached) {
+        try {
+            SocketInfo socketInfo;
+            synchronized (pool) {
+                socketInfo = pool.idle.pollFirst();
+            }
+            if (socketInfo != null && isMaxAliveReached(socketInfo)) {
                 logger.debug("Max alive time reached for socket on port {}", port);
-                removeSocket(port);
-                return getSocket(port);
+                closeSilent(socketInfo.getSocket());
+                socketInfo = null;
             }
-            logger.trace("Returning socket for port {}", port);
+            if (socketInfo == null) {
+                logger.trace("Creating new socket for port {}", port);
+                Socket socket = new Socket();
+                socket.setSoTimeout(config.getTimeout() * 1000);
+                socket.setReuseAddress(true);
+                socket.connect(new InetSocketAddress(config.getGatewayAddress(), port), socket.getSoTimeout());
+                socketInfo = new SocketInfo(socket);
+            } else {
+                logger.trace("Returning socket for port {}", port);
+            }
+            synchronized (pool) {
+                pool.borrowed.put(socketInfo.getSocket(), socketInfo);
+            }
+            return socketInfo.getSocket();
+        } catch (IOException | RuntimeException e) {
+            pool.permits.release();
+            throw e;
         }
-        return socketInfo.getSocket();
     }
 
     /**
-     * Removes the socket for the given port from the cache.
+     * Hands a socket back after a successful request, so that it can be reused.
+     */
+    public void releaseSocket(int port, Socket socket) {
+        SocketPool pool = poolsPerPort.get(port);
+        if (pool == null) {
+            closeSilent(socket);
+            return;
+        }
+        synchronized (pool) {
+            SocketInfo socketInfo = pool.borrowed.remove(socket);
+            if (socketInfo != null) {
+                pool.idle.addFirst(socketInfo);
+            } else {
+                // the pool has been flushed while the socket was in use
+                closeSilent(socket);
+            }
+        }
+        pool.permits.release();
+    }
+
+    /**
+     * Closes a socket after a failed request.
+     */
+    public void closeSocket(int port, Socket socket) {
+        SocketPool pool = poolsPerPort.get(port);
+        closeSilent(socket);
+        if (pool != null) {
+            synchronized (pool) {
+                pool.borrowed.remove(socket);
+            }
+            pool.permits.release();
+        }
+    }
+
+    /**
+     * Closes the idle sockets for the given port. Sockets in use are closed when they are handed back.
      */
     public void removeSocket(int port) {
-        SocketInfo socketInfo = socketsPerPort.get(port);
-        if (socketInfo != null) {
-            logger.trace("Closing Socket on port {}", port);
-            socketsPerPort.remove(port);
-            closeSilent(socketInfo.getSocket());
+        SocketPool pool = poolsPerPort.get(port);
+        if (pool != null) {
+            List<SocketInfo> sockets;
+            synchronized (pool) {
+                sockets = new ArrayList<>(pool.idle);
+                pool.idle.clear();
+                pool.borrowed.clear();
+            }
+            if (!sockets.isEmpty()) {
+                logger.trace("Closing {} sockets on port {}", sockets.size(), port);
+            }
+            sockets.forEach(socketInfo -> closeSilent(socketInfo.getSocket()));
         }
     }
 
@@ -80,14 +164,15 @@ public class SocketHandler {
      * Removes all cached sockets.
      */
     public void flush() {
-        synchronized (SocketHandler.class) {
-            Integer[] portsToRemove = socketsPerPort.keySet().toArray(new Integer[0]);
-            for (Integer key : portsToRemove) {
-                removeSocket(key);
-            }
+        for (Integer port : poolsPerPort.keySet()) {
+            removeSocket(port);
         }
     }
 
+    private boolean isMaxAliveReached(SocketInfo socketInfo) {
+        return System.currentTimeMillis() - socketInfo.getCreated() > (config.getSocketMaxAlive() * 1000);
+    }
+
     /**
      * Silently closes the given socket.
      */
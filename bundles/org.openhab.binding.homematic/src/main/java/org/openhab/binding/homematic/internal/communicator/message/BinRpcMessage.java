@@ -23,13 +23,11 @@ import java.text.ParseException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
-import java.util.Collections;
 import java.util.Date;
 import java.util.List;
 import java.util.Map;
 import java.util.TreeMap;
 
-import org.apache.commons.lang.ArrayUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -75,32 +73,59 @@ public class BinRpcMessage implements RpcRequest<byte[]>, RpcResponse {
     public BinRpcMessage(InputStream is, boolean methodHeader, String encoding) throws IOException {
         this.encoding = encoding;
         byte sig[] = new byte[8];
-        int length = is.read(sig, 0, 4);
+        int length = readFully(is, sig, 0, 4);
         if (length != 4) {
             throw new EOFException("Only " + length + " bytes received reading signature");
         }
         validateBinXSignature(sig);
-        length = is.read(sig, 4, 4);
+        length = readFully(is, sig, 4, 4);
         if (length != 4) {
             throw new EOFException("Only " + length + " bytes received reading message length");
         }
-        int datasize = (new BigInteger(ArrayUtils.subarray(sig, 4, 8))).intValue();
-        byte payload[] = new byte[datasize];
-        int offset = 0;
-        int currentLength;
-
-        while (offset < datasize && (currentLength = is.read(payload, offset, datasize - offset)) != -1) {
-            offset += currentLength;
+        int datasize = getMessageLength(sig, 0) - 8;
+        if (datasize < 0) {
+            throw new IOException("Invalid message length " + datasize);
         }
+        // the payload is read right behind the header, no need to join them afterwards
+        byte message[] = new byte[8 + datasize];
+        System.arraycopy(sig, 0, message, 0, 8);
+        int offset = readFully(is, message, 8, datasize);
         if (offset != datasize) {
             throw new EOFException(
                     "Only " + offset + " bytes received while reading message payload, expected " + datasize
                             + " bytes");
         }
-        byte[] message = ArrayUtils.addAll(sig, payload);
         decodeMessage(message, methodHeader);
     }
 
+    /**
+     * Reads until the given number of bytes has been read or the stream ends, returns the number of bytes read.
+     */
+    private static int readFully(InputStream is, byte[] buffer, int offset, int length) throws IOException {
+        int read = 0;
+        int currentLength;
+        while (read < length && (currentLength = is.read(buffer, offset + read, length - read)) != -1) {
+            read += currentLength;
+        }
+        return read;
+    }
+
+    /**
+     * Returns the total length of the message, including the 8 bytes header, whose header starts at the given offset
+     * of the buffer. At least 8 bytes must be available.
+     */
+    public static int getMessageLength(byte[] buffer, int offset) throws UnsupportedEncodingException {
+        if (buffer[offset] != 'B' || buffer[offset + 1] != 'i' || buffer[offset + 2] != 'n') {
+            throw new UnsupportedEncodingException("No BinX signature");
+        }
+        return 8 + toInt(buffer, offset + 4);
+    }
+
+    private static int toInt(byte[] buffer, int offset) {
+        return (buffer[offset] << 24) | ((buffer[offset + 1] & 0xFF) << 16) | ((buffer[offset + 2] & 0xFF) << 8)
+                | (buffer[offset + 3] & 0xFF);
+    }
+
     private void validateBinXSignature(byte[] sig) throws UnsupportedEncodingException {
         if (sig[0] != 'B' || sig[1] != 'i' || sig[2] != 'n') {
             throw new UnsupportedEncodingException("No BinX signature");
@@ -199,10 +224,9 @@ public class BinRpcMessage implements RpcRequest<byte[]>, RpcResponse {
 
     // read rpc values
     private int readInt() {
-        byte bi[] = new byte[4];
-        System.arraycopy(binRpcData, offset, bi, 0, 4);
+        int value = toInt(binRpcData, offset);
         offset += 4;
-        return (new BigInteger(bi)).intValue();
+        return value;
     }
 
     private String readString() throws UnsupportedEncodingException {
@@ -215,7 +239,7 @@ public class BinRpcMessage implements RpcRequest<byte[]>, RpcResponse {
         int type = readInt();
         switch (type) {
             case 1:
-                return new Integer(readInt());
+                return Integer.valueOf(readInt());
             case 2:
                 return binRpcData[offset++] != 0 ? Boolean.TRUE : Boolean.FALSE;
             case 3:
@@ -226,7 +250,7 @@ public class BinRpcMessage implements RpcRequest<byte[]>, RpcResponse {
                 BigDecimal bd = new BigDecimal((double) mantissa / (double) (1 << 30) * Math.pow(2, exponent));
                 return bd.setScale(6, RoundingMode.HALF_DOWN).doubleValue();
             case 5:
-                return new Date(readInt() * 1000);
+                return new Date(readInt() * 1000L);
             case 0x100:
                 // Array
                 int numElements = readInt();
@@ -260,20 +284,23 @@ public class BinRpcMessage implements RpcRequest<byte[]>, RpcResponse {
         offset = temp;
     }
 
-    private void addByte(byte b) {
-        if (offset == binRpcData.length) {
-            byte newdata[] = new byte[binRpcData.length * 2];
-            System.arraycopy(binRpcData, 0, newdata, 0, binRpcData.length);
-            binRpcData = newdata;
+    private void ensureCapacity(int length) {
+        if (offset + length > binRpcData.length) {
+            binRpcData = Arrays.copyOf(binRpcData, Math.max(binRpcData.length * 2, offset + length));
         }
+    }
+
+    private void addByte(byte b) {
+        ensureCapacity(1);
         binRpcData[offset++] = b;
     }
 
     private void addInt(int value) {
-        addByte((byte) (value >> 24));
-        addByte((byte) (value >> 16));
-        addByte((byte) (value >> 8));
-        addByte((byte) (value));
+        ensureCapacity(4);
+        binRpcData[offset++] = (byte) (value >> 24);
+        binRpcData[offset++] = (byte) (value >> 16);
+        binRpcData[offset++] = (byte) (value >> 8);
+        binRpcData[offset++] = (byte) value;
     }
 
     private void addDouble(double value) {
@@ -298,18 +325,33 @@ public class BinRpcMessage implements RpcRequest<byte[]>, RpcResponse {
         addInt(exp);
     }
 
-    private void addString(String string) {
-        byte sd[];
+    private byte[] getBytes(String string) {
         try {
-            sd = string.getBytes(encoding);
+            return string.getBytes(encoding);
         } catch (UnsupportedEncodingException use) {
-            sd = string.getBytes();
-        }
-        for (byte ch : sd) {
-            addByte(ch);
+            return string.getBytes();
         }
     }
 
+    private void addString(String string) {
+        addBytes(getBytes(string));
+    }
+
+    /**
+     * Adds the encoded length of the string followed by the string.
+     */
+    private void addStringWithLength(String string) {
+        byte sd[] = getBytes(string);
+        addInt(sd.length);
+        addBytes(sd);
+    }
+
+    private void addBytes(byte[] bytes) {
+        ensureCapacity(bytes.length);
+        System.arraycopy(bytes, 0, binRpcData, offset, bytes.length);
+        offset += bytes.length;
+    }
+
     private void addList(Collection<?> collection) {
         for (Object object : collection) {
             addObject(object);
@@ -317,33 +359,31 @@ public class BinRpcMessage implements RpcRequest<byte[]>, RpcResponse {
     }
 
     private void addObject(Object object) {
-        if (object.getClass() == String.class) {
+        if (object instanceof String) {
             addInt(3);
-            String string = (String) object;
-            addInt(string.length());
-            addString(string);
-        } else if (object.getClass() == Boolean.class) {
+            addStringWithLength((String) object);
+        } else if (object instanceof Boolean) {
             addInt(2);
             addByte(((Boolean) object).booleanValue() ? (byte) 1 : (byte) 0);
-        } else if (object.getClass() == Integer.class) {
+        } else if (object instanceof Integer) {
             addInt(1);
             addInt(((Integer) object).intValue());
-        } else if (object.getClass() == Double.class) {
+        } else if (object instanceof Double) {
             addInt(4);
             addDouble(((Double) object).doubleValue());
-        } else if (object.getClass() == Float.class) {
+        } else if (object instanceof Float) {
             addInt(4);
             BigDecimal bd = new BigDecimal((Float) object);
             addDouble(bd.setScale(6, RoundingMode.HALF_DOWN).doubleValue());
-        } else if (object.getClass() == BigDecimal.class) {
+        } else if (object instanceof BigDecimal) {
             addInt(4);
             addDouble(((BigDecimal) object).setScale(6, RoundingMode.HALF_DOWN).doubleValue());
-        } else if (object.getClass() == BigInteger.class) {
+        } else if (object instanceof BigInteger) {
             addInt(4);
             addDouble(((BigInteger) object).doubleValue());
-        } else if (object.getClass() == Date.class) {
+        } else if (object instanceof Date) {
             addInt(5);
-            addInt((int) ((Date) object).getTime() / 1000);
+            addInt((int) (((Date) object).getTime() / 1000));
         } else if (object instanceof List<?>) {
             Collection<?> list = (Collection<?>) object;
             addInt(0x100);
@@ -356,9 +396,8 @@ public class BinRpcMessage implements RpcRequest<byte[]>, RpcResponse {
             for (Map.Entry<?, ?> entry : map.entrySet()) {
                 String key = (String) entry.getKey();
                 if (key != null) {
-                    addInt(key.length());
-                    addString(key);
-                    addList(Collections.singleton(entry.getValue()));
+                    addStringWithLength(key);
+                    addObject(entry.getValue());
                 }
             }
         }
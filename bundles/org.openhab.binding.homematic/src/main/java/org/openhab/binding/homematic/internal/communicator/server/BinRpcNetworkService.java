@@ -14,16 +14,31 @@ package org.openhab.binding.homematic.internal.communicator.server;
 
 import java.io.IOException;
 import java.net.InetSocketAddress;
-import java.net.ServerSocket;
-import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 import org.eclipse.smarthome.core.common.ThreadPoolManager;
 import org.openhab.binding.homematic.internal.common.HomematicConfig;
 import org.openhab.binding.homematic.internal.communicator.message.BinRpcMessage;
 import org.openhab.binding.homematic.internal.communicator.message.RpcRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
- * Waits for a message from the Homematic gateway and starts the RpcCallbackHandler to handle the message.
+ * Waits for messages from the Homematic gateway and starts the RpcCallbackHandler to handle the message.
+ *
+ * All connections are served by one selector thread with non blocking channels. Each connection reads into its own
+ * buffer, which is reused for all messages of the connection. Only complete messages are handed to the thread pool,
+ * so a slow or idle gateway connection never blocks a thread. Messages of one connection are handled one after the
+ * other, as the gateway expects.
  *
  * @author Gerhard Riegler - Initial contribution
  */
@@ -34,10 +49,17 @@ public class BinRpcNetworkService implements Runnable {
             3, 0, 0, 0, 5, 'e', 'v', 'e', 'n', 't' };
 
     private static final String RPC_POOL_NAME = "homematicRpc";
-    private ServerSocket serverSocket;
-    private boolean accept = true;
+    private static final int INITIAL_BUFFER_SIZE = 1024;
+    private static final int HEADER_SIZE = 8;
+
+    private final Logger logger = LoggerFactory.getLogger(BinRpcNetworkService.class);
+
+    private Selector selector;
+    private ServerSocketChannel serverChannel;
+    private volatile boolean accept = true;
     private HomematicConfig config;
     private RpcResponseHandler<byte[]> rpcResponseHandler;
+    private final Queue<Runnable> selectorTasks = new ConcurrentLinkedQueue<>();
 
     /**
      * Creates the socket for listening to events from the Homematic gateway.
@@ -45,9 +67,12 @@ public class BinRpcNetworkService implements Runnable {
     public BinRpcNetworkService(RpcEventListener listener, HomematicConfig config) throws IOException {
         this.config = config;
 
-        serverSocket = new ServerSocket();
-        serverSocket.setReuseAddress(true);
-        serverSocket.bind(new InetSocketAddress(config.getBindAddress(), config.getBinCallbackPort()));
+        selector = Selector.open();
+        serverChannel = ServerSocketChannel.open();
+        serverChannel.socket().setReuseAddress(true);
+        serverChannel.bind(new InetSocketAddress(config.getBindAddress(), config.getBinCallbackPort()));
+        serverChannel.configureBlocking(false);
+        serverChannel.register(selector, SelectionKey.OP_ACCEPT);
 
         this.rpcResponseHandler = new RpcResponseHandler<byte[]>(listener) {
 
@@ -80,22 +105,214 @@ public class BinRpcNetworkService implements Runnable {
     public void run() {
         while (accept) {
             try {
-                Socket cs = serverSocket.accept();
-                BinRpcResponseHandler rpcHandler = new BinRpcResponseHandler(cs, rpcResponseHandler, config);
-                ThreadPoolManager.getPool(RPC_POOL_NAME).execute(rpcHandler);
+                selector.select();
+                Runnable task;
+                while ((task = selectorTasks.poll()) != null) {
+                    task.run();
+                }
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    handleKey(key);
+                }
+            } catch (ClosedSelectorException ex) {
+                break;
+            } catch (IOException ex) {
+                // ignore
+            }
+        }
+        closeConnections();
+    }
+
+    /**
+     * Closes all connections and the selector, only called on the selector thread.
+     */
+    private void closeConnections() {
+        try {
+            for (SelectionKey key : selector.keys()) {
+                key.channel().close();
+            }
+            selector.close();
+        } catch (IOException | ClosedSelectorException ioe) {
+            // ignore
+        }
+    }
+
+    private void handleKey(SelectionKey key) {
+        if (!key.isValid()) {
+            return;
+        }
+        if (key.isAcceptable()) {
+            try {
+                SocketChannel channel = serverChannel.accept();
+                if (channel != null) {
+                    channel.configureBlocking(false);
+                    channel.register(selector, SelectionKey.OP_READ, new Connection(channel));
+                }
             } catch (IOException ex) {
                 // ignore
             }
+            return;
+        }
+
+        Connection connection = (Connection) key.attachment();
+        try {
+            if (key.isReadable()) {
+                connection.read(key);
+            } else if (key.isWritable()) {
+                connection.write(key);
+            }
+        } catch (IOException ex) {
+            logger.debug("Closing BIN-RPC connection: {}", ex.getMessage());
+            connection.close(key);
+        }
+    }
+
+    /**
+     * Runs the task on the selector thread, the interest of a key can't be changed while the selector is blocked.
+     */
+    private void runOnSelector(Runnable task) {
+        selectorTasks.add(task);
+        selector.wakeup();
+    }
+
+    /**
+     * A connection from the Homematic gateway.
+     */
+    private class Connection {
+        private final SocketChannel channel;
+        private final long created = System.currentTimeMillis();
+        private ByteBuffer readBuffer = ByteBuffer.allocate(INITIAL_BUFFER_SIZE);
+        private ByteBuffer writeBuffer;
+
+        public Connection(SocketChannel channel) {
+            this.channel = channel;
+        }
+
+        /**
+         * Reads the available bytes and dispatches the message, if it's complete.
+         */
+        public void read(SelectionKey key) throws IOException {
+            if (channel.read(readBuffer) < 0) {
+                close(key);
+                return;
+            }
+            dispatchMessage(key);
+        }
+
+        /**
+         * Hands the next complete message in the buffer to the thread pool. Reading is paused until the response
+         * has been written.
+         */
+        private void dispatchMessage(SelectionKey key) throws IOException {
+            int available = readBuffer.position();
+            if (available < HEADER_SIZE) {
+                return;
+            }
+            int length = BinRpcMessage.getMessageLength(readBuffer.array(), 0);
+            if (length < HEADER_SIZE) {
+                throw new IOException("Invalid BIN-RPC message length " + length);
+            }
+            if (length > readBuffer.capacity()) {
+                ByteBuffer newBuffer = ByteBuffer.allocate(length);
+                readBuffer.flip();
+                newBuffer.put(readBuffer);
+                readBuffer = newBuffer;
+            }
+            if (available < length) {
+                return;
+            }
+
+            byte[] message = Arrays.copyOf(readBuffer.array(), length);
+            readBuffer.flip();
+            readBuffer.position(length);
+            readBuffer.compact();
+
+            key.interestOps(0);
+            ThreadPoolManager.getPool(RPC_POOL_NAME).execute(() -> handleMessage(key, message));
+        }
+
+        /**
+         * Handles the method call of the message, runs in the thread pool.
+         */
+        private void handleMessage(SelectionKey key, byte[] message) {
+            try {
+                BinRpcMessage binRpcMessage = new BinRpcMessage(message, true, config.getEncoding());
+                logger.trace("Event BinRpcMessage: {}", binRpcMessage);
+                byte[] returnValue = rpcResponseHandler.handleMethodCall(binRpcMessage.getMethodName(),
+                        binRpcMessage.getResponseData());
+                runOnSelector(() -> {
+                    if (returnValue != null) {
+                        writeBuffer = ByteBuffer.wrap(returnValue);
+                        setInterest(key, SelectionKey.OP_WRITE);
+                    } else {
+                        messageHandled(key);
+                    }
+                });
+            } catch (Exception e) {
+                logger.warn("{}", e.getMessage(), e);
+                runOnSelector(() -> close(key));
+            }
+        }
+
+        /**
+         * Writes the pending response.
+         */
+        public void write(SelectionKey key) throws IOException {
+            channel.write(writeBuffer);
+            if (!writeBuffer.hasRemaining()) {
+                writeBuffer = null;
+                messageHandled(key);
+            }
+        }
+
+        /**
+         * Continues with the next message or closes the connection, if the max alive time is reached.
+         */
+        private void messageHandled(SelectionKey key) {
+            if (System.currentTimeMillis() - created > (config.getSocketMaxAlive() * 1000)) {
+                close(key);
+                return;
+            }
+            if (setInterest(key, SelectionKey.OP_READ)) {
+                try {
+                    // the gateway may already have sent the next message
+                    dispatchMessage(key);
+                } catch (IOException ex) {
+                    logger.debug("Closing BIN-RPC connection: {}", ex.getMessage());
+                    close(key);
+                }
+            }
+        }
+
+        private boolean setInterest(SelectionKey key, int interest) {
+            if (!key.isValid()) {
+                return false;
+            }
+            key.interestOps(interest);
+            return true;
+        }
+
+        public void close(SelectionKey key) {
+            key.cancel();
+            try {
+                channel.close();
+            } catch (IOException ioe) {
+                // ignore
+            }
         }
     }
 
     /**
-     * Stops the listening.
+     * Stops the listening. The connections are closed by the selector thread, the key set of the selector is not
+     * thread-safe.
      */
     public void shutdown() {
         accept = false;
+        selector.wakeup();
         try {
-            serverSocket.close();
+            serverChannel.close();
         } catch (IOException ioe) {
             // ignore
         }
@@ -0,0 +1,114 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.homematic.internal.communicator.client;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.openhab.binding.homematic.internal.model.HmChannel;
+import org.openhab.binding.homematic.internal.model.HmDevice;
+import org.openhab.binding.homematic.internal.model.HmInterface;
+import org.openhab.binding.homematic.internal.model.HmParamsetType;
+
+/**
+ * Tests for {@link ParamsetDescriptionCache}.
+ *
+ * @author Martin van Wingerden - Initial contribution
+ */
+public class ParamsetDescriptionCacheTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private File file;
+    private HmChannel channel;
+    private final Object[] description = new Object[] {
+            Collections.singletonMap("LEVEL", Collections.singletonMap("TYPE", "FLOAT")) };
+
+    @Before
+    public void setup() throws IOException {
+        file = new File(folder.getRoot(), "gateway.paramsets");
+        channel = createChannel("OEQ0000001", "1.4");
+    }
+
+    private HmChannel createChannel(String address, String firmware) {
+        HmDevice device = new HmDevice(address, HmInterface.RF, "HM-LC-Dim1T-Pl", "ccu", null, firmware);
+        HmChannel channel = new HmChannel("DIMMER", 1);
+        device.addChannel(channel);
+        return channel;
+    }
+
+    @Test
+    public void descriptionsAreSharedByDevicesOfTheSameType() {
+        ParamsetDescriptionCache cache = new ParamsetDescriptionCache(file);
+        cache.load("2.41.5");
+        cache.put(channel, HmParamsetType.VALUES, description);
+
+        assertThat(cache.get(createChannel("OEQ0000002", "1.4"), HmParamsetType.VALUES), is(description));
+        assertThat(cache.get(channel, HmParamsetType.MASTER), is(nullValue()));
+        assertThat(cache.get(createChannel("OEQ0000003", "1.5"), HmParamsetType.VALUES), is(nullValue()));
+    }
+
+    @Test
+    public void descriptionsOfReconfigurableChannelsAreNotCached() {
+        Map<String, Object> datapoints = new HashMap<>();
+        datapoints.put("CHANNEL_FUNCTION", Collections.singletonMap("TYPE", "INTEGER"));
+        datapoints.put("DURATION_VALUE", Collections.singletonMap("TYPE", "INTEGER"));
+
+        ParamsetDescriptionCache cache = new ParamsetDescriptionCache(file);
+        cache.load("2.41.5");
+        cache.put(channel, HmParamsetType.MASTER, new Object[] { datapoints });
+        cache.save();
+
+        assertThat(cache.get(channel, HmParamsetType.MASTER), is(nullValue()));
+        assertThat(cache.size(), is(0));
+        assertThat(file.exists(), is(false));
+    }
+
+    @Test
+    public void descriptionsSurviveARestart() {
+        ParamsetDescriptionCache cache = new ParamsetDescriptionCache(file);
+        cache.load("2.41.5");
+        cache.put(channel, HmParamsetType.VALUES, description);
+        cache.save();
+
+        ParamsetDescriptionCache restarted = new ParamsetDescriptionCache(file);
+        restarted.load("2.41.5");
+        assertThat(restarted.size(), is(1));
+        @SuppressWarnings("unchecked")
+        Map<String, Object> datapoints = (Map<String, Object>) restarted.get(channel, HmParamsetType.VALUES)[0];
+        assertThat(datapoints.keySet(), is(Collections.singleton("LEVEL")));
+    }
+
+    @Test
+    public void newGatewayFirmwareDiscardsTheCache() {
+        ParamsetDescriptionCache cache = new ParamsetDescriptionCache(file);
+        cache.load("2.41.5");
+        cache.put(channel, HmParamsetType.VALUES, description);
+        cache.save();
+
+        ParamsetDescriptionCache updated = new ParamsetDescriptionCache(file);
+        updated.load("2.45.7");
+        assertThat(updated.size(), is(0));
+        assertThat(updated.get(channel, HmParamsetType.VALUES), is(nullValue()));
+    }
+}
@@ -0,0 +1,130 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.homematic.internal.communicator.message;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.text.ParseException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Ignore;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Tests for {@link BinRpcMessage}.
+ *
+ * @author Martin van Wingerden - Initial contribution
+ */
+public class BinRpcMessageTest {
+    private static final String ENCODING = "UTF-8";
+
+    private final Logger logger = LoggerFactory.getLogger(BinRpcMessageTest.class);
+
+    private Object[] roundTrip(Object... args) throws IOException, ParseException {
+        BinRpcMessage request = new BinRpcMessage("event", ENCODING);
+        for (Object arg : args) {
+            request.addArg(arg);
+        }
+        BinRpcMessage decoded = new BinRpcMessage(request.createMessage(), true, ENCODING);
+        assertThat(decoded.getMethodName(), is("event"));
+        return decoded.getResponseData();
+    }
+
+    @Test
+    public void stringsAreEncodedWithTheirByteLength() throws Exception {
+        Object[] data = roundTrip("BidCos-RF", "Küche °C", "");
+        assertThat(data[0], is("BidCos-RF"));
+        assertThat(data[1], is("Küche °C"));
+        assertThat(data[2], is(""));
+    }
+
+    @Test
+    public void primitiveValues() throws Exception {
+        Object[] data = roundTrip(42, -1, Integer.MAX_VALUE, true, false);
+        assertThat(data[0], is(42));
+        assertThat(data[1], is(-1));
+        assertThat(data[2], is(Integer.MAX_VALUE));
+        assertThat(data[3], is(true));
+        assertThat(data[4], is(false));
+    }
+
+    @Test
+    public void doubleValues() throws Exception {
+        Object[] data = roundTrip(21.5, -0.25);
+        assertEquals(21.5, (Double) data[0], 0.0001);
+        assertEquals(-0.25, (Double) data[1], 0.0001);
+    }
+
+    @Test
+    public void structsAndArrays() throws Exception {
+        Map<String, Object> struct = new HashMap<>();
+        struct.put("ADDRESS", "OEQ0000001:1");
+        struct.put("LEVEL", 1);
+        struct.put("Größe", "ß");
+
+        Object[] data = roundTrip(struct, Arrays.asList("a", 2));
+
+        @SuppressWarnings("unchecked")
+        Map<String, Object> decodedStruct = (Map<String, Object>) data[0];
+        assertThat(decodedStruct, is(struct));
+        Object[] array = (Object[]) data[1];
+        assertThat(array[0], is("a"));
+        assertThat(array[1], is(2));
+    }
+
+    @Test
+    public void decodeFromStream() throws Exception {
+        BinRpcMessage request = new BinRpcMessage("newDevices", ENCODING);
+        request.addArg("BidCos-RF");
+        byte[] message = request.createMessage();
+        assertThat(BinRpcMessage.getMessageLength(message, 0), is(message.length));
+
+        BinRpcMessage decoded = new BinRpcMessage(new ByteArrayInputStream(message), true, ENCODING);
+        assertThat(decoded.getMethodName(), is("newDevices"));
+        assertThat(decoded.getResponseData()[0], is("BidCos-RF"));
+    }
+
+    @Test
+    @Ignore("Benchmark, only run manually")
+    public void benchmark() throws Exception {
+        Map<String, Object> struct = new HashMap<>();
+        struct.put("ADDRESS", "OEQ0000001:1");
+        struct.put("LEVEL", 0.5);
+        struct.put("WORKING", false);
+
+        final int iterations = 100000;
+        long bytes = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            BinRpcMessage request = new BinRpcMessage("event", ENCODING);
+            request.addArg("BidCos-RF");
+            request.addArg("OEQ0000001:1");
+            request.addArg("LEVEL");
+            request.addArg(struct);
+            byte[] message = request.createMessage();
+            bytes += message.length;
+            new BinRpcMessage(message, true, ENCODING).getResponseData();
+        }
+        long duration = Math.max(1, (System.nanoTime() - start) / 1000000);
+        logger.info("Encoded and decoded {} messages ({} bytes) in {} ms, {} messages/s", iterations, bytes,
+                duration, iterations * 1000L / duration);
+    }
+}
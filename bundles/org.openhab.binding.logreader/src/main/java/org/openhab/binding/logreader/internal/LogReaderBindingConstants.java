@@ -37,8 +37,14 @@ public class LogReaderBindingConstants {
     public static final String CHANNEL_ERRORS = "errorEvents";
     public static final String CHANNEL_CUSTOMEVENTS = "customEvents";
     public static final String CHANNEL_LOGROTATED = "logRotated";
+    public static final String CHANNEL_LINES_PER_SECOND = "linesPerSecond";
+    public static final String CHANNEL_MATCH_LATENCY = "matchLatency";
 
     public static final String CHANNEL_NEWWARNING = "newWarningEvent";
     public static final String CHANNEL_NEWERROR = "newErrorEvent";
     public static final String CHANNEL_NEWCUSTOM = "newCustomEvent";
+
+    // List of all tail modes
+    public static final String TAIL_MODE_POLLING = "polling";
+    public static final String TAIL_MODE_WATCH = "watch";
 }
@@ -20,6 +20,7 @@ package org.openhab.binding.logreader.internal.config;
 public class LogReaderConfiguration {
     public String filePath;
     public int refreshRate;
+    public String tailMode;
     public String warningPatterns;
     public String warningBlacklistingPatterns;
     public String errorPatterns;
@@ -29,9 +30,10 @@ public class LogReaderConfiguration {
 
     @Override
     public String toString() {
-        return "[" + "filePath=" + filePath + ", refreshRate=" + refreshRate + ", warningPatterns=" + warningPatterns
-                + ", warningBlacklistingPatterns=" + warningBlacklistingPatterns + ", errorPatterns=" + errorPatterns
-                + ", errorBlacklistingPatterns=" + errorBlacklistingPatterns + ", customPatterns=" + customPatterns
-                + ", customBlacklistingPatterns=" + customBlacklistingPatterns + "]";
+        return "[" + "filePath=" + filePath + ", refreshRate=" + refreshRate + ", tailMode=" + tailMode
+                + ", warningPatterns=" + warningPatterns + ", warningBlacklistingPatterns="
+                + warningBlacklistingPatterns + ", errorPatterns=" + errorPatterns + ", errorBlacklistingPatterns="
+                + errorBlacklistingPatterns + ", customPatterns=" + customPatterns + ", customBlacklistingPatterns="
+                + customBlacklistingPatterns + "]";
     }
 }
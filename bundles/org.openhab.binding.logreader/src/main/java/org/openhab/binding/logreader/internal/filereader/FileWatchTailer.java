@@ -0,0 +1,255 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.logreader.internal.filereader;
+
+import static java.nio.file.StandardWatchEventKinds.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Objects;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.binding.logreader.internal.filereader.api.FileReaderException;
+import org.openhab.binding.logreader.internal.filereader.api.LogFileReader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * {@link WatchService} based log file reader implementation. The file is read as soon as the file system reports a
+ * modification, all new lines are read in blocks. The refresh rate is only used as a fallback for file systems
+ * which don't report modifications.
+ *
+ * @author Martin van Wingerden - Initial contribution
+ */
+public class FileWatchTailer extends AbstractLogFileReader implements LogFileReader, Runnable {
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Logger logger = LoggerFactory.getLogger(FileWatchTailer.class);
+
+    private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+    private final ByteArrayOutputStream partialLine = new ByteArrayOutputStream();
+    private final Charset charset = Charset.defaultCharset();
+
+    private @Nullable Path file;
+    private long refreshRate;
+    private @Nullable WatchService watchService;
+    private @Nullable FileChannel channel;
+    private @Nullable Object fileKey;
+    private volatile boolean running;
+    private boolean fileNotFoundReported;
+    private long fileMovedAt;
+
+    @Override
+    public void start(String filePath, long refreshRate, ScheduledExecutorService scheduler)
+            throws FileReaderException {
+        Path file = Paths.get(filePath).toAbsolutePath();
+        this.file = file;
+        this.refreshRate = refreshRate;
+
+        try {
+            WatchService watchService = file.getFileSystem().newWatchService();
+            file.getParent().register(watchService, ENTRY_CREATE, ENTRY_MODIFY, ENTRY_DELETE);
+            this.watchService = watchService;
+            running = true;
+
+            logger.debug("Start executor");
+            scheduler.execute(this);
+        } catch (Exception e) {
+            throw new FileReaderException(e);
+        }
+    }
+
+    @Override
+    public void stop() {
+        logger.debug("Shutdown");
+
+        running = false;
+        WatchService watchService = this.watchService;
+        if (watchService != null) {
+            try {
+                watchService.close();
+            } catch (IOException e) {
+                logger.debug("Failed to close the watch service: {}", e.getMessage());
+            }
+        }
+    }
+
+    @Override
+    public void run() {
+        try {
+            // start at the end of the file like the polling reader
+            openFile(true);
+            while (running) {
+                readNewLines();
+                waitForModification();
+            }
+        } catch (ClosedWatchServiceException e) {
+            // stopped
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            closeFile();
+        }
+    }
+
+    /**
+     * Waits until the file system reports a change in the directory of the file, or the refresh rate passed.
+     */
+    private void waitForModification() throws InterruptedException {
+        WatchService watchService = this.watchService;
+        if (watchService == null) {
+            return;
+        }
+        WatchKey key = watchService.poll(refreshRate, TimeUnit.MILLISECONDS);
+        while (key != null) {
+            // the events of other files in the same directory just cause a cheap check of the file
+            key.pollEvents();
+            if (!key.reset()) {
+                logger.debug("Directory of '{}' is not accessible any more", file);
+            }
+            key = watchService.poll();
+        }
+    }
+
+    private void readNewLines() {
+        Path file = this.file;
+        if (file == null) {
+            return;
+        }
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+            FileChannel channel = this.channel;
+
+            if (channel == null) {
+                channel = openFile(false);
+                if (channel != null && fileMovedAt > 0) {
+                    logger.debug("File '{}' rotated", file);
+                    sendFileRotationToListeners();
+                }
+                fileMovedAt = 0;
+            } else if (!Objects.equals(attributes.fileKey(), fileKey) || attributes.size() < channel.position()) {
+                // a new file with the same name, finish the old file first
+                readLines(channel);
+                closeFile();
+                logger.debug("File '{}' rotated", file);
+                sendFileRotationToListeners();
+                channel = openFile(false);
+            }
+            if (channel != null) {
+                readLines(channel);
+            }
+        } catch (NoSuchFileException e) {
+            FileChannel channel = this.channel;
+            if (channel != null) {
+                // the file is moved away or deleted, read the rest and wait for the new file before reporting
+                try {
+                    readLines(channel);
+                } catch (IOException ignored) {
+                }
+                closeFile();
+                fileMovedAt = System.currentTimeMillis();
+            } else if (fileMovedAt == 0 || System.currentTimeMillis() - fileMovedAt >= refreshRate) {
+                fileMovedAt = 0;
+                reportFileNotFound();
+            }
+        } catch (IOException e) {
+            closeFile();
+            sendExceptionToListeners(e);
+        }
+    }
+
+    /**
+     * Reads all complete lines from the current position, the last incomplete line is kept until it's completed.
+     */
+    private void readLines(FileChannel channel) throws IOException {
+        while (running && channel.read(buffer) > 0) {
+            buffer.flip();
+            byte[] data = buffer.array();
+            int lineStart = 0;
+
+            for (int i = 0; i < buffer.limit(); i++) {
+                if (data[i] == '\n') {
+                    partialLine.write(data, lineStart, i - lineStart);
+                    sendLineToListeners(takeLine());
+                    lineStart = i + 1;
+                }
+            }
+            partialLine.write(data, lineStart, buffer.limit() - lineStart);
+            buffer.clear();
+        }
+    }
+
+    private String takeLine() {
+        byte[] line = partialLine.toByteArray();
+        partialLine.reset();
+        int length = line.length > 0 && line[line.length - 1] == '\r' ? line.length - 1 : line.length;
+        return new String(line, 0, length, charset);
+    }
+
+    private @Nullable FileChannel openFile(boolean atEnd) {
+        Path file = this.file;
+        if (file == null) {
+            return null;
+        }
+        try {
+            FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+            if (atEnd) {
+                channel.position(channel.size());
+            }
+            fileKey = Files.readAttributes(file, BasicFileAttributes.class).fileKey();
+            partialLine.reset();
+            fileNotFoundReported = false;
+            this.channel = channel;
+            return channel;
+        } catch (NoSuchFileException e) {
+            reportFileNotFound();
+        } catch (IOException e) {
+            sendExceptionToListeners(e);
+        }
+        return null;
+    }
+
+    private void closeFile() {
+        FileChannel channel = this.channel;
+        this.channel = null;
+        if (channel != null) {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                logger.debug("Failed to close '{}': {}", file, e.getMessage());
+            }
+        }
+    }
+
+    private void reportFileNotFound() {
+        closeFile();
+        if (!fileNotFoundReported) {
+            fileNotFoundReported = true;
+            sendFileNotFoundToListeners();
+        }
+    }
+}
@@ -14,7 +14,12 @@ package org.openhab.binding.logreader.internal.handler;
 
 import static org.openhab.binding.logreader.internal.LogReaderBindingConstants.*;
 
+import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.util.Calendar;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.regex.PatternSyntaxException;
 
 import org.eclipse.smarthome.core.library.types.DateTimeType;
@@ -29,6 +34,8 @@ import org.eclipse.smarthome.core.types.Command;
 import org.eclipse.smarthome.core.types.RefreshType;
 import org.eclipse.smarthome.core.types.State;
 import org.openhab.binding.logreader.internal.config.LogReaderConfiguration;
+import org.openhab.binding.logreader.internal.filereader.FileTailer;
+import org.openhab.binding.logreader.internal.filereader.FileWatchTailer;
 import org.openhab.binding.logreader.internal.filereader.api.FileReaderListener;
 import org.openhab.binding.logreader.internal.filereader.api.LogFileReader;
 import org.openhab.binding.logreader.internal.searchengine.SearchEngine;
@@ -43,6 +50,11 @@ import org.slf4j.LoggerFactory;
  * @author Pauli Anttila - Rewrite
  */
 public class LogHandler extends BaseThingHandler implements FileReaderListener {
+    /**
+     * Interval in seconds to update the lines per second and match latency channels
+     */
+    private static final int METRICS_INTERVAL = 10;
+
     private final Logger logger = LoggerFactory.getLogger(LogHandler.class);
 
     private LogReaderConfiguration configuration;
@@ -53,9 +65,13 @@ public class LogHandler extends BaseThingHandler implements FileReaderListener {
     private SearchEngine warningEngine;
     private SearchEngine customEngine;
 
-    public LogHandler(Thing thing, LogFileReader fileReader) {
+    private final AtomicLong lineCount = new AtomicLong();
+    private final AtomicLong matchDuration = new AtomicLong();
+    private long metricsStart;
+    private ScheduledFuture<?> metricsJob;
+
+    public LogHandler(Thing thing) {
         super(thing);
-        this.fileReader = fileReader;
     }
 
     @Override
@@ -102,6 +118,13 @@ public class LogHandler extends BaseThingHandler implements FileReaderListener {
 
         logger.debug("Start file reader");
 
+        fileReader = TAIL_MODE_WATCH.equals(configuration.tailMode) ? new FileWatchTailer() : new FileTailer();
+        lineCount.set(0);
+        matchDuration.set(0);
+        metricsStart = System.nanoTime();
+        metricsJob = scheduler.scheduleWithFixedDelay(this::updateMetrics, METRICS_INTERVAL, METRICS_INTERVAL,
+                TimeUnit.SECONDS);
+
         try {
             fileReader.registerListener(this);
             fileReader.start(configuration.filePath, configuration.refreshRate, scheduler);
@@ -147,10 +170,29 @@ public class LogHandler extends BaseThingHandler implements FileReaderListener {
         }
     }
 
+    private void updateMetrics() {
+        long now = System.nanoTime();
+        long lines = lineCount.getAndSet(0);
+        long duration = matchDuration.getAndSet(0);
+        double seconds = (now - metricsStart) / 1000000000.0;
+        metricsStart = now;
+
+        updateChannelIfLinked(CHANNEL_LINES_PER_SECOND,
+                new DecimalType(BigDecimal.valueOf(lines / seconds).setScale(1, RoundingMode.HALF_UP)));
+        updateChannelIfLinked(CHANNEL_MATCH_LATENCY, new DecimalType(
+                BigDecimal.valueOf(lines > 0 ? duration / 1000.0 / lines : 0).setScale(1, RoundingMode.HALF_UP)));
+    }
+
     private void shutdown() {
-        logger.debug("Stop file reader");
-        fileReader.unregisterListener(this);
-        fileReader.stop();
+        if (metricsJob != null) {
+            metricsJob.cancel(true);
+            metricsJob = null;
+        }
+        if (fileReader != null) {
+            logger.debug("Stop file reader");
+            fileReader.unregisterListener(this);
+            fileReader.stop();
+        }
     }
 
     @Override
@@ -175,17 +217,24 @@ public class LogHandler extends BaseThingHandler implements FileReaderListener {
             updateStatus(ThingStatus.ONLINE);
         }
 
-        if (errorEngine.isMatching(line)) {
+        long start = System.nanoTime();
+        boolean error = errorEngine.isMatching(line);
+        boolean warning = warningEngine.isMatching(line);
+        boolean custom = customEngine.isMatching(line);
+        matchDuration.addAndGet(System.nanoTime() - start);
+        lineCount.incrementAndGet();
+
+        if (error) {
             updateChannelIfLinked(CHANNEL_ERRORS, new DecimalType(errorEngine.getMatchCount()));
             updateChannelIfLinked(CHANNEL_LASTERROR, new StringType(line));
             triggerChannel(CHANNEL_NEWERROR, line);
         }
-        if (warningEngine.isMatching(line)) {
+        if (warning) {
             updateChannelIfLinked(CHANNEL_WARNINGS, new DecimalType(warningEngine.getMatchCount()));
             updateChannelIfLinked(CHANNEL_LASTWARNING, new StringType(line));
             triggerChannel(CHANNEL_NEWWARNING, line);
         }
-        if (customEngine.isMatching(line)) {
+        if (custom) {
             updateChannelIfLinked(CHANNEL_CUSTOMEVENTS, new DecimalType(customEngine.getMatchCount()));
             updateChannelIfLinked(CHANNEL_LASTCUSTOMEVENT, new StringType(line));
             triggerChannel(CHANNEL_NEWCUSTOM, line);
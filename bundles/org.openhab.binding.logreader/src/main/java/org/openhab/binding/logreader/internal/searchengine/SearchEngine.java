@@ -23,12 +23,15 @@ import org.eclipse.jdt.annotation.Nullable;
 /**
  * This class implements logic for regular expression based searching.
  *
+ * Search patterns without regular expression constructs are searched as plain text, which is much faster than a
+ * regular expression. The other patterns are precompiled and their matchers are reused for every line.
+ *
  * @author Pauli Anttila - Initial contribution
  */
 public class SearchEngine {
 
-    private List<Pattern> matchers;
-    private List<Pattern> blacklistingMatchers;
+    private PatternSet matchers;
+    private PatternSet blacklistingMatchers;
 
     private long matchCount;
 
@@ -51,8 +54,8 @@ public class SearchEngine {
      * @return true if one of the search patterns found.
      */
     public boolean isMatching(String data) {
-        if (isMatching(matchers, data)) {
-            if (notBlacklisted(data)) {
+        if (matchers.isMatching(data)) {
+            if (!blacklistingMatchers.isMatching(data)) {
                 matchCount++;
                 return true;
             }
@@ -76,36 +79,80 @@ public class SearchEngine {
      * Split pattern string and precompile search patterns.
      *
      * @param patterns patterns which will handled.
-     * @return list of precompiled patterns. If pattern parameter is null, empty list is returned.
+     * @return set of precompiled patterns. If pattern parameter is null, empty set is returned.
      */
-    private List<Pattern> compilePatterns(@Nullable String patterns) throws PatternSyntaxException {
-        List<Pattern> patternsList = new ArrayList<Pattern>();
+    private PatternSet compilePatterns(@Nullable String patterns) throws PatternSyntaxException {
+        PatternSet patternSet = new PatternSet();
 
         if (patterns != null && !patterns.isEmpty()) {
             String list[] = patterns.split("\\|");
             if (list.length > 0) {
 
                 for (String patternStr : list) {
-                    patternsList.add(Pattern.compile(patternStr));
+                    // always compile, to report syntax errors of the configured pattern
+                    Pattern pattern = Pattern.compile(patternStr);
+                    String literal = toLiteral(patternStr);
+
+                    if (literal != null) {
+                        patternSet.literals.add(literal);
+                    } else {
+                        patternSet.matchers.add(pattern.matcher(""));
+                    }
                 }
             }
         }
-        return patternsList;
+        return patternSet;
     }
 
-    private boolean notBlacklisted(String data) {
-        return !isMatching(blacklistingMatchers, data);
+    /**
+     * Returns the text, which is found by the pattern, if the pattern only consists of plain and escaped characters.
+     * A '+' quantifier at the end is ignored as well, "ERROR+" is found if "ERROR" is found.
+     *
+     * @param pattern pattern to convert
+     * @return the text to search for or null, if the pattern contains regular expression constructs
+     */
+    static @Nullable String toLiteral(String pattern) {
+        StringBuilder literal = new StringBuilder(pattern.length());
+        int length = pattern.endsWith("+") && !pattern.endsWith("\\+") ? pattern.length() - 1 : pattern.length();
+
+        for (int i = 0; i < length; i++) {
+            char c = pattern.charAt(i);
+
+            if (c == '\\') {
+                i++;
+                if (i >= length || Character.isLetterOrDigit(pattern.charAt(i))) {
+                    // character classes, back references and quoting
+                    return null;
+                }
+                literal.append(pattern.charAt(i));
+            } else if ("^$.|?*+()[]{}".indexOf(c) >= 0) {
+                return null;
+            } else {
+                literal.append(c);
+            }
+        }
+        return literal.length() > 0 ? literal.toString() : null;
     }
 
-    private boolean isMatching(@Nullable List<Pattern> patterns, String data) {
-        if (patterns != null) {
-            for (Pattern pattern : patterns) {
-                Matcher matcher = pattern.matcher(data);
-                if (matcher.find()) {
+    /**
+     * Search patterns, split in plain texts and regular expressions.
+     */
+    private static class PatternSet {
+        private final List<String> literals = new ArrayList<>();
+        private final List<Matcher> matchers = new ArrayList<>();
+
+        private boolean isMatching(String data) {
+            for (String literal : literals) {
+                if (data.indexOf(literal) >= 0) {
                     return true;
                 }
             }
+            for (Matcher matcher : matchers) {
+                if (matcher.reset(data).find()) {
+                    return true;
+                }
+            }
+            return false;
         }
-        return false;
     }
 }
@@ -0,0 +1,143 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.logreader.internal.filereader;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.assertThat;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.openhab.binding.logreader.internal.filereader.api.FileReaderListener;
+
+/**
+ * Tests cases for {@link FileWatchTailer}.
+ *
+ * @author Martin van Wingerden - Initial contribution
+ */
+public class FileWatchTailerTest {
+    private static final long REFRESH_RATE = 100;
+    private static final String ROTATED = "<rotated>";
+    private static final String NOT_FOUND = "<not found>";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+    private final BlockingQueue<String> events = new LinkedBlockingQueue<>();
+    private final FileWatchTailer subject = new FileWatchTailer();
+    private Path file;
+
+    @Before
+    public void setUp() throws Exception {
+        file = folder.getRoot().toPath().resolve("openhab.log");
+        append("written before the start\n");
+
+        subject.registerListener(new FileReaderListener() {
+            @Override
+            public void fileNotFound() {
+                events.add(NOT_FOUND);
+            }
+
+            @Override
+            public void fileRotated() {
+                events.add(ROTATED);
+            }
+
+            @Override
+            public void handle(String line) {
+                events.add(line);
+            }
+
+            @Override
+            public void handle(Exception ex) {
+                events.add(ex.toString());
+            }
+        });
+        subject.start(file.toString(), REFRESH_RATE, scheduler);
+
+        // the tailer starts at the end of the file, wait until it is reading
+        String event;
+        do {
+            append("ready\n");
+            event = events.poll(REFRESH_RATE, TimeUnit.MILLISECONDS);
+        } while (event == null);
+        assertThat(event, is("ready"));
+        while ((event = events.poll(REFRESH_RATE * 2, TimeUnit.MILLISECONDS)) != null) {
+            assertThat(event, is("ready"));
+        }
+    }
+
+    @After
+    public void tearDown() {
+        subject.stop();
+        scheduler.shutdownNow();
+    }
+
+    @Test
+    public void partialLinesAreDeliveredOnceCompleted() throws Exception {
+        append("first\r\nsec");
+        assertThat(nextEvent(), is("first"));
+        assertThat(events.poll(REFRESH_RATE * 3, TimeUnit.MILLISECONDS), is(nullValue()));
+
+        append("ond\n");
+        assertThat(nextEvent(), is("second"));
+    }
+
+    @Test
+    public void truncatedFileIsReadFromTheStart() throws Exception {
+        append("before\n");
+        assertThat(nextEvent(), is("before"));
+
+        Files.write(file, new byte[0], StandardOpenOption.TRUNCATE_EXISTING);
+        assertThat(nextEvent(), is(ROTATED));
+
+        append("after\n");
+        assertThat(nextEvent(), is("after"));
+    }
+
+    @Test
+    public void recreatedFileIsReadFromTheStart() throws Exception {
+        append("last line of the old file\n");
+        Files.move(file, file.resolveSibling("openhab.log.1"));
+        append("first line of the new file\n");
+
+        assertThat(nextEvent(), is("last line of the old file"));
+        assertThat(nextEvent(), is(ROTATED));
+        assertThat(nextEvent(), is("first line of the new file"));
+    }
+
+    private String nextEvent() throws InterruptedException {
+        String event = events.poll(5, TimeUnit.SECONDS);
+        assertThat(event, is(notNullValue()));
+        return event;
+    }
+
+    private void append(String text) throws IOException {
+        Files.write(file, text.getBytes(StandardCharsets.UTF_8), StandardOpenOption.CREATE,
+                StandardOpenOption.APPEND);
+    }
+}
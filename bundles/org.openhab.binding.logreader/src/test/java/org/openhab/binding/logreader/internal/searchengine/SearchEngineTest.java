@@ -0,0 +1,74 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.logreader.internal.searchengine;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.assertThat;
+
+import java.util.regex.Pattern;
+
+import org.junit.Test;
+
+/**
+ * Tests cases for {@link SearchEngine}.
+ *
+ * @author Martin van Wingerden - Initial contribution
+ */
+public class SearchEngineTest {
+    private static final String[] LINES = { "", "ERROR", "ERRO", "ERRORRR", "2019 [ERROR] boom", "[WARN ] low",
+            "[WARN] low", "a.", "a..", "ab", "a", "\\", "\\\\", "x\\+", "+", "a|b", "a.b", "Error", "error" };
+
+    @Test
+    public void plainPatternsAreSearchedAsText() {
+        assertThat(SearchEngine.toLiteral("ERROR"), is("ERROR"));
+        assertThat(SearchEngine.toLiteral("ERROR+"), is("ERROR"));
+        assertThat(SearchEngine.toLiteral("\\[WARN \\]"), is("[WARN ]"));
+        assertThat(SearchEngine.toLiteral("a\\.+"), is("a."));
+        assertThat(SearchEngine.toLiteral("\\+"), is("+"));
+    }
+
+    @Test
+    public void regularExpressionsAreNotSearchedAsText() {
+        assertThat(SearchEngine.toLiteral("\\\\+"), is(nullValue()));
+        assertThat(SearchEngine.toLiteral("\\Qa|b\\E"), is(nullValue()));
+        assertThat(SearchEngine.toLiteral("a.b"), is(nullValue()));
+        assertThat(SearchEngine.toLiteral("\\d"), is(nullValue()));
+        assertThat(SearchEngine.toLiteral("(?i)error"), is(nullValue()));
+        assertThat(SearchEngine.toLiteral("ERROR++"), is(nullValue()));
+    }
+
+    @Test
+    public void literalAndRegularExpressionSearchFindTheSameLines() {
+        // the configuration is split at '|' first, so the patterns themselves don't contain one
+        String[] patterns = { "ERROR", "ERROR+", "\\[WARN \\]", "a\\.+", "\\\\+", "\\+", "\\Qa.b\\E", "\\Qa.\\E",
+                "a.b", "(?i)error", "ERROR++" };
+        for (String pattern : patterns) {
+            SearchEngine engine = new SearchEngine(pattern, null);
+            Pattern regex = Pattern.compile(pattern);
+            for (String line : LINES) {
+                assertThat("'" + pattern + "' in '" + line + "'", engine.isMatching(line),
+                        is(regex.matcher(line).find()));
+            }
+        }
+    }
+
+    @Test
+    public void blacklistedLinesAreNotMatching() {
+        SearchEngine engine = new SearchEngine("ERROR+|\\[WARN \\]", "boom");
+
+        assertThat(engine.isMatching("[WARN ] low"), is(true));
+        assertThat(engine.isMatching("2019 [ERROR] boom"), is(false));
+        assertThat(engine.isMatching("ERRO"), is(false));
+        assertThat(engine.getMatchCount(), is(1L));
+    }
+}
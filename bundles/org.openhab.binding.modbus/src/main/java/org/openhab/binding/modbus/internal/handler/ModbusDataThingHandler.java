@@ -150,6 +150,10 @@ public class ModbusDataThingHandler extends BaseThingHandler implements ModbusRe
     private volatile Map<String, ChannelUID> channelCache = new HashMap<>();
     private volatile Map<ChannelUID, Long> channelLastUpdated = new HashMap<>(NUMER_OF_CHANNELS_HINT);
     private volatile Map<ChannelUID, State> channelLastState = new HashMap<>(NUMER_OF_CHANNELS_HINT);
+    // raw bits and decoded state of the last register value, the state is only decoded again when the bits change
+    private volatile long lastRawValue;
+    private volatile @Nullable ValueType lastRawValueType;
+    private volatile @Nullable State lastNumericState;
 
     private volatile LocalDateTime lastStatusInfoUpdate = LocalDateTime.MIN;
     private volatile ThingStatusInfo statusInfo = new ThingStatusInfo(ThingStatus.UNKNOWN, ThingStatusDetail.NONE,
@@ -419,6 +423,9 @@ public class ModbusDataThingHandler extends BaseThingHandler implements ModbusRe
         statusInfo = new ThingStatusInfo(ThingStatus.UNKNOWN, ThingStatusDetail.NONE, null);
         channelLastUpdated = new HashMap<>(NUMER_OF_CHANNELS_HINT);
         channelLastState = new HashMap<>(NUMER_OF_CHANNELS_HINT);
+        lastRawValue = 0;
+        lastRawValueType = null;
+        lastNumericState = null;
     }
 
     @Override
@@ -680,8 +687,17 @@ public class ModbusDataThingHandler extends BaseThingHandler implements ModbusRe
             int itemsPerRegister = 16 / readValueType.getBits();
             extractIndex = (readIndex.get() - pollStart) * itemsPerRegister + subIndex;
         }
-        numericState = ModbusBitUtilities.extractStateFromRegisters(registers, extractIndex, readValueType)
-                .map(state -> (State) state).orElse(UnDefType.UNDEF);
+        long rawValue = ModbusBitUtilities.extractRawValueFromRegisters(registers, extractIndex, readValueType);
+        State lastNumericState = this.lastNumericState;
+        if (lastNumericState != null && rawValue == lastRawValue && readValueType == lastRawValueType) {
+            numericState = lastNumericState;
+        } else {
+            numericState = ModbusBitUtilities.extractStateFromRawValue(rawValue, readValueType)
+                    .map(state -> (State) state).orElse(UnDefType.UNDEF);
+            this.lastRawValue = rawValue;
+            this.lastRawValueType = readValueType;
+            this.lastNumericState = numericState;
+        }
         boolean boolValue = !numericState.equals(DecimalType.ZERO);
         Map<ChannelUID, State> values = processUpdatedValue(numericState, boolValue);
         logger.debug(
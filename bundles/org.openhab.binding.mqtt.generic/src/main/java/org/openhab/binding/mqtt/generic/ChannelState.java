@@ -14,6 +14,7 @@ package org.openhab.binding.mqtt.generic;
 
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Formatter;
 import java.util.IllegalFormatException;
 import java.util.List;
@@ -27,6 +28,7 @@ import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.smarthome.core.thing.ChannelUID;
 import org.eclipse.smarthome.core.types.Command;
+import org.eclipse.smarthome.core.types.State;
 import org.eclipse.smarthome.core.types.TypeParser;
 import org.eclipse.smarthome.io.transport.mqtt.MqttBrokerConnection;
 import org.eclipse.smarthome.io.transport.mqtt.MqttMessageSubscriber;
@@ -61,6 +63,9 @@ public class ChannelState implements MqttMessageSubscriber {
     protected boolean hasSubscribed = false;
     private @Nullable ScheduledFuture<?> scheduledFuture;
     private CompletableFuture<@Nullable Void> future = new CompletableFuture<>();
+    // Last payload and the state it resulted in, to skip processing a repeated payload
+    private byte @Nullable [] lastPayload;
+    private @Nullable State lastPayloadState;
 
     /**
      * Creates a new channel state.
@@ -145,40 +150,58 @@ public class ChannelState implements MqttMessageSubscriber {
             return;
         }
 
+        // Repeated payload: The cached value is still the outcome, only propagate it again
+        final State lastPayloadState = this.lastPayloadState;
+        if (lastPayloadState != null && lastPayloadState == cachedValue.getChannelState()
+                && Arrays.equals(payload, lastPayload)) {
+            propagateCachedValue(channelStateUpdateListener);
+            return;
+        }
+        forgetPayload();
+
         if (cachedValue.isBinary()) {
             cachedValue.update(payload);
-            channelStateUpdateListener.updateChannelState(channelUID, cachedValue.getChannelState());
-            receivedOrTimeout();
+            rememberPayload(payload);
+            propagateCachedValue(channelStateUpdateListener);
             return;
         }
 
-        // String value: Apply transformations
-        String strValue = new String(payload, StandardCharsets.UTF_8);
-        for (ChannelStateTransformation t : transformationsIn) {
-            String transformedValue = t.processValue(strValue);
-            if (transformedValue != null) {
-                strValue = transformedValue;
-            } else {
-                logger.debug("Transformation '{}' returned null on '{}', discarding message", strValue,
-                        t.serviceName);
+        // Values able to parse the raw payload do not need it to be decoded
+        Command command = null;
+        if (transformationsIn.isEmpty() && !config.trigger) {
+            command = cachedValue.parseCommand(payload);
+        }
+
+        String strValue = "";
+        if (command == null) {
+            // String value: Apply transformations
+            strValue = new String(payload, StandardCharsets.UTF_8);
+            for (ChannelStateTransformation t : transformationsIn) {
+                String transformedValue = t.processValue(strValue);
+                if (transformedValue != null) {
+                    strValue = transformedValue;
+                } else {
+                    logger.debug("Transformation '{}' returned null on '{}', discarding message", strValue,
+                            t.serviceName);
+                    receivedOrTimeout();
+                    return;
+                }
+            }
+
+            // Is trigger?: Special handling
+            if (config.trigger) {
+                channelStateUpdateListener.triggerChannel(channelUID, strValue);
                 receivedOrTimeout();
                 return;
             }
-        }
-
-        // Is trigger?: Special handling
-        if (config.trigger) {
-            channelStateUpdateListener.triggerChannel(channelUID, strValue);
-            receivedOrTimeout();
-            return;
-        }
 
-        Command command = TypeParser.parseCommand(cachedValue.getSupportedCommandTypes(), strValue);
-        if (command == null) {
-            logger.warn("Incoming payload '{}' not supported by type '{}'", strValue,
-                    cachedValue.getClass().getSimpleName());
-            receivedOrTimeout();
-            return;
+            command = TypeParser.parseCommand(cachedValue.getSupportedCommandTypes(), strValue);
+            if (command == null) {
+                logger.warn("Incoming payload '{}' not supported by type '{}'", strValue,
+                        cachedValue.getClass().getSimpleName());
+                receivedOrTimeout();
+                return;
+            }
         }
 
         Command postOnlyCommand = cachedValue.isPostOnly(command);
@@ -192,13 +215,21 @@ public class ChannelState implements MqttMessageSubscriber {
         try {
             cachedValue.update(command);
         } catch (IllegalArgumentException | IllegalStateException e) {
-            logger.warn("Command '{}' not supported by type '{}': {}", strValue, cachedValue.getClass().getSimpleName(),
+            logger.warn("Command '{}' not supported by type '{}': {}", command, cachedValue.getClass().getSimpleName(),
                     e.getMessage());
             receivedOrTimeout();
             return;
         }
 
-        if (config.postCommand) {
+        // Only a command that became the state is known to have the same outcome again, unlike INCREASE for example
+        if (command.equals(cachedValue.getChannelState())) {
+            rememberPayload(payload);
+        }
+        propagateCachedValue(channelStateUpdateListener);
+    }
+
+    private void propagateCachedValue(ChannelStateUpdateListener channelStateUpdateListener) {
+        if (config.postCommand && !cachedValue.isBinary()) {
             channelStateUpdateListener.postChannelCommand(channelUID, (Command) cachedValue.getChannelState());
         } else {
             channelStateUpdateListener.updateChannelState(channelUID, cachedValue.getChannelState());
@@ -206,6 +237,16 @@ public class ChannelState implements MqttMessageSubscriber {
         receivedOrTimeout();
     }
 
+    private void rememberPayload(byte[] payload) {
+        lastPayload = payload;
+        lastPayloadState = cachedValue.getChannelState();
+    }
+
+    private void forgetPayload() {
+        lastPayload = null;
+        lastPayloadState = null;
+    }
+
     /**
      * Returns the state topic. Might be an empty string if this is a stateless channel (TRIGGER kind channel).
      */
@@ -255,6 +296,7 @@ public class ChannelState implements MqttMessageSubscriber {
         this.connection = null;
         this.channelStateUpdateListener = null;
         hasSubscribed = false;
+        forgetPayload();
         cachedValue.resetState();
     }
 
@@ -294,6 +336,10 @@ public class ChannelState implements MqttMessageSubscriber {
 
         this.connection = connection;
 
+        // Look up the transformation services once, instead of with the first value
+        transformationsIn.forEach(ChannelStateTransformation::resolve);
+        transformationsOut.forEach(ChannelStateTransformation::resolve);
+
         if (StringUtils.isBlank(config.stateTopic)) {
             return CompletableFuture.completedFuture(null);
         }
@@ -329,6 +375,7 @@ public class ChannelState implements MqttMessageSubscriber {
      */
     public CompletableFuture<Boolean> publishValue(Command command) {
         cachedValue.update(command);
+        forgetPayload();
 
         String mqttCommandValue = cachedValue.getMQTTpublishValue();
 
@@ -70,6 +70,23 @@ public class ChannelStateTransformation {
         this.provider = provider;
     }
 
+    /**
+     * Looks up the transformation service, unless it has been looked up before and is still available.
+     * Called by the {@link ChannelState} on start, so that incoming MQTT values do not need to wait for the lookup.
+     *
+     * @return The transformation service or null if it is not available (yet)
+     */
+    protected @Nullable TransformationService resolve() {
+        TransformationService transformationService = this.transformationService.get();
+        if (transformationService == null) {
+            transformationService = provider.getTransformationService(serviceName);
+            if (transformationService != null) {
+                this.transformationService = new WeakReference<>(transformationService);
+            }
+        }
+        return transformationService;
+    }
+
     /**
      * Will be called by the {@link ChannelState} for each incoming MQTT value.
      *
@@ -77,14 +94,10 @@ public class ChannelStateTransformation {
      * @return The transformed value
      */
     protected @Nullable String processValue(String value) {
-        TransformationService transformationService = this.transformationService.get();
+        TransformationService transformationService = resolve();
         if (transformationService == null) {
-            transformationService = provider.getTransformationService(serviceName);
-            if (transformationService == null) {
-                logger.warn("Transformation service {} for pattern {} not found!", serviceName, pattern);
-                return value;
-            }
-            this.transformationService = new WeakReference<>(transformationService);
+            logger.warn("Transformation service {} for pattern {} not found!", serviceName, pattern);
+            return value;
         }
         String returnValue = null;
         try {
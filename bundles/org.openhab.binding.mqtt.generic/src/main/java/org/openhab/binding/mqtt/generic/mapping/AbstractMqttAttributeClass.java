@@ -102,7 +102,6 @@ public abstract class AbstractMqttAttributeClass implements SubscribeFieldToMQTT
     protected transient List<SubscribeFieldToMQTTtopic> subscriptions = new ArrayList<>();
     public transient WeakReference<@Nullable MqttBrokerConnection> connection = new WeakReference<>(null);
     protected transient WeakReference<@Nullable ScheduledExecutorService> scheduler = new WeakReference<>(null);
-    private final String prefix;
     private transient String basetopic = "";
     protected transient AttributeChanged attributeChangedListener = (b, c, d, e, f) -> {
     };
@@ -125,12 +124,6 @@ public abstract class AbstractMqttAttributeClass implements SubscribeFieldToMQTT
                 ScheduledExecutorService scheduler, boolean allMandatoryFieldsReceived);
     }
 
-    @SuppressWarnings("null")
-    protected AbstractMqttAttributeClass() {
-        TopicPrefix topicUsesPrefix = getFieldsOf().getClass().getAnnotation(TopicPrefix.class);
-        prefix = (topicUsesPrefix != null) ? topicUsesPrefix.value() : "";
-    }
-
     /**
      * Unsubscribe from all topics of the managed object.
      *
@@ -188,8 +181,10 @@ public abstract class AbstractMqttAttributeClass implements SubscribeFieldToMQTT
             };
         }
 
-        subscriptions = getAllFields(getFieldsOf().getClass()).stream().filter(AbstractMqttAttributeClass::filterField)
-                .map(this::mapFieldToSubscriber).collect(Collectors.toList());
+        final String topicPrefix = basetopic + "/";
+        subscriptions = AttributeClassMetadata.of(getFieldsOf().getClass()).getBindings().stream()
+                .map(b -> createSubscriber(scheduler, b.field, topicPrefix + b.topicSuffix, b.mandatory))
+                .collect(Collectors.toList());
 
         final CompletableFuture<?>[] futures = subscriptions.stream()
                 .map(m -> m.subscribeAndReceive(connection, timeout)).toArray(CompletableFuture[]::new);
@@ -222,32 +217,6 @@ public abstract class AbstractMqttAttributeClass implements SubscribeFieldToMQTT
                 && !Modifier.isStatic(field.getModifiers());
     }
 
-    /**
-     * Maps the given field to a newly created {@link SubscribeFieldToMQTTtopic}.
-     * Requires the scheduler of this class to be set.
-     *
-     * @param field A field
-     * @return A newly created {@link SubscribeFieldToMQTTtopic}.
-     */
-    protected SubscribeFieldToMQTTtopic mapFieldToSubscriber(Field field) {
-        final ScheduledExecutorService scheduler = this.scheduler.get();
-        if (scheduler == null) {
-            throw new IllegalStateException("No scheduler set!");
-        }
-
-        MandatoryField mandatoryField = field.getAnnotation(MandatoryField.class);
-        @SuppressWarnings("null")
-        boolean mandatory = mandatoryField != null;
-
-        TopicPrefix topicUsesPrefix = field.getAnnotation(TopicPrefix.class);
-        @SuppressWarnings("null")
-        String localPrefix = (topicUsesPrefix != null) ? topicUsesPrefix.value() : prefix;
-
-        final String topic = basetopic + "/" + localPrefix + field.getName();
-
-        return createSubscriber(scheduler, field, topic, mandatory);
-    }
-
     /**
      * Creates a field subscriber for the given field on the given object
      *
@@ -303,7 +272,14 @@ public abstract class AbstractMqttAttributeClass implements SubscribeFieldToMQTT
         // Set field. It is not a reason to fail the future exceptionally if a field could not be set.
         // But at least issue a warning to the log.
         try {
-            field.set(getFieldsOf(), value);
+            final Object bean = getFieldsOf();
+            final AttributeClassMetadata.FieldBinding binding = AttributeClassMetadata.of(bean.getClass())
+                    .getBinding(field);
+            if (binding != null) {
+                binding.set(bean, value);
+            } else {
+                field.set(bean, value);
+            }
             final boolean newComplete = !subscriptions.stream().anyMatch(s -> s.isMandatory() && !s.hasReceivedValue());
             attributeChangedListener.attributeChanged(field.getName(), value, connection, scheduler, newComplete);
             complete = newComplete;
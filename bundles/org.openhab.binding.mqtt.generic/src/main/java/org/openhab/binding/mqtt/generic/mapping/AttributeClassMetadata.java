@@ -0,0 +1,189 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.mqtt.generic.mapping;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+
+/**
+ * The binding metadata of an attribute class: the fields that are mapped to MQTT topics together with everything
+ * needed to convert and assign a received value.
+ *
+ * The metadata is computed once per class, so that subscribing an attribute class and receiving values does not
+ * need to look at the fields and annotations again.
+ *
+ * @author Martin van Wingerden - Initial contribution
+ */
+@NonNullByDefault
+class AttributeClassMetadata {
+    private static final ClassValue<AttributeClassMetadata> METADATA = new ClassValue<AttributeClassMetadata>() {
+        @Override
+        protected AttributeClassMetadata computeValue(@Nullable Class<?> type) {
+            if (type == null) {
+                throw new IllegalArgumentException("No class given");
+            }
+            return new AttributeClassMetadata(type);
+        }
+    };
+
+    private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+    /**
+     * A field mapped to a MQTT topic
+     */
+    static class FieldBinding {
+        final Field field;
+        final String topicSuffix;
+        final boolean mandatory;
+        final @Nullable MQTTvalueTransform transform;
+        private final Function<String, Object> converter;
+        private final @Nullable MethodHandle setter;
+
+        FieldBinding(Field field, String classPrefix) {
+            this.field = field;
+            TopicPrefix topicUsesPrefix = field.getAnnotation(TopicPrefix.class);
+            this.topicSuffix = (topicUsesPrefix != null ? topicUsesPrefix.value() : classPrefix) + field.getName();
+            this.mandatory = field.getAnnotation(MandatoryField.class) != null;
+            this.transform = field.getAnnotation(MQTTvalueTransform.class);
+            this.converter = converterFor(field.getType());
+            MethodHandle setter;
+            try {
+                setter = MethodHandles.lookup().unreflectSetter(field).asType(SETTER_TYPE);
+            } catch (IllegalAccessException e) {
+                // Not accessible, assigning with reflection will report the problem
+                setter = null;
+            }
+            this.setter = setter;
+        }
+
+        /**
+         * Converts the received value to the field type. Numbers, booleans and enums are parsed, other types get the
+         * string itself.
+         */
+        Object convert(String value) {
+            return converter.apply(value);
+        }
+
+        /**
+         * Assigns the value to the field of the given bean.
+         *
+         * @throws IllegalArgumentException If the value cannot be assigned to the field
+         * @throws IllegalAccessException If the field is not accessible
+         */
+        void set(Object bean, Object value) throws IllegalArgumentException, IllegalAccessException {
+            final MethodHandle setter = this.setter;
+            if (setter == null) {
+                field.set(bean, value);
+                return;
+            }
+            try {
+                setter.invokeExact(bean, value);
+            } catch (ClassCastException | NullPointerException e) {
+                throw new IllegalArgumentException(e);
+            } catch (Error | RuntimeException e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    private final List<FieldBinding> bindings;
+    private final Map<Field, FieldBinding> bindingsByField = new HashMap<>();
+
+    private AttributeClassMetadata(Class<?> type) {
+        TopicPrefix topicUsesPrefix = type.getAnnotation(TopicPrefix.class);
+        String classPrefix = (topicUsesPrefix != null) ? topicUsesPrefix.value() : "";
+
+        List<FieldBinding> bindings = new ArrayList<>();
+        for (Field field : AbstractMqttAttributeClass.getAllFields(type)) {
+            if (AbstractMqttAttributeClass.filterField(field)) {
+                FieldBinding binding = new FieldBinding(field, classPrefix);
+                bindings.add(binding);
+                bindingsByField.put(field, binding);
+            }
+        }
+        this.bindings = Collections.unmodifiableList(bindings);
+    }
+
+    /**
+     * Returns the metadata of the given attribute class.
+     *
+     * @param type The class of the object with the fields, see {@link AbstractMqttAttributeClass#getFieldsOf()}
+     */
+    static AttributeClassMetadata of(Class<?> type) {
+        return METADATA.get(type);
+    }
+
+    /**
+     * Returns the binding of the given field. Fields not mapped by their class get a binding that is not cached.
+     *
+     * @param field A field
+     */
+    static FieldBinding of(Field field) {
+        FieldBinding binding = of(field.getDeclaringClass()).bindingsByField.get(field);
+        return binding != null ? binding : new FieldBinding(field, "");
+    }
+
+    /**
+     * Returns the bindings of all mapped fields of the class and its super classes.
+     */
+    List<FieldBinding> getBindings() {
+        return bindings;
+    }
+
+    /**
+     * Returns the binding of the given field of this class, or null if the field is not mapped.
+     */
+    @Nullable
+    FieldBinding getBinding(Field field) {
+        return bindingsByField.get(field);
+    }
+
+    private static Function<String, Object> converterFor(Class<?> type) {
+        if (type.equals(Float.class) || type.equals(float.class)) {
+            return Float::valueOf;
+        } else if (type.equals(Double.class) || type.equals(double.class)) {
+            return Double::valueOf;
+        } else if (type.equals(Long.class) || type.equals(long.class)) {
+            return Long::valueOf;
+        } else if (type.equals(BigDecimal.class)) {
+            return BigDecimal::new;
+        } else if (type.equals(Integer.class) || type.equals(int.class)) {
+            return Integer::valueOf;
+        } else if (type.equals(Boolean.class) || type.equals(boolean.class)) {
+            return Boolean::valueOf;
+        } else if (type.isEnum()) {
+            @SuppressWarnings({ "rawtypes", "unchecked" })
+            final Class<? extends Enum> enumType = (Class<? extends Enum>) type;
+            return value -> {
+                @SuppressWarnings("unchecked")
+                Enum<?> enumValue = Enum.valueOf(enumType, value);
+                return enumValue;
+            };
+        }
+        return value -> value;
+    }
+}
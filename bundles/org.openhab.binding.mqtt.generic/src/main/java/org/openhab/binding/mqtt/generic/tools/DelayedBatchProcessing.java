@@ -13,79 +13,198 @@
 package org.openhab.binding.mqtt.generic.tools;
 
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Consumer;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * Collects objects over time until a specified delay passed by.
  * Then call the user back with a list of accumulated objects and start over again.
  *
+ * <p>
+ * Optionally the batch size can be limited. A batch is delivered as soon as it is full, instead of waiting for the
+ * delay, so that a burst of objects reaches the consumer in several batches.
+ * </p>
+ *
+ * <p>
+ * Optionally the queue size can be limited as well. A producer that finds the queue full waits until the consumer
+ * made room, so objects that arrive faster than they are consumed slow the producer down. If there is still no room
+ * after the offer timeout, the object is dropped. Both cases are counted and logged.
+ * </p>
+ *
  * @author David Graeff - Initial contribution
  *
  * @param <T> Any object
  */
 @NonNullByDefault
 public class DelayedBatchProcessing<T> implements Consumer<T> {
+    private final Logger logger = LoggerFactory.getLogger(DelayedBatchProcessing.class);
     private final int delay;
+    private final int maxBatchSize;
+    private final int maxQueueSize;
+    private final long offerTimeout;
     private final Consumer<List<T>> consumer;
-    private final List<T> queue = Collections.synchronizedList(new ArrayList<>());
+    // Guarded by itself, as well as the scheduling state below
+    private final List<T> queue = new ArrayList<>();
+    // Batches are delivered one after the other
+    private final Object deliveryLock = new Object();
     private final ScheduledExecutorService executor;
     protected @Nullable ScheduledFuture<?> future;
+    private boolean scheduled = false;
+    private boolean scheduledNow = false;
+    private final AtomicLong blockedCount = new AtomicLong();
+    private final AtomicLong droppedCount = new AtomicLong();
 
     /**
-     * Creates a {@link DelayedBatchProcessing}.
+     * Creates a {@link DelayedBatchProcessing} without a limit for the batch and the queue size.
      *
      * @param delay A delay in milliseconds
      * @param consumer A consumer of the list of collected objects
      * @param executor A scheduled executor service
      */
     public DelayedBatchProcessing(int delay, Consumer<List<T>> consumer, ScheduledExecutorService executor) {
+        this(delay, 0, consumer, executor);
+    }
+
+    /**
+     * Creates a {@link DelayedBatchProcessing} without a limit for the queue size.
+     *
+     * @param delay The maximum latency in milliseconds, counted from the first object of a batch
+     * @param maxBatchSize The maximum number of objects per batch. A full batch is delivered immediately.
+     *            0 for no limit.
+     * @param consumer A consumer of the list of collected objects
+     * @param executor A scheduled executor service
+     */
+    public DelayedBatchProcessing(int delay, int maxBatchSize, Consumer<List<T>> consumer,
+            ScheduledExecutorService executor) {
+        this(delay, maxBatchSize, 0, 0, consumer, executor);
+    }
+
+    /**
+     * Creates a {@link DelayedBatchProcessing}.
+     *
+     * @param delay The maximum latency in milliseconds, counted from the first object of a batch
+     * @param maxBatchSize The maximum number of objects per batch. A full batch is delivered immediately.
+     *            0 for no limit.
+     * @param maxQueueSize The maximum number of queued objects, at least the batch size. 0 for no limit.
+     * @param offerTimeout The time in milliseconds a producer waits for room in a full queue
+     * @param consumer A consumer of the list of collected objects
+     * @param executor A scheduled executor service
+     */
+    public DelayedBatchProcessing(int delay, int maxBatchSize, int maxQueueSize, long offerTimeout,
+            Consumer<List<T>> consumer, ScheduledExecutorService executor) {
         this.delay = delay;
+        this.maxBatchSize = maxBatchSize;
+        this.maxQueueSize = maxQueueSize;
+        this.offerTimeout = offerTimeout;
         this.consumer = consumer;
         this.executor = executor;
         if (delay <= 0) {
             throw new IllegalArgumentException("Delay need to be greater than 0!");
         }
+        if (maxBatchSize < 0) {
+            throw new IllegalArgumentException("The batch size must not be negative!");
+        }
+        if (maxQueueSize < 0 || (maxQueueSize > 0 && maxQueueSize < maxBatchSize)) {
+            throw new IllegalArgumentException("The queue size must be 0 or at least the batch size!");
+        }
     }
 
     /**
      * Add new object to the batch process list. If the list was empty, the delay timer
      * is armed and all successive objects are accumulated from here on.
      *
+     * If the queue is full, this waits up to the offer timeout for room and drops the object afterwards.
+     *
      * @param t An object
      */
     @Override
     public void accept(T t) {
-        queue.add(t);
-        final ScheduledFuture<?> scheduledFuture = this.future;
-        if (scheduledFuture == null || scheduledFuture.isDone()) {
-            this.future = executor.schedule(this::run, delay, TimeUnit.MILLISECONDS);
+        if (!offer(t)) {
+            long dropped = droppedCount.incrementAndGet();
+            logger.warn("The queue of {} objects is full, dropped an object ({} in total)", maxQueueSize, dropped);
+        }
+    }
+
+    /**
+     * Add new object to the batch process list, like {@link #accept(Object)}.
+     *
+     * @param t An object
+     * @return false, if the queue is still full after the offer timeout and the object was not added
+     */
+    public boolean offer(T t) {
+        synchronized (queue) {
+            if (maxQueueSize > 0 && queue.size() >= maxQueueSize) {
+                blockedCount.incrementAndGet();
+                logger.debug("The queue of {} objects is full, waiting for the consumer", maxQueueSize);
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(offerTimeout);
+                try {
+                    while (queue.size() >= maxQueueSize) {
+                        long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+                        if (remaining <= 0) {
+                            return false;
+                        }
+                        queue.wait(remaining);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            }
+            queue.add(t);
+            if (maxBatchSize > 0 && queue.size() >= maxBatchSize) {
+                if (!scheduledNow) {
+                    final ScheduledFuture<?> scheduledFuture = this.future;
+                    if (scheduledFuture != null) {
+                        scheduledFuture.cancel(false);
+                    }
+                    this.future = executor.schedule(this::run, 0, TimeUnit.MILLISECONDS);
+                    scheduled = true;
+                    scheduledNow = true;
+                }
+            } else if (!scheduled) {
+                this.future = executor.schedule(this::run, delay, TimeUnit.MILLISECONDS);
+                scheduled = true;
+            }
+            return true;
         }
     }
 
+    /**
+     * Returns the number of objects which had to wait for room in the queue.
+     */
+    public long getBlockedCount() {
+        return blockedCount.get();
+    }
+
+    /**
+     * Returns the number of objects which have been dropped, because the queue stayed full.
+     */
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+
     /**
      * Return the so far accumulated objects, but do not deliver them to the target consumer anymore.
      *
      * @return A list of accumulated objects
      */
     public List<T> join() {
-        ScheduledFuture<?> scheduledFuture = this.future;
-        if (scheduledFuture != null && !scheduledFuture.isDone()) {
-            scheduledFuture.cancel(false);
-        }
-        List<T> lqueue = new ArrayList<>();
         synchronized (queue) {
-            lqueue.addAll(queue);
+            cancel();
+            List<T> lqueue = new ArrayList<>(queue);
             queue.clear();
+            queue.notifyAll();
+            return lqueue;
         }
-        return lqueue;
     }
 
     /**
@@ -100,22 +219,60 @@ public class DelayedBatchProcessing<T> implements Consumer<T> {
      * Deliver queued items now to the target consumer.
      */
     public void forceProcessNow() {
+        synchronized (queue) {
+            cancel();
+        }
+        process(true);
+    }
+
+    private void cancel() {
         ScheduledFuture<?> scheduledFuture = this.future;
         if (scheduledFuture != null && !scheduledFuture.isDone()) {
             scheduledFuture.cancel(false);
         }
-        run();
+        scheduled = false;
+        scheduledNow = false;
     }
 
     private void run() {
-        List<T> lqueue = new ArrayList<>();
-        synchronized (queue) {
-            lqueue.addAll(queue);
-            queue.clear();
-        }
+        process(false);
+    }
+
+    /**
+     * Delivers the queued objects in batches. Full batches are delivered right away, a remaining partial batch is
+     * delivered after the delay.
+     *
+     * @param all Deliver a remaining partial batch as well
+     */
+    private void process(boolean all) {
+        synchronized (deliveryLock) {
+            boolean more = true;
+            while (more) {
+                List<T> lqueue;
+                synchronized (queue) {
+                    scheduled = false;
+                    scheduledNow = false;
+                    int size = (maxBatchSize > 0) ? Math.min(maxBatchSize, queue.size()) : queue.size();
+                    List<T> batch = queue.subList(0, size);
+                    lqueue = new ArrayList<>(batch);
+                    batch.clear();
+                    queue.notifyAll();
+
+                    more = !queue.isEmpty() && (all || (maxBatchSize > 0 && queue.size() >= maxBatchSize));
+                    if (!queue.isEmpty()) {
+                        logger.debug("Delivering a batch of {} objects, {} objects remain queued", lqueue.size(),
+                                queue.size());
+                    }
+                    if (!queue.isEmpty() && !more) {
+                        this.future = executor.schedule(this::run, delay, TimeUnit.MILLISECONDS);
+                        scheduled = true;
+                    }
+                }
 
-        if (!lqueue.isEmpty()) {
-            consumer.accept(lqueue);
+                if (!lqueue.isEmpty()) {
+                    consumer.accept(lqueue);
+                }
+            }
         }
     }
 }
@@ -42,6 +42,9 @@ import org.slf4j.LoggerFactory;
  */
 @NonNullByDefault
 public class NumberValue extends Value {
+    /** Maximum number of digits that always fit into a long */
+    private static final int MAX_PARSED_DIGITS = 18;
+
     private final Logger logger = LoggerFactory.getLogger(NumberValue.class);
     private final @Nullable BigDecimal min;
     private final @Nullable BigDecimal max;
@@ -96,6 +99,44 @@ public class NumberValue extends Value {
         }
     }
 
+    /**
+     * Parses plain decimal numbers like "-12" or "21.50". Exponents, whitespace and numbers with more than
+     * {@value #MAX_PARSED_DIGITS} digits are left to the string parser.
+     */
+    @Override
+    public @Nullable Command parseCommand(byte[] payload) {
+        int length = payload.length;
+        int index = 0;
+        boolean negative = false;
+        if (length > 0 && (payload[0] == '-' || payload[0] == '+')) {
+            negative = payload[0] == '-';
+            index++;
+        }
+        long unscaled = 0;
+        int digits = 0;
+        int scale = -1;
+        for (; index < length; index++) {
+            byte b = payload[index];
+            if (b >= '0' && b <= '9') {
+                if (++digits > MAX_PARSED_DIGITS) {
+                    return null;
+                }
+                unscaled = unscaled * 10 + (b - '0');
+                if (scale >= 0) {
+                    scale++;
+                }
+            } else if (b == '.' && scale < 0 && digits > 0) {
+                scale = 0;
+            } else {
+                return null;
+            }
+        }
+        if (digits == 0 || scale == 0) {
+            return null;
+        }
+        return new DecimalType(BigDecimal.valueOf(negative ? -unscaled : unscaled, Math.max(scale, 0)));
+    }
+
     @Override
     public StateDescription createStateDescription(String unit, boolean readOnly) {
         return new StateDescription(min, max, step, "%s " + unit.replace("%", "%%"), readOnly, Collections.emptyList());
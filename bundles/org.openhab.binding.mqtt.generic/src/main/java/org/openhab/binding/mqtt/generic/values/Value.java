@@ -133,6 +133,20 @@ public abstract class Value {
         return null;
     }
 
+    /**
+     * Parses a command directly from the UTF-8 encoded MQTT payload, without decoding it into a string first.
+     * <p>
+     * Values may implement this for payloads that are cheap to recognise. The returned command must be the same as
+     * the one the framework would parse from the decoded string with {@link #getSupportedCommandTypes()}.
+     * </p>
+     *
+     * @param payload The UTF-8 encoded payload
+     * @return The command or null if the payload is to be parsed from its string representation instead
+     */
+    public @Nullable Command parseCommand(byte[] payload) {
+        return null;
+    }
+
     /**
      * Updates the internal value state with the given binary payload.
      *
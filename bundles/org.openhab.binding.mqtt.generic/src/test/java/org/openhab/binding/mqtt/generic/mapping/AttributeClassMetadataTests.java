@@ -0,0 +1,114 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.mqtt.generic.mapping;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.eclipse.jdt.annotation.NonNull;
+import org.junit.Test;
+import org.openhab.binding.mqtt.generic.mapping.AttributeClassMetadata.FieldBinding;
+
+/**
+ * Tests cases for {@link AttributeClassMetadata}.
+ *
+ * @author Martin van Wingerden - Initial contribution
+ */
+public class AttributeClassMetadataTests {
+    @TopicPrefix
+    public static class Attributes extends AbstractMqttAttributeClass {
+        public transient String ignoreTransient = "";
+        public final String ignoreFinal = "";
+
+        public @MandatoryField String name;
+        public @TopicPrefix("a") int Int = 24;
+        public BigDecimal aDecimal;
+
+        public enum ReadyState {
+            unknown,
+            init,
+        }
+
+        public ReadyState state = ReadyState.unknown;
+
+        @Override
+        public @NonNull Object getFieldsOf() {
+            return this;
+        }
+    }
+
+    public static class ExtendedAttributes extends Attributes {
+        public double aDouble;
+    }
+
+    @Test
+    public void computedOncePerClass() {
+        AttributeClassMetadata metadata = AttributeClassMetadata.of(Attributes.class);
+        assertThat(AttributeClassMetadata.of(Attributes.class), is(sameInstance(metadata)));
+    }
+
+    @Test
+    public void bindsMappedFields() {
+        List<FieldBinding> bindings = AttributeClassMetadata.of(Attributes.class).getBindings();
+        List<String> names = bindings.stream().map(b -> b.field.getName()).collect(Collectors.toList());
+        assertThat(names, is(Arrays.asList("name", "Int", "aDecimal", "state")));
+
+        assertThat(bindings.get(0).topicSuffix, is("$name"));
+        assertTrue(bindings.get(0).mandatory);
+        assertThat(bindings.get(1).topicSuffix, is("aInt"));
+        assertFalse(bindings.get(1).mandatory);
+    }
+
+    @Test
+    public void includesFieldsOfSuperClasses() {
+        List<String> names = AttributeClassMetadata.of(ExtendedAttributes.class).getBindings().stream()
+                .map(b -> b.field.getName()).collect(Collectors.toList());
+        assertThat(names, is(Arrays.asList("aDouble", "name", "Int", "aDecimal", "state")));
+    }
+
+    @Test
+    public void convertsAndAssigns() throws Exception {
+        Attributes attributes = new Attributes();
+        for (FieldBinding binding : AttributeClassMetadata.of(Attributes.class).getBindings()) {
+            switch (binding.field.getName()) {
+                case "name":
+                    binding.set(attributes, binding.convert("test"));
+                    break;
+                case "Int":
+                    binding.set(attributes, binding.convert("10"));
+                    break;
+                case "aDecimal":
+                    binding.set(attributes, binding.convert("1.5"));
+                    break;
+                case "state":
+                    binding.set(attributes, binding.convert("init"));
+                    break;
+            }
+        }
+        assertThat(attributes.name, is("test"));
+        assertThat(attributes.Int, is(10));
+        assertThat(attributes.aDecimal, is(new BigDecimal("1.5")));
+        assertThat(attributes.state, is(Attributes.ReadyState.init));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void assigningWrongTypeFails() throws Exception {
+        FieldBinding binding = AttributeClassMetadata.of(Attributes.class).getBindings().get(1);
+        binding.set(new Attributes(), "not an int");
+    }
+}
@@ -0,0 +1,184 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.mqtt.generic.tools;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests cases for {@link DelayedBatchProcessing}.
+ *
+ * @author Martin van Wingerden - Initial contribution
+ */
+public class DelayedBatchProcessingTests {
+    private ScheduledExecutorService executor;
+    private final List<List<Integer>> batches = Collections.synchronizedList(new ArrayList<>());
+
+    @Before
+    public void setUp() {
+        executor = new ScheduledThreadPoolExecutor(2);
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void deliversAfterDelay() throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(1);
+        DelayedBatchProcessing<Integer> subject = new DelayedBatchProcessing<>(50, b -> {
+            batches.add(b);
+            latch.countDown();
+        }, executor);
+
+        subject.accept(1);
+        subject.accept(2);
+        assertTrue(subject.isArmed());
+        assertTrue(latch.await(1, TimeUnit.SECONDS));
+        assertThat(batches, is(Arrays.asList(Arrays.asList(1, 2))));
+    }
+
+    @Test
+    public void fullBatchesAreDeliveredImmediately() throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(3);
+        // The delay is far beyond the test timeout, only full batches can be delivered
+        DelayedBatchProcessing<Integer> subject = new DelayedBatchProcessing<>(60000, 2, b -> {
+            batches.add(b);
+            latch.countDown();
+        }, executor);
+
+        for (int i = 0; i < 7; i++) {
+            subject.accept(i);
+        }
+        assertTrue(latch.await(1, TimeUnit.SECONDS));
+        assertThat(batches, is(Arrays.asList(Arrays.asList(0, 1), Arrays.asList(2, 3), Arrays.asList(4, 5))));
+        assertThat(subject.join(), is(Arrays.asList(6)));
+    }
+
+    @Test
+    public void forceProcessNowDeliversEverything() {
+        DelayedBatchProcessing<Integer> subject = new DelayedBatchProcessing<>(60000, 5, batches::add, executor);
+        for (int i = 0; i < 3; i++) {
+            subject.accept(i);
+        }
+        subject.forceProcessNow();
+        assertThat(batches, is(Arrays.asList(Arrays.asList(0, 1, 2))));
+        assertFalse(subject.isArmed());
+    }
+
+    @Test
+    public void objectsQueuedWhileTheConsumerIsBusyAreKept() throws InterruptedException {
+        CountDownLatch busy = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        DelayedBatchProcessing<Integer> subject = new DelayedBatchProcessing<>(60000, 2, b -> {
+            batches.add(b);
+            busy.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }, executor);
+
+        subject.accept(0);
+        subject.accept(1);
+        assertTrue(busy.await(1, TimeUnit.SECONDS));
+        for (int i = 2; i < 11; i++) {
+            subject.accept(i);
+        }
+        release.countDown();
+        subject.forceProcessNow();
+
+        List<Integer> delivered = new ArrayList<>();
+        synchronized (batches) {
+            for (List<Integer> batch : batches) {
+                assertTrue(batch.size() <= 2);
+                delivered.addAll(batch);
+            }
+        }
+        assertThat(delivered, is(Arrays.asList(0, 1, 2, 3, 4, 5, 6, 7, 8, 9, 10)));
+    }
+
+    @Test
+    public void producerWaitsForRoomInAFullQueue() throws InterruptedException {
+        CountDownLatch busy = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        DelayedBatchProcessing<Integer> subject = new DelayedBatchProcessing<>(60000, 2, 4, 5000, b -> {
+            batches.add(b);
+            busy.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }, executor);
+
+        subject.accept(0);
+        subject.accept(1);
+        assertTrue(busy.await(1, TimeUnit.SECONDS));
+        for (int i = 2; i < 6; i++) {
+            subject.accept(i);
+        }
+        // the queue is full, the consumer makes room once it is released
+        Thread releaser = new Thread(() -> {
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            release.countDown();
+        });
+        releaser.start();
+        assertTrue(subject.offer(6));
+        releaser.join();
+        subject.forceProcessNow();
+
+        List<Integer> delivered = new ArrayList<>();
+        synchronized (batches) {
+            batches.forEach(delivered::addAll);
+        }
+        assertThat(delivered, is(Arrays.asList(0, 1, 2, 3, 4, 5, 6)));
+        assertThat(subject.getBlockedCount(), is(1L));
+        assertThat(subject.getDroppedCount(), is(0L));
+    }
+
+    @Test
+    public void objectsAreDroppedIfTheQueueStaysFull() {
+        // the consumer is never called, the delay is far beyond the test timeout
+        DelayedBatchProcessing<Integer> subject = new DelayedBatchProcessing<>(60000, 0, 2, 10, batches::add,
+                executor);
+
+        subject.accept(0);
+        subject.accept(1);
+        subject.accept(2);
+        assertFalse(subject.offer(3));
+
+        assertThat(subject.getBlockedCount(), is(2L));
+        assertThat(subject.getDroppedCount(), is(1L));
+        assertThat(subject.join(), is(Arrays.asList(0, 1)));
+    }
+}
@@ -254,4 +254,26 @@ public class ValueTests {
                 null);
         v.update(new DecimalType(9.0));
     }
+
+    @Test
+    public void numberParsesPayload() {
+        NumberValue v = new NumberValue(null, null, null);
+        for (String str : new String[] { "0", "15", "-12", "+3", "21.50", "-0.125", "007", "123456789012345678" }) {
+            assertThat(v.parseCommand(str.getBytes()), is(p(v, str)));
+        }
+        for (String str : new String[] { "", "-", "1.", ".5", "1e3", " 1", "1.2.3", "INCREASE",
+                "1234567890123456789" }) {
+            assertNull(v.parseCommand(str.getBytes()));
+        }
+    }
+
+    @Test
+    public void onoffParsesPayload() {
+        OnOffValue v = new OnOffValue("1", "0");
+        assertThat(v.parseCommand("ON".getBytes()), is(OnOffType.ON));
+        assertThat(v.parseCommand("OFF".getBytes()), is(OnOffType.OFF));
+        assertThat(v.parseCommand("1".getBytes()), is(OnOffType.ON));
+        assertThat(v.parseCommand("0".getBytes()), is(OnOffType.OFF));
+        assertNull(v.parseCommand("on".getBytes()));
+    }
 }
@@ -14,12 +14,15 @@ package org.openhab.binding.mqtt.homeassistant.internal;
 
 import java.io.IOException;
 import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.List;
 
 import org.apache.commons.lang.StringUtils;
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
 
 import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
 import com.google.gson.TypeAdapter;
 import com.google.gson.TypeAdapterFactory;
 import com.google.gson.reflect.TypeToken;
@@ -40,6 +43,39 @@ import com.google.gson.stream.JsonWriter;
  */
 @NonNullByDefault
 public class ChannelConfigurationTypeAdapterFactory implements TypeAdapterFactory {
+    private static final Gson GSON = new GsonBuilder()
+            .registerTypeAdapterFactory(new ChannelConfigurationTypeAdapterFactory()).create();
+
+    /**
+     * The '_topic' fields per configuration class, including the ones of super classes.
+     */
+    private static final ClassValue<Field[]> TOPIC_FIELDS = new ClassValue<Field[]>() {
+        @Override
+        protected Field[] computeValue(@Nullable Class<?> type) {
+            List<Field> topicFields = new ArrayList<>();
+            Class<?> current = type;
+            while (current != null && current != Object.class) {
+                for (Field field : current.getDeclaredFields()) {
+                    if (String.class.isAssignableFrom(field.getType()) && field.getName().endsWith("_topic")) {
+                        field.setAccessible(true);
+                        topicFields.add(field);
+                    }
+                }
+                current = current.getSuperclass();
+            }
+            return topicFields.toArray(new Field[topicFields.size()]);
+        }
+    };
+
+    /**
+     * Returns a Gson instance with this type adapter factory registered.
+     *
+     * The instance is shared: Gson is thread-safe and caches the type adapters it has created,
+     * so the adapters of the configuration classes are only created once.
+     */
+    public static Gson getGson() {
+        return GSON;
+    }
 
     @Override
     @Nullable
@@ -110,39 +146,29 @@ public class ChannelConfigurationTypeAdapterFactory implements TypeAdapterFactor
     }
 
     private void expandTidleInTopics(BaseChannelConfiguration config) {
-        Class<?> type = config.getClass();
-
         String tilde = config.tilde;
 
-        while (type != Object.class) {
-            Field[] fields = type.getDeclaredFields();
-
-            for (Field field : fields) {
-                if (String.class.isAssignableFrom(field.getType()) && field.getName().endsWith("_topic")) {
-                    field.setAccessible(true);
-
-                    try {
-                        final String oldValue = (String) field.get(config);
-
-                        String newValue = oldValue;
-                        if (StringUtils.isNotBlank(oldValue)) {
-                            if (oldValue.charAt(0) == '~') {
-                                newValue = tilde + oldValue.substring(1);
-                            } else if (oldValue.charAt(oldValue.length() - 1) == '~') {
-                                newValue = oldValue.substring(0, oldValue.length() - 1) + tilde;
-                            }
-                        }
-
-                        field.set(config, newValue);
-                    } catch (IllegalArgumentException e) {
-                        throw new RuntimeException(e);
-                    } catch (IllegalAccessException e) {
-                        throw new RuntimeException(e);
+        for (Field field : TOPIC_FIELDS.get(config.getClass())) {
+            try {
+                final String oldValue = (String) field.get(config);
+
+                String newValue = oldValue;
+                if (StringUtils.isNotBlank(oldValue)) {
+                    if (oldValue.charAt(0) == '~') {
+                        newValue = tilde + oldValue.substring(1);
+                    } else if (oldValue.charAt(oldValue.length() - 1) == '~') {
+                        newValue = oldValue.substring(0, oldValue.length() - 1) + tilde;
                     }
                 }
-            }
 
-            type = type.getSuperclass();
+                if (newValue != oldValue) {
+                    field.set(config, newValue);
+                }
+            } catch (IllegalArgumentException e) {
+                throw new RuntimeException(e);
+            } catch (IllegalAccessException e) {
+                throw new RuntimeException(e);
+            }
         }
     }
 }
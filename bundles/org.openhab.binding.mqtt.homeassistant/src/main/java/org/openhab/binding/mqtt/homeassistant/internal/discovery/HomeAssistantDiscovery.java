@@ -50,7 +50,6 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
 
 /**
  * The {@link HomeAssistantDiscovery} is responsible for discovering device nodes that follow the
@@ -94,7 +93,7 @@ public class HomeAssistantDiscovery extends AbstractMQTTDiscovery {
 
     public HomeAssistantDiscovery() {
         super(null, 3, true, BASE_TOPIC + "/#");
-        this.gson = new GsonBuilder().registerTypeAdapterFactory(new ChannelConfigurationTypeAdapterFactory()).create();
+        this.gson = ChannelConfigurationTypeAdapterFactory.getGson();
     }
 
     @Reference
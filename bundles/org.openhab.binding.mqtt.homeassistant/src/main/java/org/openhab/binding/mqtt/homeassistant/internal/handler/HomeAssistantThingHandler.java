@@ -58,7 +58,6 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
 
 /**
  * Handles HomeAssistant MQTT object things. Such an HA Object can have multiple HA Components with different instances
@@ -80,6 +79,12 @@ import com.google.gson.GsonBuilder;
 public class HomeAssistantThingHandler extends AbstractMQTTThingHandler
         implements ComponentDiscovered, Consumer<List<AbstractComponent<?>>> {
     public static final String AVAILABILITY_CHANNEL = "availability";
+    /** Discovered components are added to the Thing in batches of at most this size */
+    private static final int MAX_COMPONENTS_PER_BATCH = 50;
+    /** At most this many discovered components wait for the Thing, the discovery waits for room otherwise */
+    private static final int MAX_QUEUED_COMPONENTS = 500;
+    /** Time in milliseconds the discovery waits for room in the queue, before a component is dropped */
+    private static final long COMPONENT_OFFER_TIMEOUT = 5000;
 
     private final Logger logger = LoggerFactory.getLogger(HomeAssistantThingHandler.class);
 
@@ -111,11 +116,12 @@ public class HomeAssistantThingHandler extends AbstractMQTTThingHandler
             TransformationServiceProvider transformationServiceProvider, int subscribeTimeout,
             int attributeReceiveTimeout) {
         super(thing, subscribeTimeout);
-        this.gson = new GsonBuilder().registerTypeAdapterFactory(new ChannelConfigurationTypeAdapterFactory()).create();
+        this.gson = ChannelConfigurationTypeAdapterFactory.getGson();
         this.channelTypeProvider = channelTypeProvider;
         this.transformationServiceProvider = transformationServiceProvider;
         this.attributeReceiveTimeout = attributeReceiveTimeout;
-        this.delayedProcessing = new DelayedBatchProcessing<>(attributeReceiveTimeout, this, scheduler);
+        this.delayedProcessing = new DelayedBatchProcessing<>(attributeReceiveTimeout, MAX_COMPONENTS_PER_BATCH,
+                MAX_QUEUED_COMPONENTS, COMPONENT_OFFER_TIMEOUT, this, scheduler);
         this.discoverComponents = new DiscoverComponents(thing.getUID(), scheduler, this, gson,
                 this.transformationServiceProvider);
     }
@@ -214,6 +220,8 @@ public class HomeAssistantThingHandler extends AbstractMQTTThingHandler
         if (started) {
             discoverComponents.stopDiscovery();
             delayedProcessing.join();
+            logger.debug("Discovered components of {}: {} waited for room in the queue, {} dropped",
+                    getThing().getUID(), delayedProcessing.getBlockedCount(), delayedProcessing.getDroppedCount());
             // haComponents does not need to be synchronised -> the discovery thread is disabled
             haComponents.values().parallelStream().map(e -> e.stop()) //
                     // we need to join all the stops, otherwise they might not be done when start is called
@@ -14,9 +14,9 @@ package org.openhab.binding.mqtt.handler;
 
 import java.util.Collection;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeoutException;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
@@ -49,7 +49,7 @@ public abstract class AbstractBrokerHandler extends BaseBridgeHandler implements
     public static int TIMEOUT_DEFAULT = 1200; /* timeout in milliseconds */
     private final Logger logger = LoggerFactory.getLogger(AbstractBrokerHandler.class);
 
-    final Map<ChannelUID, PublishTriggerChannel> channelStateByChannelUID = new HashMap<>();
+    final Map<ChannelUID, PublishTriggerChannel> channelStateByChannelUID = new ConcurrentHashMap<>();
 
     protected @Nullable MqttBrokerConnection connection;
     protected CompletableFuture<MqttBrokerConnection> connectionFuture = new CompletableFuture<>();
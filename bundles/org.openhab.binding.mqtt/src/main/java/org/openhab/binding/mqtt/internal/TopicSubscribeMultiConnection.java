@@ -12,9 +12,9 @@
  */
 package org.openhab.binding.mqtt.internal;
 
-import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.smarthome.core.thing.ThingUID;
@@ -32,7 +32,7 @@ import org.slf4j.LoggerFactory;
 @NonNullByDefault
 public class TopicSubscribeMultiConnection {
     private final Logger logger = LoggerFactory.getLogger(TopicSubscribeMultiConnection.class);
-    protected final Map<ThingUID, TopicSubscribe> observedBrokerHandlers = new HashMap<>();
+    protected final Map<ThingUID, TopicSubscribe> observedBrokerHandlers = new ConcurrentHashMap<>();
     protected final MQTTTopicDiscoveryParticipant messageReceivedListener;
     protected final String topic;
 
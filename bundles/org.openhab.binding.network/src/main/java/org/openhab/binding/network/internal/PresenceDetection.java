@@ -18,6 +18,7 @@ import java.net.InetAddress;
 import java.net.SocketException;
 import java.net.UnknownHostException;
 import java.util.HashSet;
+import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
@@ -32,9 +33,12 @@ import org.eclipse.smarthome.core.cache.ExpiringCache;
 import org.openhab.binding.network.internal.dhcp.DHCPListenService;
 import org.openhab.binding.network.internal.dhcp.IPRequestReceivedCallback;
 import org.openhab.binding.network.internal.toberemoved.cache.ExpiringCacheAsync;
+import org.openhab.binding.network.internal.utils.LatencyStats;
+import org.openhab.binding.network.internal.utils.NeighbourTable;
 import org.openhab.binding.network.internal.utils.NetworkUtils;
 import org.openhab.binding.network.internal.utils.NetworkUtils.ArpPingUtilEnum;
 import org.openhab.binding.network.internal.utils.NetworkUtils.IpPingMethodEnum;
+import org.openhab.binding.network.internal.utils.ProbeEngine;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -51,10 +55,12 @@ public class PresenceDetection implements IPRequestReceivedCallback {
     public static final int DESTINATION_TTL = 300 * 1000; // in ms, 300 s
 
     NetworkUtils networkUtils = new NetworkUtils();
+    NeighbourTable neighbourTable = NeighbourTable.getInstance();
     private final Logger logger = LoggerFactory.getLogger(PresenceDetection.class);
 
     /// Configuration variables
     private boolean useDHCPsniffing = false;
+    private boolean useNeighbourTable = true;
     private String arpPingState = "Disabled";
     private String ipPingState = "Disabled";
     protected String arpPingUtilPath = "";
@@ -70,6 +76,7 @@ public class PresenceDetection implements IPRequestReceivedCallback {
     private @NonNullByDefault({}) String hostname;
     private @NonNullByDefault({}) ExpiringCache<@Nullable InetAddress> destination;
     private @Nullable InetAddress cachedDestination = null;
+    private @Nullable InetAddress statisticsDestination = null;
 
     /// State variables (cannot be final because of test dependency injections)
     ExpiringCacheAsync<PresenceDetectionValue> cache;
@@ -140,6 +147,14 @@ public class PresenceDetection implements IPRequestReceivedCallback {
         this.useDHCPsniffing = enable;
     }
 
+    /**
+     * Enables answering the presence from the shared {@link NeighbourTable}. Such a result has no latency, so this
+     * should be disabled if the latency of the device is of interest.
+     */
+    public void setUseNeighbourTable(boolean enable) {
+        this.useNeighbourTable = enable;
+    }
+
     public void setRefreshInterval(long refreshInterval) {
         this.refreshIntervalInMS = refreshInterval;
     }
@@ -283,6 +298,9 @@ public class PresenceDetection implements IPRequestReceivedCallback {
      * This is a NO-OP, if there is already an ongoing detection or if the cached value
      * is not expired yet.
      *
+     * Devices without TCP service ports are answered from the shared {@link NeighbourTable} first, if enabled. The
+     * probes are only performed if the device is neither in the kernel neighbour table nor sent a recent DHCP request.
+     *
      * Please be aware of the following restrictions:
      * - ARP pings are only executed on IPv4 addresses.
      * - Non system / Java pings are not recommended at all
@@ -303,6 +321,10 @@ public class PresenceDetection implements IPRequestReceivedCallback {
             return false;
         }
 
+        if (tcpPorts.isEmpty() && useNeighbourTable && performNeighbourTableLookup()) {
+            return true;
+        }
+
         Set<String> interfaceNames = null;
 
         currentCheck = 0;
@@ -465,11 +487,40 @@ public class PresenceDetection implements IPRequestReceivedCallback {
         return v;
     }
 
+    /**
+     * Answers the presence from the shared neighbour table or the observed DHCP requests, without an active probe.
+     *
+     * @return Return true if the device is present and the final result has been submitted.
+     */
+    private boolean performNeighbourTableLookup() {
+        InetAddress destinationAddress = destination.getValue();
+        if (!(destinationAddress instanceof Inet4Address)) {
+            return false;
+        }
+        String ipAddress = destinationAddress.getHostAddress();
+        PresenceDetectionType type;
+        if (neighbourTable.getNeighbour(ipAddress) != null) {
+            type = PresenceDetectionType.ARP_PING;
+            // let the kernel confirm the entry, so the next snapshot doesn't contain a device that left
+            neighbourTable.revalidate(destinationAddress);
+        } else if (System.currentTimeMillis() - neighbourTable.getLastDhcpRequest(ipAddress) < refreshIntervalInMS) {
+            type = PresenceDetectionType.DHCP_REQUEST;
+        } else {
+            return false;
+        }
+        logger.trace("Presence of {} answered by the neighbour table ({})", hostname, type);
+        PresenceDetectionValue v = updateReachableValue(type, 0);
+        updateListener.partialDetectionResult(v);
+        updateListener.finalDetectionResult(v);
+        return true;
+    }
+
     protected void performServicePing(int tcpPort) {
         logger.trace("Perform TCP presence detection for {} on port: {}", hostname, tcpPort);
         try {
             double pingTime = System.nanoTime();
             InetAddress destinationAddress = destination.getValue();
+            trackStatistics(destinationAddress);
             if (destinationAddress != null
                     && networkUtils.servicePing(destinationAddress.getHostAddress(), tcpPort, timeoutInMS)) {
                 final double latency = Math.round((System.nanoTime() - pingTime) / 1000000.0f);
@@ -599,6 +650,34 @@ public class PresenceDetection implements IPRequestReceivedCallback {
         if (cachedDestination != null) {
             disableDHCPListen(cachedDestination);
         }
+        trackStatistics(null);
+    }
+
+    /**
+     * Returns the latency statistics of the TCP service pings or null, if no service ping was performed yet.
+     */
+    public @Nullable LatencyStats getLatencyStatistics() {
+        InetAddress address = statisticsDestination;
+        return address != null ? ProbeEngine.getInstance().getStatistics(address) : null;
+    }
+
+    /**
+     * Lets the probe engine collect the latency statistics of the given address instead of the previous one.
+     *
+     * @param address The address of the service pings or null to stop collecting.
+     */
+    private synchronized void trackStatistics(@Nullable InetAddress address) {
+        InetAddress previousAddress = statisticsDestination;
+        if (Objects.equals(previousAddress, address)) {
+            return;
+        }
+        if (previousAddress != null) {
+            ProbeEngine.getInstance().untrack(previousAddress);
+        }
+        if (address != null) {
+            ProbeEngine.getInstance().track(address);
+        }
+        statisticsDestination = address;
     }
 
     /**
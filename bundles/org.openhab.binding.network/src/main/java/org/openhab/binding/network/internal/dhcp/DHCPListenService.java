@@ -18,6 +18,7 @@ import java.util.TreeMap;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.binding.network.internal.utils.NeighbourTable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -27,7 +28,7 @@ import org.slf4j.LoggerFactory;
  * receiver thread will be started. If the last IPRequestReceivedCallback is removed, the thread will be stopped
  * after the receive socket is closed.
  * IPRequestReceivedCallback will be called for the address that is registered and matches the
- * DHO_DHCP_REQUESTED_ADDRESS address field.
+ * DHO_DHCP_REQUESTED_ADDRESS address field. All requests are recorded in the shared {@link NeighbourTable}.
  *
  * @author David Graeff - Initial contribution
  */
@@ -43,6 +44,7 @@ public class DHCPListenService {
         DHCPPacketListenerServer instance = DHCPListenService.instance;
         if (instance == null) {
             instance = new DHCPPacketListenerServer((String ipAddress) -> {
+                NeighbourTable.getInstance().dhcpRequestReceived(ipAddress);
                 IPRequestReceivedCallback listener = registeredListeners.get(ipAddress);
                 if (listener != null) {
                     listener.dhcpRequestReceived(ipAddress);
@@ -14,8 +14,13 @@ package org.openhab.binding.network.internal.discovery;
 
 import static org.openhab.binding.network.internal.NetworkBindingConstants.*;
 
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -37,6 +42,8 @@ import org.openhab.binding.network.internal.PresenceDetection;
 import org.openhab.binding.network.internal.PresenceDetectionListener;
 import org.openhab.binding.network.internal.PresenceDetectionValue;
 import org.openhab.binding.network.internal.utils.NetworkUtils;
+import org.openhab.binding.network.internal.utils.ProbeEngine.ProbeResult;
+import org.openhab.binding.network.internal.utils.ProbeEngine.ProbeState;
 import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
 import org.osgi.service.component.annotations.Deactivate;
@@ -49,6 +56,9 @@ import org.slf4j.LoggerFactory;
  * the current Network. It uses every Network Interface which is connected to a network.
  * It tries common TCP ports to connect to, ICMP pings and ARP pings.
  *
+ * All IPs are probed on the TCP ports in one batched sweep first. Only the IPs which
+ * did not answer are pinged, as ICMP and ARP pings need a process per IP.
+ *
  * @author Marc Mettke - Initial contribution
  * @author David Graeff - Rewritten
  */
@@ -120,7 +130,8 @@ public class NetworkDiscoveryService extends AbstractDiscoveryService implements
     }
 
     /**
-     * Starts the DiscoveryThread for each IP on each interface on the network
+     * Starts the TCP sweep and the DiscoveryThread for each IP on each interface on the network, which did not
+     * answer the sweep.
      */
     @Override
     protected void startScan() {
@@ -135,7 +146,54 @@ public class NetworkDiscoveryService extends AbstractDiscoveryService implements
         logger.trace("Starting Network Device Discovery");
 
         final Set<String> networkIPs = networkUtils.getNetworkIPs(MAXIMUM_IPS_PER_INTERFACE);
+        final List<InetAddress> addresses = new ArrayList<>(networkIPs.size());
+        for (String ip : networkIPs) {
+            try {
+                addresses.add(InetAddress.getByName(ip));
+            } catch (UnknownHostException e) {
+                // Can't happen for IP literals
+                logger.trace("Invalid IP address {}", ip);
+            }
+        }
+
+        final long start = System.currentTimeMillis();
+        networkUtils.sweep(addresses, tcpServicePorts, PING_TIMEOUT_IN_MS).thenAcceptAsync(results -> {
+            Set<String> answeredIPs = sweepFinished(results);
+            logger.debug("TCP sweep of {} IPs finished in {} ms, {} IPs answered", addresses.size(),
+                    System.currentTimeMillis() - start, answeredIPs.size());
+
+            Set<String> remainingIPs = new LinkedHashSet<>(networkIPs);
+            remainingIPs.removeAll(answeredIPs);
+            pingRemainingIPs(service, remainingIPs);
+        }, service);
+    }
+
+    /**
+     * Submits the devices found by the sweep and returns the IPs which answered.
+     */
+    private Set<String> sweepFinished(List<ProbeResult> results) {
+        Set<String> answeredIPs = new HashSet<>();
+        for (ProbeResult result : results) {
+            final String ip = result.getAddress().getHostAddress();
+            if (result.getState() == ProbeState.CONNECTED) {
+                newServiceDevice(ip, result.getPort());
+            }
+            if (result.getState().isHostAnswered() && answeredIPs.add(ip)) {
+                newPingDevice(ip);
+            }
+        }
+        return answeredIPs;
+    }
+
+    /**
+     * Performs ICMP and ARP pings for the given IPs.
+     */
+    private void pingRemainingIPs(ExecutorService service, Set<String> networkIPs) {
         scannedIPcount = 0;
+        if (networkIPs.isEmpty()) {
+            stopScan();
+            return;
+        }
 
         for (String ip : networkIPs) {
             final PresenceDetection s = new PresenceDetection(this, 2000);
@@ -146,8 +204,8 @@ public class NetworkDiscoveryService extends AbstractDiscoveryService implements
             // Ping devices
             s.setUseIcmpPing(true);
             s.setUseArpPing(true, configuration.arpPingToolPath, configuration.arpPingUtilMethod);
-            // TCP devices
-            s.setServicePorts(tcpServicePorts);
+            // TCP ports have been probed by the sweep already
+            s.setServicePorts(Collections.emptySet());
 
             service.execute(() -> {
                 Thread.currentThread().setName("Discovery thread " + ip);
@@ -41,6 +41,7 @@ import org.openhab.binding.network.internal.NetworkHandlerConfiguration;
 import org.openhab.binding.network.internal.PresenceDetection;
 import org.openhab.binding.network.internal.PresenceDetectionListener;
 import org.openhab.binding.network.internal.PresenceDetectionValue;
+import org.openhab.binding.network.internal.utils.LatencyStats;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -147,6 +148,32 @@ public class NetworkHandler extends BaseThingHandler implements PresenceDetectio
         updateNetworkProperties();
     }
 
+    @Override
+    public void channelLinked(ChannelUID channelUID) {
+        updateUseNeighbourTable();
+        super.channelLinked(channelUID);
+    }
+
+    @Override
+    public void channelUnlinked(ChannelUID channelUID) {
+        updateUseNeighbourTable();
+        super.channelUnlinked(channelUID);
+    }
+
+    /**
+     * The neighbour table answers the presence without a latency, it's only used if no latency channel is linked.
+     */
+    private void updateUseNeighbourTable() {
+        PresenceDetection detection = presenceDetection;
+        if (detection != null && !isTCPServiceDevice) {
+            detection.setUseNeighbourTable(!isLatencyLinked());
+        }
+    }
+
+    private boolean isLatencyLinked() {
+        return isLinked(CHANNEL_LATENCY) || isLinked(CHANNEL_DEPRECATED_TIME);
+    }
+
     @Override
     public void dispose() {
         PresenceDetection detection = presenceDetection;
@@ -183,6 +210,7 @@ public class NetworkHandler extends BaseThingHandler implements PresenceDetectio
             presenceDetection.setUseDhcpSniffing(configuration.allowDHCPlisten);
             presenceDetection.setUseIcmpPing(configuration.allowSystemPings);
             presenceDetection.setUseArpPing(true, configuration.arpPingToolPath, configuration.arpPingUtilMethod);
+            presenceDetection.setUseNeighbourTable(!isLatencyLinked());
         }
 
         this.retries = handlerConfiguration.retry.intValue();
@@ -203,6 +231,10 @@ public class NetworkHandler extends BaseThingHandler implements PresenceDetectio
         properties.put(NetworkBindingConstants.PROPERTY_PRESENCE_DETECTION_TYPE, "");
         properties.put(NetworkBindingConstants.PROPERTY_IOS_WAKEUP, presenceDetection.isIOSdevice() ? "Yes" : "No");
         properties.put(NetworkBindingConstants.PROPERTY_DHCP_STATE, presenceDetection.getDhcpState());
+        LatencyStats statistics = presenceDetection.getLatencyStatistics();
+        if (statistics != null) {
+            properties.put(NetworkBindingConstants.PROPERTY_PROBE_STATISTICS, statistics.toString());
+        }
         updateProperties(properties);
     }
 
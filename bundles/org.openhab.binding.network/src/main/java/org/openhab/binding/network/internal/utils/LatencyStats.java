@@ -0,0 +1,94 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.network.internal.utils;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.openhab.binding.network.internal.utils.ProbeEngine.ProbeState;
+
+/**
+ * Latency statistics of the probes of one host.
+ *
+ * @author Martin van Wingerden - Initial contribution
+ */
+@NonNullByDefault
+public class LatencyStats {
+    /** The number of users tracking the host, only changed by the {@link ProbeEngine} */
+    int trackers;
+
+    private long probes;
+    private long answers;
+    private double lastLatency = -1;
+    private double minLatency = -1;
+    private double maxLatency = -1;
+    private double latencySum;
+
+    synchronized void add(ProbeState state, double latency) {
+        probes++;
+        if (!state.isHostAnswered()) {
+            return;
+        }
+        answers++;
+        lastLatency = latency;
+        latencySum += latency;
+        minLatency = minLatency < 0 ? latency : Math.min(minLatency, latency);
+        maxLatency = Math.max(maxLatency, latency);
+    }
+
+    /**
+     * Returns the number of probes sent to the host.
+     */
+    public synchronized long getProbes() {
+        return probes;
+    }
+
+    /**
+     * Returns the number of probes the host answered.
+     */
+    public synchronized long getAnswers() {
+        return answers;
+    }
+
+    /**
+     * Returns the latency of the last answer in milliseconds or -1, if the host never answered.
+     */
+    public synchronized double getLastLatency() {
+        return lastLatency;
+    }
+
+    /**
+     * Returns the lowest latency in milliseconds or -1, if the host never answered.
+     */
+    public synchronized double getMinLatency() {
+        return minLatency;
+    }
+
+    /**
+     * Returns the highest latency in milliseconds or -1, if the host never answered.
+     */
+    public synchronized double getMaxLatency() {
+        return maxLatency;
+    }
+
+    /**
+     * Returns the average latency in milliseconds or -1, if the host never answered.
+     */
+    public synchronized double getAverageLatency() {
+        return answers == 0 ? -1 : latencySum / answers;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("%d/%d answered, latency min %.0f ms, avg %.1f ms, max %.0f ms", answers, probes,
+                minLatency, getAverageLatency(), maxLatency);
+    }
+}
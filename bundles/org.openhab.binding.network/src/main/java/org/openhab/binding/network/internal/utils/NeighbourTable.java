@@ -0,0 +1,208 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.network.internal.utils;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+import java.net.InetAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A binding wide snapshot of the kernel neighbour table (/proc/net/arp on Linux) and of the observed DHCP requests.
+ * The table is read at most once per refresh interval, no matter how many things ask for it, so presence can be
+ * answered without an active probe for every device that talked to this host recently.
+ *
+ * The kernel keeps an entry complete for a while after the device left. Therefore {@link #revalidate(InetAddress)}
+ * sends a single datagram to the device, the kernel then confirms the entry or drops it before the next snapshot.
+ *
+ * @author Martin van Wingerden - Initial contribution
+ */
+@NonNullByDefault
+public class NeighbourTable {
+    static final Path ARP_TABLE = Paths.get("/proc/net/arp");
+    static final long REFRESH_INTERVAL_IN_MS = 5000;
+
+    /** The ATF_COM flag of the kernel: the hardware address of the entry is resolved */
+    private static final int FLAG_COMPLETE = 0x2;
+    /** The ATF_PERM flag of the kernel: a static entry, which is kept even if the device is gone */
+    private static final int FLAG_PERMANENT = 0x4;
+    private static final String NO_HARDWARE_ADDRESS = "00:00:00:00:00:00";
+    private static final int DISCARD_PORT = 9;
+
+    private static @Nullable NeighbourTable instance;
+
+    private final Logger logger = LoggerFactory.getLogger(NeighbourTable.class);
+
+    private final Path table;
+    private final long refreshIntervalInMS;
+    private final Map<String, Long> dhcpRequests = new ConcurrentHashMap<>();
+    private volatile Map<String, Neighbour> neighbours = Collections.emptyMap();
+    private long lastRefreshInMS;
+    private boolean available;
+
+    /**
+     * A complete entry of the neighbour table.
+     */
+    public static class Neighbour {
+        private final String ipAddress;
+        private final String hardwareAddress;
+        private final String interfaceName;
+
+        Neighbour(String ipAddress, String hardwareAddress, String interfaceName) {
+            this.ipAddress = ipAddress;
+            this.hardwareAddress = hardwareAddress;
+            this.interfaceName = interfaceName;
+        }
+
+        public String getIpAddress() {
+            return ipAddress;
+        }
+
+        public String getHardwareAddress() {
+            return hardwareAddress;
+        }
+
+        public String getInterfaceName() {
+            return interfaceName;
+        }
+
+        @Override
+        public String toString() {
+            return ipAddress + " " + hardwareAddress + " " + interfaceName;
+        }
+    }
+
+    NeighbourTable(Path table, long refreshIntervalInMS) {
+        this.table = table;
+        this.refreshIntervalInMS = refreshIntervalInMS;
+        this.available = Files.isReadable(table);
+    }
+
+    /**
+     * Returns the shared neighbour table of the binding.
+     */
+    public static synchronized NeighbourTable getInstance() {
+        NeighbourTable instance = NeighbourTable.instance;
+        if (instance == null) {
+            instance = new NeighbourTable(ARP_TABLE, REFRESH_INTERVAL_IN_MS);
+            NeighbourTable.instance = instance;
+        }
+        return instance;
+    }
+
+    /**
+     * Returns the complete entry of the given IPv4 address or null, if the kernel doesn't know the hardware address.
+     * The snapshot is refreshed first, if it's older than the refresh interval.
+     */
+    public @Nullable Neighbour getNeighbour(String ipAddress) {
+        refreshIfExpired();
+        return neighbours.get(ipAddress);
+    }
+
+    /**
+     * Returns the number of complete entries of the current snapshot.
+     */
+    public int size() {
+        return neighbours.size();
+    }
+
+    /**
+     * Records a DHCP request of the given address.
+     */
+    public void dhcpRequestReceived(String ipAddress) {
+        dhcpRequests.put(ipAddress, System.currentTimeMillis());
+    }
+
+    /**
+     * Returns the time of the last DHCP request of the given address in milliseconds based on
+     * {@link System#currentTimeMillis()} or 0, if no request has been observed.
+     */
+    public long getLastDhcpRequest(String ipAddress) {
+        Long time = dhcpRequests.get(ipAddress);
+        return time == null ? 0 : time;
+    }
+
+    /**
+     * Sends a single empty datagram to the given address. This makes the kernel confirm the neighbour entry,
+     * a device that left the network is removed from the table before the next snapshot.
+     */
+    public void revalidate(InetAddress address) {
+        try (DatagramSocket socket = new DatagramSocket()) {
+            socket.send(new DatagramPacket(new byte[0], 0, address, DISCARD_PORT));
+        } catch (IOException e) {
+            logger.trace("Can't revalidate the neighbour entry of {}: {}", address, e.getMessage());
+        }
+    }
+
+    private synchronized void refreshIfExpired() {
+        long now = System.currentTimeMillis();
+        if (!available || now - lastRefreshInMS < refreshIntervalInMS) {
+            return;
+        }
+        lastRefreshInMS = now;
+        try (BufferedReader reader = Files.newBufferedReader(table, StandardCharsets.US_ASCII)) {
+            neighbours = parse(reader);
+            logger.trace("Read {} complete neighbour entries from {}", neighbours.size(), table);
+        } catch (IOException e) {
+            logger.debug("Can't read the neighbour table {}, presence is detected by probes only: {}", table,
+                    e.getMessage());
+            neighbours = Collections.emptyMap();
+            available = false;
+        }
+    }
+
+    /**
+     * Parses the kernel ARP table. Only complete, dynamic entries are returned, indexed by the IP address.
+     *
+     * <pre>
+     * IP address       HW type     Flags       HW address            Mask     Device
+     * 192.168.0.1      0x1         0x2         00:11:22:33:44:55     *        eth0
+     * </pre>
+     */
+    static Map<String, Neighbour> parse(BufferedReader reader) throws IOException {
+        Map<String, Neighbour> result = new HashMap<>();
+        // skip the header
+        String line = reader.readLine();
+        while ((line = reader.readLine()) != null) {
+            String[] columns = line.trim().split("\\s+");
+            if (columns.length < 6) {
+                continue;
+            }
+            int flags;
+            try {
+                flags = Integer.decode(columns[2]);
+            } catch (NumberFormatException e) {
+                continue;
+            }
+            if ((flags & FLAG_COMPLETE) != 0 && (flags & FLAG_PERMANENT) == 0
+                    && !NO_HARDWARE_ADDRESS.equals(columns[3])) {
+                result.put(columns[0], new Neighbour(columns[0], columns[3], columns[5]));
+            }
+        }
+        return result;
+    }
+}
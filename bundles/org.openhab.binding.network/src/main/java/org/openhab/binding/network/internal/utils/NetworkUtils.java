@@ -15,23 +15,21 @@ package org.openhab.binding.network.internal.utils;
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStreamReader;
-import java.net.ConnectException;
 import java.net.DatagramPacket;
 import java.net.DatagramSocket;
 import java.net.Inet4Address;
 import java.net.InetAddress;
-import java.net.InetSocketAddress;
 import java.net.NetworkInterface;
-import java.net.NoRouteToHostException;
 import java.net.PortUnreachableException;
-import java.net.Socket;
-import java.net.SocketAddress;
 import java.net.SocketException;
-import java.net.SocketTimeoutException;
+import java.util.Collection;
 import java.util.Enumeration;
 import java.util.HashSet;
 import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 import java.util.stream.Collectors;
 
 import org.apache.commons.lang.StringUtils;
@@ -42,6 +40,8 @@ import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.smarthome.core.net.CidrAddress;
 import org.eclipse.smarthome.core.net.NetUtil;
 import org.eclipse.smarthome.io.net.exec.ExecUtil;
+import org.openhab.binding.network.internal.utils.ProbeEngine.ProbeResult;
+import org.openhab.binding.network.internal.utils.ProbeEngine.ProbeState;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -145,25 +145,40 @@ public class NetworkUtils {
 
     /**
      * Try to establish a tcp connection to the given port. Returns false if a timeout occurred
-     * or the connection was denied.
+     * or the connection was denied. The connection attempt is performed by the shared {@link ProbeEngine}.
      *
      * @param host The IP or hostname
      * @param port The tcp port. Must be not 0.
      * @param timeout Timeout in ms
-     * @param logger A slf4j logger instance to log IOException
      * @return
      * @throws IOException
      */
     public boolean servicePing(String host, int port, int timeout) throws IOException {
-        SocketAddress socketAddress = new InetSocketAddress(host, port);
-        try (Socket socket = new Socket()) {
-            socket.connect(socketAddress, timeout);
-            return true;
-        } catch (ConnectException | SocketTimeoutException | NoRouteToHostException ignored) {
+        try {
+            return ProbeEngine.getInstance().probe(InetAddress.getByName(host), port, timeout).get()
+                    .getState() == ProbeState.CONNECTED;
+        } catch (ExecutionException e) {
+            throw new IOException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt(); // Reset interrupt flag
             return false;
         }
     }
 
+    /**
+     * Probes the given TCP ports of all hosts in one batch, without a thread or a process per host.
+     * A refused connection is an answer of the host as well, see {@link ProbeEngine}.
+     *
+     * @param hosts The IPs
+     * @param ports The tcp ports
+     * @param timeout Timeout in ms for each probe
+     * @return The results of all probes
+     */
+    public CompletableFuture<List<ProbeResult>> sweep(Collection<InetAddress> hosts, Collection<Integer> ports,
+            int timeout) {
+        return ProbeEngine.getInstance().sweep(hosts, ports, timeout);
+    }
+
     /**
      * Return the working method for the native system ping. If no native ping
      * works JavaPing is returned.
@@ -0,0 +1,362 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.network.internal.utils;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A binding wide engine for asynchronous presence probes. All probes are non blocking TCP connection attempts, which
+ * are multiplexed on a single selector thread, so that any number of hosts can be probed without a thread or a
+ * process per check.
+ *
+ * A host is present if it accepts the connection or actively refuses it: a closed port is answered by the network
+ * stack of the host. This is the same fallback {@link InetAddress#isReachable(int)} uses without ICMP privileges.
+ *
+ * The selector thread is started with the first probe and ends, if there are no more probes.
+ *
+ * @author Martin van Wingerden - Initial contribution
+ */
+@NonNullByDefault
+public class ProbeEngine {
+    /**
+     * The maximum number of simultaneous connection attempts, further probes wait for a free slot
+     */
+    static final int MAX_IN_FLIGHT = 256;
+
+    private static @Nullable ProbeEngine instance;
+
+    private final Logger logger = LoggerFactory.getLogger(ProbeEngine.class);
+
+    private final Queue<Probe> pendingProbes = new ConcurrentLinkedQueue<>();
+    private final Map<InetAddress, LatencyStats> statistics = new ConcurrentHashMap<>();
+    private @Nullable Selector selector;
+    private @Nullable Thread thread;
+    private int inFlight;
+
+    /**
+     * The result of a single probe.
+     */
+    public enum ProbeState {
+        /** The host accepted the connection */
+        CONNECTED,
+        /** The host refused the connection, the host is present but the port is closed */
+        REFUSED,
+        /** No answer within the timeout or the host is not reachable */
+        NO_ANSWER;
+
+        /**
+         * Returns true, if the host answered the probe.
+         */
+        public boolean isHostAnswered() {
+            return this != NO_ANSWER;
+        }
+    }
+
+    /**
+     * The result of a probe, with the latency in milliseconds if the host answered.
+     */
+    public static class ProbeResult {
+        private final InetAddress address;
+        private final int port;
+        private final ProbeState state;
+        private final double latency;
+
+        ProbeResult(InetAddress address, int port, ProbeState state, double latency) {
+            this.address = address;
+            this.port = port;
+            this.state = state;
+            this.latency = latency;
+        }
+
+        public InetAddress getAddress() {
+            return address;
+        }
+
+        public int getPort() {
+            return port;
+        }
+
+        public ProbeState getState() {
+            return state;
+        }
+
+        /**
+         * Returns the latency in milliseconds or -1, if the host did not answer.
+         */
+        public double getLatency() {
+            return latency;
+        }
+
+        @Override
+        public String toString() {
+            return address.getHostAddress() + ":" + port + " " + state + " (" + latency + " ms)";
+        }
+    }
+
+    private class Probe {
+        private final InetSocketAddress target;
+        private final long timeoutInNS;
+        private final CompletableFuture<ProbeResult> result = new CompletableFuture<>();
+        private long startInNS;
+        private long deadlineInNS;
+        private @Nullable SocketChannel channel;
+
+        Probe(InetSocketAddress target, int timeoutInMS) {
+            this.target = target;
+            this.timeoutInNS = TimeUnit.MILLISECONDS.toNanos(timeoutInMS);
+        }
+
+        void complete(ProbeState state) {
+            double latency = state.isHostAnswered() ? Math.round((System.nanoTime() - startInNS) / 1000000.0f) : -1;
+            SocketChannel channel = this.channel;
+            if (channel != null) {
+                closeSilent(channel);
+                inFlight--;
+            }
+            LatencyStats stats = statistics.get(target.getAddress());
+            if (stats != null) {
+                stats.add(state, latency);
+            }
+            result.complete(new ProbeResult(target.getAddress(), target.getPort(), state, latency));
+        }
+    }
+
+    /**
+     * Returns the shared engine of the binding.
+     */
+    public static synchronized ProbeEngine getInstance() {
+        ProbeEngine instance = ProbeEngine.instance;
+        if (instance == null) {
+            instance = new ProbeEngine();
+            ProbeEngine.instance = instance;
+        }
+        return instance;
+    }
+
+    /**
+     * Probes the given TCP port of the host.
+     *
+     * @param address The address of the host
+     * @param port The TCP port, a closed port is fine to detect the presence of the host
+     * @param timeoutInMS Timeout in milliseconds
+     * @return The result, completed on the selector thread
+     */
+    public CompletableFuture<ProbeResult> probe(InetAddress address, int port, int timeoutInMS) {
+        Probe probe = new Probe(new InetSocketAddress(address, port), timeoutInMS);
+        pendingProbes.add(probe);
+        startIfRequired();
+        return probe.result;
+    }
+
+    /**
+     * Probes all ports of all given hosts in one batch.
+     *
+     * @param addresses The addresses of the hosts
+     * @param ports The TCP ports to probe on each host
+     * @param timeoutInMS Timeout for each single probe in milliseconds
+     * @return All results, completed if all probes are finished
+     */
+    public CompletableFuture<List<ProbeResult>> sweep(Collection<InetAddress> addresses, Collection<Integer> ports,
+            int timeoutInMS) {
+        List<CompletableFuture<ProbeResult>> probes = new ArrayList<>(addresses.size() * ports.size());
+        for (InetAddress address : addresses) {
+            for (Integer port : ports) {
+                probes.add(probe(address, port, timeoutInMS));
+            }
+        }
+        return CompletableFuture.allOf(probes.toArray(new CompletableFuture<?>[probes.size()])).thenApply(v -> {
+            List<ProbeResult> results = new ArrayList<>(probes.size());
+            probes.forEach(probe -> results.add(probe.join()));
+            return results;
+        });
+    }
+
+    /**
+     * Starts to collect latency statistics of the host. Only tracked hosts are collected, so that discovery sweeps
+     * don't leave an entry for every probed address. Every call has to be paired with {@link #untrack(InetAddress)}.
+     *
+     * @param address The address of the host
+     * @return The statistics of the host
+     */
+    public LatencyStats track(InetAddress address) {
+        return statistics.compute(address, (a, stats) -> {
+            LatencyStats tracked = stats != null ? stats : new LatencyStats();
+            tracked.trackers++;
+            return tracked;
+        });
+    }
+
+    /**
+     * Stops to collect latency statistics of the host. The statistics are removed, if nobody tracks the host anymore.
+     *
+     * @param address The address of the host
+     */
+    public void untrack(InetAddress address) {
+        statistics.computeIfPresent(address, (a, stats) -> --stats.trackers > 0 ? stats : null);
+    }
+
+    /**
+     * Returns the latency statistics of the host or null, if the host is not tracked.
+     */
+    public @Nullable LatencyStats getStatistics(InetAddress address) {
+        return statistics.get(address);
+    }
+
+    private synchronized void startIfRequired() {
+        Selector selector = this.selector;
+        if (thread != null && selector != null) {
+            selector.wakeup();
+            return;
+        }
+        try {
+            if (selector == null) {
+                selector = Selector.open();
+                this.selector = selector;
+            }
+        } catch (IOException e) {
+            logger.warn("Can't open a selector for presence probes: {}", e.getMessage());
+            Probe probe;
+            while ((probe = pendingProbes.poll()) != null) {
+                probe.complete(ProbeState.NO_ANSWER);
+            }
+            return;
+        }
+        final Selector engineSelector = selector;
+        Thread thread = new Thread(() -> run(engineSelector), "networkProbeEngine");
+        thread.setDaemon(true);
+        this.thread = thread;
+        thread.start();
+    }
+
+    /**
+     * Returns true and ends the selector thread, if there is nothing to do.
+     */
+    private synchronized boolean stopIfIdle(Selector selector) {
+        if (inFlight == 0 && pendingProbes.isEmpty()) {
+            try {
+                // deregisters the keys of the closed channels
+                selector.selectNow();
+            } catch (IOException ignored) {
+            }
+            thread = null;
+            return true;
+        }
+        return false;
+    }
+
+    private void run(Selector selector) {
+        while (!stopIfIdle(selector)) {
+            startPendingProbes(selector);
+            try {
+                selector.select(getSelectTimeout(selector));
+            } catch (IOException e) {
+                logger.debug("Selecting presence probes failed: {}", e.getMessage());
+            }
+            for (SelectionKey key : selector.selectedKeys()) {
+                Probe probe = (Probe) key.attachment();
+                try {
+                    SocketChannel channel = (SocketChannel) key.channel();
+                    if (channel.finishConnect()) {
+                        probe.complete(ProbeState.CONNECTED);
+                    }
+                } catch (ConnectException e) {
+                    probe.complete(ProbeState.REFUSED);
+                } catch (IOException e) {
+                    probe.complete(ProbeState.NO_ANSWER);
+                }
+            }
+            selector.selectedKeys().clear();
+            expireProbes(selector);
+        }
+    }
+
+    private void startPendingProbes(Selector selector) {
+        while (inFlight < MAX_IN_FLIGHT) {
+            Probe probe = pendingProbes.poll();
+            if (probe == null) {
+                return;
+            }
+            probe.startInNS = System.nanoTime();
+            probe.deadlineInNS = probe.startInNS + probe.timeoutInNS;
+            SocketChannel channel = null;
+            try {
+                channel = SocketChannel.open();
+                channel.configureBlocking(false);
+                probe.channel = channel;
+                inFlight++;
+                if (channel.connect(probe.target)) {
+                    probe.complete(ProbeState.CONNECTED);
+                } else {
+                    channel.register(selector, SelectionKey.OP_CONNECT, probe);
+                }
+            } catch (ConnectException e) {
+                probe.complete(ProbeState.REFUSED);
+            } catch (IOException e) {
+                logger.trace("Probe of {} failed: {}", probe.target, e.getMessage());
+                probe.complete(ProbeState.NO_ANSWER);
+            }
+        }
+    }
+
+    private long getSelectTimeout(Selector selector) {
+        if (!pendingProbes.isEmpty() && inFlight < MAX_IN_FLIGHT) {
+            return 1;
+        }
+        long now = System.nanoTime();
+        long timeout = TimeUnit.SECONDS.toNanos(1);
+        for (SelectionKey key : selector.keys()) {
+            if (key.isValid()) {
+                Probe probe = (Probe) key.attachment();
+                timeout = Math.min(timeout, probe.deadlineInNS - now);
+            }
+        }
+        return Math.max(1, TimeUnit.NANOSECONDS.toMillis(timeout) + 1);
+    }
+
+    private void expireProbes(Selector selector) {
+        long now = System.nanoTime();
+        for (SelectionKey key : selector.keys()) {
+            Probe probe = (Probe) key.attachment();
+            if (key.isValid() && now - probe.deadlineInNS >= 0) {
+                probe.complete(ProbeState.NO_ANSWER);
+            }
+        }
+    }
+
+    private static void closeSilent(SocketChannel channel) {
+        try {
+            channel.close();
+        } catch (IOException ignored) {
+        }
+    }
+}
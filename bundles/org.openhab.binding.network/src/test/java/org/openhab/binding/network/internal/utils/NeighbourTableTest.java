@@ -0,0 +1,82 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.network.internal.utils;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.openhab.binding.network.internal.utils.NeighbourTable.Neighbour;
+
+/**
+ * Tests cases for {@link NeighbourTable}.
+ *
+ * @author Martin van Wingerden - Initial contribution
+ */
+public class NeighbourTableTest {
+    private static final String HEADER = "IP address       HW type     Flags       HW address            Mask     "
+            + "Device\n";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void onlyCompleteDynamicEntriesAreParsed() throws IOException {
+        String table = HEADER //
+                + "192.168.0.1      0x1         0x2         00:11:22:33:44:55     *        eth0\n"
+                + "192.168.0.2      0x1         0x0         00:00:00:00:00:00     *        eth0\n"
+                + "192.168.0.3      0x1         0x2         66:77:88:99:aa:bb     *        wlan0\n"
+                + "192.168.0.4      0x1         0x6         cc:dd:ee:ff:00:11     *        eth0\n";
+        Map<String, Neighbour> neighbours = NeighbourTable.parse(new BufferedReader(new StringReader(table)));
+
+        assertThat(neighbours.keySet().size(), is(2));
+        assertThat(neighbours.get("192.168.0.1").getHardwareAddress(), is("00:11:22:33:44:55"));
+        assertThat(neighbours.get("192.168.0.3").getInterfaceName(), is("wlan0"));
+        assertNull(neighbours.get("192.168.0.2"));
+        // a permanent entry says nothing about the presence of the device
+        assertNull(neighbours.get("192.168.0.4"));
+    }
+
+    @Test
+    public void tableIsReadOncePerInterval() throws IOException {
+        Path file = folder.newFile("arp").toPath();
+        String table = HEADER + "192.168.0.1 0x1 0x2 00:11:22:33:44:55 * eth0\n";
+        Files.write(file, table.getBytes(StandardCharsets.US_ASCII));
+        NeighbourTable subject = new NeighbourTable(file, 60000);
+        assertNotNull(subject.getNeighbour("192.168.0.1"));
+
+        Files.write(file, HEADER.getBytes(StandardCharsets.US_ASCII));
+        assertNotNull(subject.getNeighbour("192.168.0.1"));
+        assertThat(subject.size(), is(1));
+    }
+
+    @Test
+    public void missingTableAnswersNothing() {
+        NeighbourTable subject = new NeighbourTable(folder.getRoot().toPath().resolve("missing"), 0);
+        assertNull(subject.getNeighbour("192.168.0.1"));
+        assertThat(subject.getLastDhcpRequest("192.168.0.1"), is(0L));
+
+        subject.dhcpRequestReceived("192.168.0.1");
+        assertThat(subject.getLastDhcpRequest("192.168.0.1"), is(not(0L)));
+    }
+}
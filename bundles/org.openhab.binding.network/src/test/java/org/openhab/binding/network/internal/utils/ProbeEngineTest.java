@@ -0,0 +1,109 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.network.internal.utils;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.openhab.binding.network.internal.utils.ProbeEngine.ProbeResult;
+import org.openhab.binding.network.internal.utils.ProbeEngine.ProbeState;
+
+/**
+ * Tests cases for {@link ProbeEngine}.
+ *
+ * @author Martin van Wingerden - Initial contribution
+ */
+public class ProbeEngineTest {
+    private final ProbeEngine subject = new ProbeEngine();
+    private InetAddress localhost;
+    private ServerSocket openPort;
+    private int closedPort;
+
+    @Before
+    public void setUp() throws IOException {
+        localhost = InetAddress.getByName("127.0.0.1");
+        openPort = new ServerSocket(0, 50, localhost);
+        try (ServerSocket closed = new ServerSocket(0, 50, localhost)) {
+            closedPort = closed.getLocalPort();
+        }
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        openPort.close();
+    }
+
+    @Test
+    public void openPortIsConnected() throws Exception {
+        ProbeResult result = subject.probe(localhost, openPort.getLocalPort(), 1000).get(2, TimeUnit.SECONDS);
+        assertThat(result.getState(), is(ProbeState.CONNECTED));
+        assertTrue(result.getLatency() >= 0);
+    }
+
+    @Test
+    public void closedPortIsAnAnswerOfTheHost() throws Exception {
+        ProbeResult result = subject.probe(localhost, closedPort, 1000).get(2, TimeUnit.SECONDS);
+        assertThat(result.getState(), is(ProbeState.REFUSED));
+        assertTrue(result.getState().isHostAnswered());
+    }
+
+    @Test
+    public void sweepProbesAllPortsOfAllHosts() throws Exception {
+        List<ProbeResult> results = subject
+                .sweep(Collections.singleton(localhost), Arrays.asList(openPort.getLocalPort(), closedPort), 1000)
+                .get(2, TimeUnit.SECONDS);
+        assertThat(results.size(), is(2));
+        assertThat(results.get(0).getState(), is(ProbeState.CONNECTED));
+        assertThat(results.get(1).getState(), is(ProbeState.REFUSED));
+    }
+
+    @Test
+    public void onlyTrackedHostsCollectStatistics() throws Exception {
+        InetAddress untracked = InetAddress.getByName("127.0.0.2");
+        subject.track(localhost);
+        subject.track(localhost);
+        subject.sweep(Arrays.asList(localhost, untracked), Arrays.asList(openPort.getLocalPort(), closedPort), 1000)
+                .get(2, TimeUnit.SECONDS);
+
+        LatencyStats stats = subject.getStatistics(localhost);
+        assertNotNull(stats);
+        assertThat(stats.getProbes(), is(2L));
+        assertThat(stats.getAnswers(), is(2L));
+        assertNull(subject.getStatistics(untracked));
+
+        subject.untrack(localhost);
+        assertNotNull(subject.getStatistics(localhost));
+        subject.untrack(localhost);
+        assertNull(subject.getStatistics(localhost));
+    }
+
+    @Test
+    public void moreProbesThanSlots() throws Exception {
+        List<Integer> ports = Collections.nCopies(ProbeEngine.MAX_IN_FLIGHT * 2, closedPort);
+        List<ProbeResult> results = subject.sweep(Collections.singleton(localhost), ports, 1000).get(10,
+                TimeUnit.SECONDS);
+        assertThat(results.size(), is(ports.size()));
+        assertTrue(results.stream().allMatch(r -> r.getState() == ProbeState.REFUSED));
+    }
+}
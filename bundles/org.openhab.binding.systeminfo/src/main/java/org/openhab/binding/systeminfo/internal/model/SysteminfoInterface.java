@@ -71,6 +71,13 @@ public interface SysteminfoInterface {
      */
     public DecimalType getCpuPhysicalCores();
 
+    /**
+     * Returns the recent CPU usage of the whole system, calculated from the CPU ticks since the previous call.
+     *
+     * @return the CPU usage in percent
+     */
+    public DecimalType getCpuLoad();
+
     /**
      * Returns the system load average for the last minute.
      *
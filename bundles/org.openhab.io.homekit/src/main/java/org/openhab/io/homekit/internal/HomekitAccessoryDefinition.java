@@ -0,0 +1,100 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.homekit.internal;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.TreeSet;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.smarthome.core.items.GroupItem;
+import org.eclipse.smarthome.core.items.Item;
+
+/**
+ * The definition an accessory has been created from: the root item and its members, with everything of them the
+ * accessory depends on.
+ *
+ * Accessories subscribe to the item instances they have been created from. When the item registry replaces an item,
+ * the accessory has to be recreated even if none of the item's properties changed, so two definitions are only equal
+ * if they refer to the same item instances.
+ *
+ * @author Martin van Wingerden - Initial contribution
+ */
+@NonNullByDefault
+class HomekitAccessoryDefinition {
+    private final String properties;
+    private final List<Item> items;
+
+    private HomekitAccessoryDefinition(String properties, List<Item> items) {
+        this.properties = properties;
+        this.items = items;
+    }
+
+    /**
+     * Creates the definition of the accessory of the given root item.
+     */
+    static HomekitAccessoryDefinition of(Item rootItem) {
+        StringBuilder properties = new StringBuilder();
+        List<Item> items = new ArrayList<>();
+        append(properties, items, rootItem);
+        if (rootItem instanceof GroupItem) {
+            GroupItem group = (GroupItem) rootItem;
+            Item baseItem = group.getBaseItem();
+            if (baseItem != null) {
+                properties.append(baseItem.getType()).append(';');
+            }
+            group.getMembers().stream().sorted(Comparator.comparing(Item::getName))
+                    .forEach(member -> append(properties, items, member));
+        }
+        return new HomekitAccessoryDefinition(properties.toString(), items);
+    }
+
+    private static void append(StringBuilder properties, List<Item> items, Item item) {
+        properties.append(item.getName()).append('|').append(item.getType()).append('|').append(item.getLabel())
+                .append('|').append(item.getCategory()).append('|').append(new TreeSet<>(item.getTags()))
+                .append('|').append(new TreeSet<>(item.getGroupNames())).append(';');
+        items.add(item);
+    }
+
+    @Override
+    public boolean equals(@Nullable Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof HomekitAccessoryDefinition)) {
+            return false;
+        }
+        HomekitAccessoryDefinition other = (HomekitAccessoryDefinition) obj;
+        if (!properties.equals(other.properties) || items.size() != other.items.size()) {
+            return false;
+        }
+        for (int i = 0; i < items.size(); i++) {
+            if (items.get(i) != other.items.get(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        return properties.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return properties;
+    }
+}
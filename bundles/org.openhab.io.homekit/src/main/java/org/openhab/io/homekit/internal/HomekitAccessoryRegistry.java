@@ -12,12 +12,10 @@
  */
 package org.openhab.io.homekit.internal;
 
+import java.util.Collections;
 import java.util.HashMap;
-import java.util.HashSet;
-import java.util.Iterator;
 import java.util.Map;
-import java.util.Map.Entry;
-import java.util.Set;
+import java.util.Objects;
 
 import org.eclipse.jdt.annotation.Nullable;
 import org.slf4j.Logger;
@@ -30,61 +28,107 @@ import io.github.hapjava.HomekitRoot;
  * Stores the created HomekitAccessories. GroupedAccessories are also held here
  * in a pre-created pending state until all required characteristics are found.
  *
+ * Together with each accessory the definition it has been created from is stored, so that an accessory is only
+ * replaced if its definition actually changed. Changes are made on a copy of the accessory map which then replaces
+ * the current snapshot, so that readers never need to lock.
+ *
  * @author Andy Lintner - Initial contribution
  */
 class HomekitAccessoryRegistry {
 
+    private static class CreatedAccessory {
+        final HomekitAccessory accessory;
+        final @Nullable HomekitAccessoryDefinition definition;
+
+        CreatedAccessory(HomekitAccessory accessory, @Nullable HomekitAccessoryDefinition definition) {
+            this.accessory = accessory;
+            this.definition = definition;
+        }
+    }
+
     private @Nullable HomekitRoot bridge;
-    private final Map<String, HomekitAccessory> createdAccessories = new HashMap<>();
-    private final Set<Integer> createdIds = new HashSet<>();
+    // Immutable snapshot, replaced on every change
+    private volatile Map<String, CreatedAccessory> createdAccessories = Collections.emptyMap();
 
     private final Logger logger = LoggerFactory.getLogger(HomekitAccessoryRegistry.class);
 
-    public synchronized void remove(String itemName) {
-        if (createdAccessories.containsKey(itemName)) {
-            HomekitAccessory accessory = createdAccessories.remove(itemName);
-            logger.debug("Removed accessory {} for taggedItem {}", accessory.getId(), itemName);
-            if (bridge != null) {
-                bridge.removeAccessory(accessory);
-            } else {
-                logger.warn("trying to remove {} but bridge is null", accessory);
-            }
+    /**
+     * Removes the accessory of the given item.
+     *
+     * @return true if there was an accessory for the item
+     */
+    public synchronized boolean remove(String itemName) {
+        CreatedAccessory created = createdAccessories.get(itemName);
+        if (created == null) {
+            return false;
         }
+        Map<String, CreatedAccessory> accessories = new HashMap<>(createdAccessories);
+        accessories.remove(itemName);
+        createdAccessories = Collections.unmodifiableMap(accessories);
+
+        logger.debug("Removed accessory {} for taggedItem {}", created.accessory.getId(), itemName);
+        if (bridge != null) {
+            bridge.removeAccessory(created.accessory);
+        } else {
+            logger.warn("trying to remove {} but bridge is null", created.accessory);
+        }
+        return true;
     }
 
     public synchronized void clear() {
-        Iterator<Entry<String, HomekitAccessory>> iter = createdAccessories.entrySet().iterator();
-        while (iter.hasNext()) {
-            Entry<String, HomekitAccessory> entry = iter.next();
+        Map<String, CreatedAccessory> accessories = createdAccessories;
+        createdAccessories = Collections.emptyMap();
+        for (Map.Entry<String, CreatedAccessory> entry : accessories.entrySet()) {
             if (bridge != null) {
-                bridge.removeAccessory(entry.getValue());
+                bridge.removeAccessory(entry.getValue().accessory);
             } else {
-                logger.warn("trying to clear {} but bridge is null", entry);
+                logger.warn("trying to clear {} but bridge is null", entry.getKey());
             }
-            iter.remove();
         }
-        createdIds.clear();
     }
 
     public synchronized void setBridge(HomekitRoot bridge) {
         this.bridge = bridge;
-        createdAccessories.values().forEach(accessory -> bridge.addAccessory(accessory));
+        createdAccessories.values().forEach(created -> bridge.addAccessory(created.accessory));
     }
 
     public synchronized void unsetBridge() {
         final HomekitRoot oldBridge = bridge;
         if (oldBridge != null) {
-            createdAccessories.values().forEach(accessory -> oldBridge.removeAccessory(accessory));
+            createdAccessories.values().forEach(created -> oldBridge.removeAccessory(created.accessory));
         }
         bridge = null;
     }
 
-    public synchronized void addRootAccessory(String itemName, HomekitAccessory accessory) {
-        createdAccessories.put(itemName, accessory);
-        createdIds.add(accessory.getId());
+    public void addRootAccessory(String itemName, HomekitAccessory accessory) {
+        addRootAccessory(itemName, accessory, null);
+    }
+
+    /**
+     * Adds the accessory of the given item, replacing an existing one.
+     *
+     * @param definition the definition the accessory has been created from, see
+     *            {@link #isUnchanged(String, HomekitAccessoryDefinition)}
+     */
+    public synchronized void addRootAccessory(String itemName, HomekitAccessory accessory,
+            @Nullable HomekitAccessoryDefinition definition) {
+        Map<String, CreatedAccessory> accessories = new HashMap<>(createdAccessories);
+        CreatedAccessory previous = accessories.put(itemName, new CreatedAccessory(accessory, definition));
+        createdAccessories = Collections.unmodifiableMap(accessories);
         if (bridge != null) {
+            if (previous != null) {
+                bridge.removeAccessory(previous.accessory);
+            }
             bridge.addAccessory(accessory);
         }
         logger.debug("Added accessory {}", accessory.getId());
     }
+
+    /**
+     * Returns true if there is an accessory for the given item that has been created from the given definition.
+     */
+    public boolean isUnchanged(String itemName, HomekitAccessoryDefinition definition) {
+        CreatedAccessory created = createdAccessories.get(itemName);
+        return created != null && Objects.equals(created.definition, definition);
+    }
 }
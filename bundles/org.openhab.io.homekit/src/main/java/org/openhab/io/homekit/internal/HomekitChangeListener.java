@@ -16,10 +16,10 @@ import java.time.Clock;
 import java.time.Duration;
 import java.util.Collection;
 import java.util.HashSet;
-import java.util.Iterator;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 import org.eclipse.smarthome.core.common.ThreadPoolManager;
 import org.eclipse.smarthome.core.items.Item;
@@ -31,6 +31,7 @@ import org.openhab.io.homekit.internal.accessories.IncompleteAccessoryException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import io.github.hapjava.HomekitAccessory;
 import io.github.hapjava.HomekitRoot;
 
 /**
@@ -71,7 +72,8 @@ public class HomekitChangeListener implements ItemRegistryChangeListener {
         itemRegistry.getAll().stream().map(item -> new HomekitTaggedItem(item, itemRegistry))
                 .filter(taggedItem -> taggedItem.isAccessory())
                 .filter(taggedItem -> !taggedItem.isMemberOfAccessoryGroup())
-                .forEach(rootTaggedItem -> createRootAccessory(rootTaggedItem));
+                .forEach(rootTaggedItem -> addRootAccessory(rootTaggedItem,
+                        HomekitAccessoryDefinition.of(rootTaggedItem.getItem())));
     }
 
     @Override
@@ -116,17 +118,41 @@ public class HomekitChangeListener implements ItemRegistryChangeListener {
         }
     }
 
-    private synchronized void applyUpdates() {
-        Iterator<String> iter = pendingUpdates.iterator();
-
-        while (iter.hasNext()) {
-            String name = iter.next();
-            accessoryRegistry.remove(name);
+    /**
+     * Applies the pending updates. Only accessories whose definition changed are replaced, see
+     * {@link HomekitAccessoryDefinition}. The lock of this listener is only held to take over the pending updates, so
+     * that item registry events are not blocked while the accessories are created. No lock is held while an accessory
+     * is created, the registry only locks to swap it in.
+     */
+    private void applyUpdates() {
+        final Set<String> updates;
+        synchronized (this) {
+            updates = pendingUpdates;
+            pendingUpdates = new HashSet<>();
+        }
 
-            getItemOptional(name).map(i -> new HomekitTaggedItem(i, itemRegistry))
-                    .filter(i -> i.isAccessory() && !i.isMemberOfAccessoryGroup())
-                    .ifPresent(rootItem -> createRootAccessory(rootItem));
+        long start = System.nanoTime();
+        int changed = 0;
+        int removed = 0;
+        for (String name : updates) {
+            Optional<HomekitTaggedItem> rootItem = getItemOptional(name)
+                    .map(i -> new HomekitTaggedItem(i, itemRegistry))
+                    .filter(i -> i.isAccessory() && !i.isMemberOfAccessoryGroup());
+            if (rootItem.isPresent()) {
+                HomekitAccessoryDefinition definition = HomekitAccessoryDefinition.of(rootItem.get().getItem());
+                if (!accessoryRegistry.isUnchanged(name, definition)) {
+                    if (!addRootAccessory(rootItem.get(), definition)) {
+                        accessoryRegistry.remove(name);
+                    }
+                    changed++;
+                }
+            } else if (accessoryRegistry.remove(name)) {
+                removed++;
+            }
         }
+        logger.debug("Applied {} homekit updates in {} ms: {} accessories changed, {} removed, {} unchanged",
+                updates.size(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), changed, removed,
+                updates.size() - changed - removed);
     }
 
     @Override
@@ -159,19 +185,26 @@ public class HomekitChangeListener implements ItemRegistryChangeListener {
         this.itemRegistry.removeRegistryChangeListener(this);
     }
 
-    private void createRootAccessory(HomekitTaggedItem taggedItem) {
+    /**
+     * Creates the accessory of the given item and adds it to the registry, replacing an existing one.
+     *
+     * @return false if the accessory could not be created
+     */
+    private boolean addRootAccessory(HomekitTaggedItem taggedItem, HomekitAccessoryDefinition definition) {
         try {
             if (taggedItem.isMemberOfAccessoryGroup()) {
                 logger.warn("Bug! Cannot add {} as a root accessory if it is a member of a group! ",
                         taggedItem.getItem().getUID());
-                return;
+                return false;
             }
             logger.debug("Adding homekit device {}", taggedItem.getItem().getUID());
-            accessoryRegistry.addRootAccessory(taggedItem.getName(),
-                    HomekitAccessoryFactory.create(taggedItem, itemRegistry, updater, settings));
+            HomekitAccessory accessory = HomekitAccessoryFactory.create(taggedItem, itemRegistry, updater, settings);
+            accessoryRegistry.addRootAccessory(taggedItem.getName(), accessory, definition);
             logger.debug("Added homekit device {}", taggedItem.getItem().getUID());
+            return true;
         } catch (HomekitException | IncompleteAccessoryException e) {
             logger.warn("Could not add device {}: {}", taggedItem.getItem().getUID(), e.getMessage());
+            return false;
         }
     }
 }
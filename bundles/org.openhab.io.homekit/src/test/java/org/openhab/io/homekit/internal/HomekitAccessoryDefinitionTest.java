@@ -0,0 +1,71 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.homekit.internal;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.assertThat;
+
+import org.eclipse.smarthome.core.items.GroupItem;
+import org.eclipse.smarthome.core.library.items.SwitchItem;
+import org.junit.Test;
+
+/**
+ * Tests cases for {@link HomekitAccessoryDefinition}.
+ *
+ * @author Martin van Wingerden - Initial contribution
+ */
+public class HomekitAccessoryDefinitionTest {
+
+    @Test
+    public void sameItemsGiveEqualDefinitions() {
+        SwitchItem item = createSwitch("Light", "Light label");
+
+        assertThat(HomekitAccessoryDefinition.of(item), is(equalTo(HomekitAccessoryDefinition.of(item))));
+    }
+
+    @Test
+    public void changedPropertiesGiveDifferentDefinitions() {
+        SwitchItem item = createSwitch("Light", "Light label");
+        HomekitAccessoryDefinition before = HomekitAccessoryDefinition.of(item);
+
+        item.setLabel("Other label");
+        assertThat(HomekitAccessoryDefinition.of(item), is(not(equalTo(before))));
+    }
+
+    @Test
+    public void replacedItemWithSamePropertiesGivesDifferentDefinition() {
+        // e.g. only the state description or metadata of the item changed, the registry replaces the instance
+        HomekitAccessoryDefinition before = HomekitAccessoryDefinition.of(createSwitch("Light", "Light label"));
+
+        assertThat(HomekitAccessoryDefinition.of(createSwitch("Light", "Light label")), is(not(equalTo(before))));
+    }
+
+    @Test
+    public void replacedGroupMemberGivesDifferentDefinition() {
+        GroupItem group = new GroupItem("Thermostat");
+        group.addTag("Thermostat");
+        group.addMember(createSwitch("Heating", "Heating"));
+        HomekitAccessoryDefinition before = HomekitAccessoryDefinition.of(group);
+        assertThat(HomekitAccessoryDefinition.of(group), is(equalTo(before)));
+
+        group.replaceMember(group.getMembers().iterator().next(), createSwitch("Heating", "Heating"));
+        assertThat(HomekitAccessoryDefinition.of(group), is(not(equalTo(before))));
+    }
+
+    private static SwitchItem createSwitch(String name, String label) {
+        SwitchItem item = new SwitchItem(name);
+        item.setLabel(label);
+        item.addTag("Lighting");
+        return item;
+    }
+}
@@ -30,6 +30,8 @@ import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 import javax.net.ssl.KeyManagerFactory;
 
@@ -85,10 +87,19 @@ public class EmbeddedBrokerService
         implements ConfigurableService, MqttConnectionObserver, MqttServiceObserver, MqttEmbeddedBrokerStartedListener {
     private final MqttService service;
     private String persistenceFilename = "";
+    private int persistenceFlushInterval = 30;
     // private NetworkServerTls networkServerTls; //TODO wait for NetworkServerTls implementation
 
+    /**
+     * Collects broker-level metrics: connected clients, messages and subscriptions.
+     */
     @NonNullByDefault({})
-    class BrokerMetricsListenerEx implements InterceptHandler {
+    public class BrokerMetricsListenerEx implements InterceptHandler {
+        private final AtomicInteger connectedClients = new AtomicInteger();
+        private final AtomicLong connections = new AtomicLong();
+        private final AtomicLong publishedMessages = new AtomicLong();
+        private final AtomicLong publishedBytes = new AtomicLong();
+        private final AtomicInteger subscriptions = new AtomicInteger();
 
         @Override
         public String getID() {
@@ -97,21 +108,27 @@ public class EmbeddedBrokerService
 
         @Override
         public Class<?>[] getInterceptedMessageTypes() {
-            return new Class<?>[] { InterceptConnectMessage.class, InterceptDisconnectMessage.class };
+            return new Class<?>[] { InterceptConnectMessage.class, InterceptDisconnectMessage.class,
+                    InterceptConnectionLostMessage.class, InterceptPublishMessage.class,
+                    InterceptSubscribeMessage.class, InterceptUnsubscribeMessage.class };
         }
 
         @Override
         public void onConnect(InterceptConnectMessage arg0) {
+            connections.incrementAndGet();
+            connectedClients.incrementAndGet();
             logger.debug("MQTT Client connected: {}", arg0.getClientID());
         }
 
         @Override
         public void onConnectionLost(InterceptConnectionLostMessage arg0) {
-
+            connectedClients.decrementAndGet();
+            logger.debug("MQTT Client connection lost: {}", arg0.getClientID());
         }
 
         @Override
         public void onDisconnect(InterceptDisconnectMessage arg0) {
+            connectedClients.decrementAndGet();
             logger.debug("MQTT Client disconnected: {}", arg0.getClientID());
         }
 
@@ -122,17 +139,61 @@ public class EmbeddedBrokerService
 
         @Override
         public void onPublish(InterceptPublishMessage arg0) {
-
+            publishedMessages.incrementAndGet();
+            publishedBytes.addAndGet(arg0.getPayload().readableBytes());
         }
 
         @Override
         public void onSubscribe(InterceptSubscribeMessage arg0) {
-
+            subscriptions.incrementAndGet();
         }
 
         @Override
         public void onUnsubscribe(InterceptUnsubscribeMessage arg0) {
+            subscriptions.decrementAndGet();
+        }
 
+        /**
+         * Returns the number of currently connected clients.
+         */
+        public int getConnectedClients() {
+            return Math.max(0, connectedClients.get());
+        }
+
+        /**
+         * Returns the number of client connections since the broker has been started.
+         */
+        public long getConnections() {
+            return connections.get();
+        }
+
+        /**
+         * Returns the number of messages published to the broker since it has been started.
+         */
+        public long getPublishedMessages() {
+            return publishedMessages.get();
+        }
+
+        /**
+         * Returns the payload bytes published to the broker since it has been started.
+         */
+        public long getPublishedBytes() {
+            return publishedBytes.get();
+        }
+
+        /**
+         * Returns the number of subscriptions, as far as they have not been unsubscribed explicitly.
+         */
+        public int getSubscriptions() {
+            return Math.max(0, subscriptions.get());
+        }
+
+        void reset() {
+            connectedClients.set(0);
+            connections.set(0);
+            publishedMessages.set(0);
+            publishedBytes.set(0);
+            subscriptions.set(0);
         }
     }
 
@@ -174,15 +235,22 @@ public class EmbeddedBrokerService
         }
 
         if (!config.persistenceFile.isEmpty()) {
-            final String persistenceFilename = config.persistenceFile;
-            if (!Paths.get(persistenceFilename).isAbsolute()) {
-                Path path = Paths.get(ConfigConstants.getUserDataFolder()).toAbsolutePath();
-                Files.createDirectories(path);
-                this.persistenceFilename = path.resolve(persistenceFilename).toString();
+            Path path = Paths.get(config.persistenceFile);
+            if (!path.isAbsolute()) {
+                path = Paths.get(ConfigConstants.getUserDataFolder()).toAbsolutePath().resolve(path);
             }
+            Path parent = path.getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            this.persistenceFilename = path.toString();
+            this.persistenceFlushInterval = config.persistenceFlushInterval > 0 ? config.persistenceFlushInterval
+                    : 30;
 
-            logger.info("Broker persistence file: {}", persistenceFilename);
+            logger.info("Broker persistence file: {}, flushed every {} seconds", persistenceFilename,
+                    persistenceFlushInterval);
         } else {
+            this.persistenceFilename = "";
             logger.info("Using in-memory persistence. No persistence file has been set!");
         }
 
@@ -293,7 +361,8 @@ public class EmbeddedBrokerService
 
         if (!persistenceFilename.isEmpty()) { // Persistence: If not set, an in-memory database is used.
             properties.put(BrokerConstants.PERSISTENT_STORE_PROPERTY_NAME, persistenceFilename);
-            properties.put(BrokerConstants.AUTOSAVE_INTERVAL_PROPERTY_NAME, "30"); // in seconds
+            properties.put(BrokerConstants.AUTOSAVE_INTERVAL_PROPERTY_NAME,
+                    Integer.toString(persistenceFlushInterval)); // in seconds
         }
 
         // We may provide ACL functionality at some point as well
@@ -314,6 +383,7 @@ public class EmbeddedBrokerService
             }
         }
         this.server = server;
+        metrics.reset();
         server.addInterceptHandler(metrics);
         ScheduledExecutorService s = new ScheduledThreadPoolExecutor(1);
         detectStart.startBrokerStartedDetection(port, s);
@@ -383,6 +453,13 @@ public class EmbeddedBrokerService
         return connection;
     }
 
+    /**
+     * Returns the broker metrics, collected by an intercept handler of the embedded broker.
+     */
+    public BrokerMetricsListenerEx getMetrics() {
+        return metrics;
+    }
+
     public String getPersistenceFilename() {
         return persistenceFilename;
     }
@@ -25,6 +25,8 @@ public class ServiceConfiguration {
     public @Nullable Integer port;
     public Boolean secure = false;
     public String persistenceFile = "mqttembedded.bin";
+    /** Interval in seconds in which the persistence file is written */
+    public Integer persistenceFlushInterval = 30;
 
     public @Nullable String username;
     public @Nullable String password;
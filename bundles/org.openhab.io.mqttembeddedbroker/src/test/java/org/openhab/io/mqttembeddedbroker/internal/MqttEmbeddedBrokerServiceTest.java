@@ -153,6 +153,19 @@ public class MqttEmbeddedBrokerServiceTest extends JavaTest {
         verify(service).addBrokerConnection(anyString(), eq(c));
     }
 
+    @Test
+    public void collectsMetrics() throws InterruptedException, ExecutionException {
+        MqttBrokerConnection c = subject.getConnection();
+        assertNotNull(c);
+        waitForConnectionChange(c, MqttConnectionState.CONNECTED);
+
+        c.publish("demotopic", "testtest".getBytes(), 1, false).get();
+
+        waitForAssert(() -> assertThat(subject.getMetrics().getPublishedMessages(), is(1L)));
+        assertThat(subject.getMetrics().getPublishedBytes(), is(8L));
+        assertThat(subject.getMetrics().getConnectedClients(), is(1));
+    }
+
     @Test
     public void testPersistence() throws InterruptedException, IOException, ExecutionException {
         config.put("persistenceFile", "persist.mqtt");
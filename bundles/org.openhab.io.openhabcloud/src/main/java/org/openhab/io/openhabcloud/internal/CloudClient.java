@@ -20,18 +20,19 @@ import java.net.URL;
 import java.net.URLEncoder;
 import java.nio.ByteBuffer;
 import java.util.Arrays;
-import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.eclipse.jetty.client.HttpClient;
 import org.eclipse.jetty.client.api.Request;
 import org.eclipse.jetty.client.api.Request.FailureListener;
 import org.eclipse.jetty.client.api.Response;
-import org.eclipse.jetty.client.api.Response.ContentListener;
+import org.eclipse.jetty.client.api.Response.AsyncContentListener;
 import org.eclipse.jetty.client.api.Response.HeadersListener;
 import org.eclipse.jetty.client.api.Result;
 import org.eclipse.jetty.client.util.BytesContentProvider;
@@ -40,6 +41,7 @@ import org.eclipse.jetty.http.HttpFields;
 import org.eclipse.jetty.http.HttpMethod;
 import org.eclipse.jetty.http.HttpStatus;
 import org.eclipse.jetty.util.BufferUtil;
+import org.eclipse.jetty.util.Callback;
 import org.eclipse.jetty.util.URIUtil;
 import org.eclipse.smarthome.core.common.ThreadPoolManager;
 import org.json.JSONException;
@@ -67,6 +69,13 @@ import io.socket.engineio.client.Transport;
  */
 
 public class CloudClient {
+    private static final String THREADPOOL_OPENHABCLOUD = "openhabcloud";
+
+    /*
+     * Maximum number of proxied response content bytes handed to Socket.IO, but not written by its transport yet
+     */
+    private static final long MAX_PENDING_CONTENT_BYTES = 1024 * 1024;
+
     /*
      * Logger for this class
      */
@@ -100,7 +109,19 @@ public class CloudClient {
     /*
      * This hashmap holds HTTP requests to local openHAB which are currently running
      */
-    private HashMap<Integer, Request> runningRequests;
+    private final Map<Integer, Request> runningRequests;
+
+    /*
+     * This variable makes Jetty wait with reading response content while too much content is waiting to be written
+     */
+    private final ContentFlowControl contentFlowControl = new ContentFlowControl(MAX_PENDING_CONTENT_BYTES);
+
+    /*
+     * These variables count the completed proxied requests, their response content bytes and their total duration
+     */
+    private final AtomicLong proxiedRequests = new AtomicLong();
+    private final AtomicLong proxiedContentBytes = new AtomicLong();
+    private final AtomicLong proxiedRequestsMillis = new AtomicLong();
 
     /*
      * This variable indicates if connection to the openHAB Cloud is currently in an established state
@@ -147,7 +168,7 @@ public class CloudClient {
         this.localBaseUrl = localBaseUrl;
         this.remoteAccessEnabled = remoteAccessEnabled;
         this.exposedItems = exposedItems;
-        runningRequests = new HashMap<Integer, Request>();
+        runningRequests = new ConcurrentHashMap<Integer, Request>();
         this.jettyClient = httpClient;
     }
 
@@ -183,6 +204,15 @@ public class CloudClient {
                         headers.put("remoteaccess", Arrays.asList(((Boolean) remoteAccessEnabled).toString()));
                     }
                 });
+                transport.on(Transport.EVENT_DRAIN, new Emitter.Listener() {
+                    @Override
+                    public void call(Object... args) {
+                        logger.trace("Transport.EVENT_DRAIN");
+                        // Jetty might continue reading in the completed callbacks, keep the event thread free
+                        ThreadPoolManager.getScheduledPool(THREADPOOL_OPENHABCLOUD)
+                                .execute(contentFlowControl::drained);
+                    }
+                });
             }
         });
         socket.on(Socket.EVENT_CONNECT, new Emitter.Listener() {
@@ -245,6 +275,8 @@ public class CloudClient {
         if (runningRequests != null) {
             runningRequests.clear();
         }
+        // Responses waiting for content to be written will not reach the openHAB Cloud anymore
+        contentFlowControl.failed(new IOException("Disconnected from the openHAB Cloud service"));
     }
 
     /**
@@ -335,7 +367,8 @@ public class CloudClient {
                 return;
             }
             ResponseListener listener = new ResponseListener(requestId);
-            request.onResponseHeaders(listener).onResponseContent(listener).onRequestFailure(listener).send(listener);
+            request.onResponseHeaders(listener).onResponseContentAsync(listener).onRequestFailure(listener)
+                    .send(listener);
             // If successfully submitted request to http client, add it to the list of currently
             // running requests to be able to cancel it if needed
             runningRequests.put(requestId, request);
@@ -506,6 +539,33 @@ public class CloudClient {
         socket.disconnect();
     }
 
+    /**
+     * Returns the number of completed requests proxied to local openHAB
+     */
+    public long getProxiedRequests() {
+        return proxiedRequests.get();
+    }
+
+    /**
+     * Returns the number of response content bytes sent back to the openHAB Cloud
+     */
+    public long getProxiedContentBytes() {
+        return proxiedContentBytes.get();
+    }
+
+    /**
+     * Returns the total duration of the completed proxied requests in milliseconds
+     */
+    public long getProxiedRequestsMillis() {
+        return proxiedRequestsMillis.get();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("{proxiedRequests: %d, proxiedContentBytes: %d, proxiedRequestsMillis: %d}",
+                proxiedRequests.get(), proxiedContentBytes.get(), proxiedRequestsMillis.get());
+    }
+
     public String getOpenHABVersion() {
         return openHABVersion;
     }
@@ -519,14 +579,17 @@ public class CloudClient {
     }
 
     /*
-     * An internal class which forwards response headers and data back to the openHAB Cloud
+     * An internal class which forwards response headers and data back to the openHAB Cloud.
+     * Response content is forwarded chunk by chunk as Jetty receives it. Jetty reads the next chunk only while the
+     * content waiting to be written by the Socket.IO transport stays within a limit, see ContentFlowControl.
      */
     private class ResponseListener
-            implements Response.CompleteListener, HeadersListener, ContentListener, FailureListener {
+            implements Response.CompleteListener, HeadersListener, AsyncContentListener, FailureListener {
 
-        private static final String THREADPOOL_OPENHABCLOUD = "openhabcloud";
         private int mRequestId;
         private boolean mHeadersSent = false;
+        private final long mStartTime = System.nanoTime();
+        private long mBytesSent = 0;
 
         public ResponseListener(int requestId) {
             mRequestId = requestId;
@@ -548,6 +611,11 @@ public class CloudClient {
         public void onComplete(Result result) {
             // Remove this request from list of running requests
             runningRequests.remove(mRequestId);
+            long duration = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - mStartTime);
+            proxiedRequests.incrementAndGet();
+            proxiedContentBytes.addAndGet(mBytesSent);
+            proxiedRequestsMillis.addAndGet(duration);
+            logger.debug("Request {} completed in {} ms, {} content bytes", mRequestId, duration, mBytesSent);
             if ((result != null && result.isFailed())
                     && (result.getResponse() != null && result.getResponse().getStatus() != HttpStatus.OK_200)) {
                 if (result.getFailure() != null) {
@@ -591,17 +659,22 @@ public class CloudClient {
         }
 
         @Override
-        public void onContent(Response response, ByteBuffer content) {
-            logger.debug("Jetty received response content of size {}", String.valueOf(content.remaining()));
+        public void onContent(Response response, ByteBuffer content, Callback callback) {
+            int size = content.remaining();
+            logger.debug("Jetty received response content of size {}", size);
             JSONObject responseJson = new JSONObject();
             try {
                 responseJson.put("id", mRequestId);
                 responseJson.put("body", BufferUtil.toArray(content));
                 socket.emit("responseContentBinary", responseJson);
+                mBytesSent += size;
                 logger.debug("Sent content to request {}", mRequestId);
             } catch (JSONException e) {
                 logger.debug("{}", e.getMessage());
+                callback.succeeded();
+                return;
             }
+            contentFlowControl.emitted(size, callback);
         }
 
         @Override
@@ -32,6 +32,7 @@ import org.apache.commons.lang.StringUtils;
 import org.eclipse.jetty.client.HttpClient;
 import org.eclipse.smarthome.config.core.ConfigConstants;
 import org.eclipse.smarthome.config.core.ConfigurableService;
+import org.eclipse.smarthome.core.common.ThreadPoolManager;
 import org.eclipse.smarthome.core.events.Event;
 import org.eclipse.smarthome.core.events.EventFilter;
 import org.eclipse.smarthome.core.events.EventPublisher;
@@ -82,16 +83,20 @@ public class CloudService implements ActionService, CloudClientListener, EventSu
     private static final String CFG_EXPOSE = "expose";
     private static final String CFG_BASE_URL = "baseURL";
     private static final String CFG_MODE = "mode";
+    private static final String CFG_ITEM_UPDATE_WINDOW = "itemUpdateWindow";
     private static final String SECRET_FILE_NAME = "openhabcloud" + File.separator + "secret";
     private static final String DEFAULT_URL = "https://myopenhab.org/";
     private static final int DEFAULT_LOCAL_OPENHAB_MAX_CONCURRENT_REQUESTS = 200;
     private static final int DEFAULT_LOCAL_OPENHAB_REQUEST_TIMEOUT = 30000;
     private static final String HTTPCLIENT_NAME = "openhabcloud";
+    private static final String THREADPOOL_OPENHABCLOUD = "openhabcloud";
+    private static final long DEFAULT_ITEM_UPDATE_WINDOW = 500;
 
     private Logger logger = LoggerFactory.getLogger(CloudService.class);
 
     public static String clientVersion = null;
     private CloudClient cloudClient;
+    private ItemUpdateQueue itemUpdateQueue;
     private String cloudBaseUrl = null;
     private HttpClient httpClient;
     protected ItemRegistry itemRegistry = null;
@@ -177,6 +182,8 @@ public class CloudService implements ActionService, CloudClientListener, EventSu
     @Deactivate
     protected void deactivate() {
         logger.debug("openHAB Cloud connector deactivated");
+        flushItemUpdates();
+        logger.debug("Proxy statistics: {}", cloudClient);
         cloudClient.shutdown();
         try {
             httpClient.stop();
@@ -185,6 +192,14 @@ public class CloudService implements ActionService, CloudClientListener, EventSu
         }
     }
 
+    private void flushItemUpdates() {
+        ItemUpdateQueue itemUpdateQueue = this.itemUpdateQueue;
+        if (itemUpdateQueue != null) {
+            itemUpdateQueue.flush();
+            logger.debug("Item update queue statistics: {}", itemUpdateQueue);
+        }
+    }
+
     @Modified
     protected void modified(Map<String, ?> config) {
         if (config != null && config.get(CFG_MODE) != null) {
@@ -218,11 +233,25 @@ public class CloudService implements ActionService, CloudClientListener, EventSu
             }
         }
 
+        long itemUpdateWindow = DEFAULT_ITEM_UPDATE_WINDOW;
+        Object windowCfg = config.get(CFG_ITEM_UPDATE_WINDOW);
+        if (windowCfg != null) {
+            try {
+                itemUpdateWindow = Long.parseLong(windowCfg.toString().trim());
+            } catch (NumberFormatException e) {
+                logger.warn("Invalid item update window '{}', using {} ms", windowCfg, DEFAULT_ITEM_UPDATE_WINDOW);
+            }
+        }
+
         logger.debug("UUID = {}, secret = {}", InstanceUUID.get(), getSecret());
 
+        flushItemUpdates();
         if (cloudClient != null) {
+            logger.debug("Proxy statistics: {}", cloudClient);
             cloudClient.shutdown();
         }
+        itemUpdateQueue = new ItemUpdateQueue((itemName, itemState) -> cloudClient.sendItemUpdate(itemName, itemState),
+                ThreadPoolManager.getScheduledPool(THREADPOOL_OPENHABCLOUD), itemUpdateWindow);
 
         httpClient.setMaxConnectionsPerDestination(DEFAULT_LOCAL_OPENHAB_MAX_CONCURRENT_REQUESTS);
         httpClient.setConnectTimeout(DEFAULT_LOCAL_OPENHAB_REQUEST_TIMEOUT);
@@ -391,7 +420,7 @@ public class CloudService implements ActionService, CloudClientListener, EventSu
     public void receive(Event event) {
         ItemStateEvent ise = (ItemStateEvent) event;
         if (exposedItems != null && exposedItems.contains(ise.getItemName())) {
-            cloudClient.sendItemUpdate(ise.getItemName(), ise.getItemState().toString());
+            itemUpdateQueue.offer(ise.getItemName(), ise.getItemState().toString());
         }
     }
 
@@ -0,0 +1,112 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.openhabcloud.internal;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.jetty.util.Callback;
+
+/**
+ * This class limits the proxied response content which has been handed to Socket.IO, but has not been written by
+ * the Socket.IO transport yet.
+ *
+ * Jetty reads the next content chunk of a response only after the callback of the previous chunk has been completed.
+ * As long as less than the maximum number of bytes is pending, callbacks are completed right away. Otherwise they are
+ * completed when the transport has drained its write buffer, or failed when the connection is lost.
+ *
+ * @author Martin van Wingerden - Initial contribution
+ */
+public class ContentFlowControl {
+
+    private final long maxPendingBytes;
+
+    /*
+     * Content bytes emitted since the transport drained its write buffer for the last time
+     */
+    private long pendingBytes;
+
+    /*
+     * Callbacks of the content chunks that are waiting for the transport to drain
+     */
+    private final List<Callback> waiting = new ArrayList<>();
+
+    /**
+     * @param maxPendingBytes maximum number of emitted content bytes after which Jetty has to wait for the transport
+     */
+    public ContentFlowControl(long maxPendingBytes) {
+        this.maxPendingBytes = maxPendingBytes;
+    }
+
+    /**
+     * Called after a content chunk has been emitted
+     *
+     * @param bytes size of the chunk
+     * @param callback Jetty callback of the chunk, completed right away or once the transport has drained
+     */
+    public void emitted(int bytes, Callback callback) {
+        boolean wait;
+        synchronized (this) {
+            pendingBytes += bytes;
+            wait = pendingBytes > maxPendingBytes;
+            if (wait) {
+                waiting.add(callback);
+            }
+        }
+        if (!wait) {
+            callback.succeeded();
+        }
+    }
+
+    /**
+     * Called when the transport has written its write buffer, completes the waiting callbacks
+     */
+    public void drained() {
+        List<Callback> callbacks;
+        synchronized (this) {
+            pendingBytes = 0;
+            callbacks = new ArrayList<>(waiting);
+            waiting.clear();
+        }
+        callbacks.forEach(Callback::succeeded);
+    }
+
+    /**
+     * Called when the connection is lost, fails the waiting callbacks so that Jetty aborts their responses
+     *
+     * @param cause reason of the failure
+     */
+    public void failed(Throwable cause) {
+        List<Callback> callbacks;
+        synchronized (this) {
+            pendingBytes = 0;
+            callbacks = new ArrayList<>(waiting);
+            waiting.clear();
+        }
+        callbacks.forEach(callback -> callback.failed(cause));
+    }
+
+    /**
+     * Returns the number of content bytes emitted since the transport drained its write buffer for the last time
+     */
+    public synchronized long getPendingBytes() {
+        return pendingBytes;
+    }
+
+    /**
+     * Returns the number of content chunks waiting for the transport to drain
+     */
+    public synchronized int getWaitingChunks() {
+        return waiting.size();
+    }
+}
@@ -0,0 +1,147 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.openhabcloud.internal;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * This class coalesces item updates before they are sent to the openHAB Cloud.
+ * Within a window only the latest state per item is kept, superseded states are dropped.
+ * At the end of the window all pending updates are sent at once.
+ * Updates are sent by one thread at a time, so that a state is never sent before an older state of the same item.
+ *
+ * @author Martin van Wingerden - Initial contribution
+ */
+public class ItemUpdateQueue {
+    private final Logger logger = LoggerFactory.getLogger(ItemUpdateQueue.class);
+
+    private final BiConsumer<String, String> sender;
+    private final ScheduledExecutorService scheduler;
+    private final long window;
+
+    /*
+     * The latest state per item, in the order the items were first updated within the window
+     */
+    private final Map<String, String> pending = new LinkedHashMap<>();
+    private ScheduledFuture<?> flushJob;
+    private long suppressedUpdates = 0;
+    private int maxQueueDepth = 0;
+
+    /*
+     * Held while sending, taken before the lock of the pending updates
+     */
+    private final Object sendLock = new Object();
+
+    /**
+     * Constructor of ItemUpdateQueue
+     *
+     * @param sender sends an update, gets the item name and the state
+     * @param scheduler the scheduler to send the pending updates on
+     * @param window the window in milliseconds. If 0, updates are sent right away.
+     */
+    public ItemUpdateQueue(BiConsumer<String, String> sender, ScheduledExecutorService scheduler, long window) {
+        this.sender = sender;
+        this.scheduler = scheduler;
+        this.window = window;
+    }
+
+    /**
+     * Queues an item update. A pending update of the same item is replaced.
+     *
+     * @param itemName the name of the item
+     * @param itemState updated item state
+     */
+    public void offer(String itemName, String itemState) {
+        if (window <= 0) {
+            synchronized (sendLock) {
+                sender.accept(itemName, itemState);
+            }
+            return;
+        }
+        synchronized (pending) {
+            if (pending.put(itemName, itemState) != null) {
+                suppressedUpdates++;
+            }
+            maxQueueDepth = Math.max(maxQueueDepth, pending.size());
+            if (flushJob == null) {
+                flushJob = scheduler.schedule(this::flush, window, TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    /**
+     * Sends all pending updates now
+     */
+    public void flush() {
+        synchronized (sendLock) {
+            Map<String, String> updates;
+            long suppressed;
+            synchronized (pending) {
+                if (flushJob != null) {
+                    flushJob.cancel(false);
+                    flushJob = null;
+                }
+                updates = new LinkedHashMap<>(pending);
+                pending.clear();
+                suppressed = suppressedUpdates;
+            }
+            if (!updates.isEmpty()) {
+                logger.debug("Sending {} item updates, {} updates suppressed so far", updates.size(), suppressed);
+            }
+            updates.forEach(sender);
+        }
+    }
+
+    /**
+     * Returns the number of items with a pending update
+     */
+    public int getQueueDepth() {
+        synchronized (pending) {
+            return pending.size();
+        }
+    }
+
+    /**
+     * Returns the maximum number of items that had a pending update at the same time
+     */
+    public int getMaxQueueDepth() {
+        synchronized (pending) {
+            return maxQueueDepth;
+        }
+    }
+
+    /**
+     * Returns the number of updates that have been dropped, because they were superseded by a newer state
+     */
+    public long getSuppressedUpdates() {
+        synchronized (pending) {
+            return suppressedUpdates;
+        }
+    }
+
+    @Override
+    public String toString() {
+        synchronized (pending) {
+            return String.format("{window: %d ms, queueDepth: %d, maxQueueDepth: %d, suppressedUpdates: %d}", window,
+                    pending.size(), maxQueueDepth, suppressedUpdates);
+        }
+    }
+}
@@ -0,0 +1,107 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.openhabcloud.internal;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.assertThat;
+
+import java.io.IOException;
+
+import org.eclipse.jetty.util.Callback;
+import org.junit.Test;
+
+/**
+ * Tests cases for {@link ContentFlowControl}.
+ *
+ * @author Martin van Wingerden - Initial contribution
+ */
+public class ContentFlowControlTest {
+
+    private static class RecordingCallback implements Callback {
+        private int succeeded;
+        private Throwable failure;
+
+        @Override
+        public void succeeded() {
+            succeeded++;
+        }
+
+        @Override
+        public void failed(Throwable x) {
+            failure = x;
+        }
+    }
+
+    private final ContentFlowControl flowControl = new ContentFlowControl(100);
+
+    @Test
+    public void contentWithinTheLimitIsConfirmedRightAway() {
+        RecordingCallback first = new RecordingCallback();
+        RecordingCallback second = new RecordingCallback();
+
+        flowControl.emitted(60, first);
+        flowControl.emitted(40, second);
+
+        assertThat(first.succeeded, is(1));
+        assertThat(second.succeeded, is(1));
+        assertThat(flowControl.getPendingBytes(), is(100L));
+        assertThat(flowControl.getWaitingChunks(), is(0));
+    }
+
+    @Test
+    public void contentBeyondTheLimitWaitsForTheTransportToDrain() {
+        RecordingCallback first = new RecordingCallback();
+        RecordingCallback second = new RecordingCallback();
+        RecordingCallback third = new RecordingCallback();
+
+        flowControl.emitted(80, first);
+        flowControl.emitted(80, second);
+        flowControl.emitted(10, third);
+        assertThat(first.succeeded, is(1));
+        assertThat(second.succeeded, is(0));
+        assertThat(third.succeeded, is(0));
+        assertThat(flowControl.getWaitingChunks(), is(2));
+
+        flowControl.drained();
+        assertThat(second.succeeded, is(1));
+        assertThat(third.succeeded, is(1));
+        assertThat(flowControl.getPendingBytes(), is(0L));
+        assertThat(flowControl.getWaitingChunks(), is(0));
+
+        // the limit applies again after the drain
+        RecordingCallback fourth = new RecordingCallback();
+        flowControl.emitted(50, fourth);
+        assertThat(fourth.succeeded, is(1));
+    }
+
+    @Test
+    public void waitingContentFailsWhenTheConnectionIsLost() {
+        RecordingCallback first = new RecordingCallback();
+        RecordingCallback second = new RecordingCallback();
+        IOException cause = new IOException("disconnected");
+
+        flowControl.emitted(100, first);
+        flowControl.emitted(1, second);
+        flowControl.failed(cause);
+
+        assertThat(first.succeeded, is(1));
+        assertThat(first.failure, is(nullValue()));
+        assertThat(second.succeeded, is(0));
+        assertThat(second.failure, is(sameInstance(cause)));
+        assertThat(flowControl.getPendingBytes(), is(0L));
+
+        // nothing is released twice
+        flowControl.drained();
+        assertThat(second.succeeded, is(0));
+    }
+}
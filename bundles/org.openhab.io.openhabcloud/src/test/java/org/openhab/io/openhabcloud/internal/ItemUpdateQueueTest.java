@@ -0,0 +1,121 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.openhabcloud.internal;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Test;
+
+/**
+ * Tests cases for {@link ItemUpdateQueue}.
+ *
+ * @author Martin van Wingerden - Initial contribution
+ */
+public class ItemUpdateQueueTest {
+
+    private final ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(2);
+    private final List<String> sent = Collections.synchronizedList(new ArrayList<>());
+
+    @After
+    public void tearDown() {
+        scheduler.shutdownNow();
+    }
+
+    @Test
+    public void onlyTheLatestStatePerItemIsSent() {
+        // the window is far beyond the test, updates are only sent by flush()
+        ItemUpdateQueue queue = new ItemUpdateQueue((name, state) -> sent.add(name + "=" + state), scheduler, 60000);
+
+        queue.offer("a", "1");
+        queue.offer("b", "1");
+        queue.offer("a", "2");
+        queue.offer("a", "3");
+        assertThat(sent.isEmpty(), is(true));
+        assertThat(queue.getQueueDepth(), is(2));
+
+        queue.flush();
+        assertThat(sent, is(Arrays.asList("a=3", "b=1")));
+        assertThat(queue.getQueueDepth(), is(0));
+        assertThat(queue.getMaxQueueDepth(), is(2));
+        assertThat(queue.getSuppressedUpdates(), is(2L));
+    }
+
+    @Test
+    public void updatesAreSentRightAwayWithoutWindow() {
+        ItemUpdateQueue queue = new ItemUpdateQueue((name, state) -> sent.add(name + "=" + state), scheduler, 0);
+
+        queue.offer("a", "1");
+        queue.offer("a", "2");
+        assertThat(sent, is(Arrays.asList("a=1", "a=2")));
+        assertThat(queue.getQueueDepth(), is(0));
+        assertThat(queue.getSuppressedUpdates(), is(0L));
+    }
+
+    @Test
+    public void pendingUpdatesAreSentAtTheEndOfTheWindow() throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(2);
+        ItemUpdateQueue queue = new ItemUpdateQueue((name, state) -> {
+            sent.add(name + "=" + state);
+            latch.countDown();
+        }, scheduler, 10);
+
+        queue.offer("a", "1");
+        queue.offer("b", "2");
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        assertThat(sent, is(Arrays.asList("a=1", "b=2")));
+
+        // nothing left to send
+        queue.flush();
+        assertThat(sent.size(), is(2));
+    }
+
+    @Test
+    public void flushWaitsForARunningFlush() throws InterruptedException {
+        CountDownLatch sending = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ItemUpdateQueue queue = new ItemUpdateQueue((name, state) -> {
+            if ("1".equals(state)) {
+                sending.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            sent.add(name + "=" + state);
+        }, scheduler, 10);
+
+        queue.offer("a", "1");
+        // the scheduled flush is now sending the first state
+        assertTrue(sending.await(5, TimeUnit.SECONDS));
+        queue.offer("a", "2");
+        Thread flush = new Thread(queue::flush);
+        flush.start();
+        flush.join(100);
+        release.countDown();
+        flush.join(5000);
+
+        assertThat(sent, is(Arrays.asList("a=1", "a=2")));
+    }
+}
@@ -14,8 +14,6 @@ package org.openhab.io.transport.modbus;
 
 import java.math.BigDecimal;
 import java.math.BigInteger;
-import java.nio.ByteBuffer;
-import java.nio.ByteOrder;
 import java.nio.charset.Charset;
 import java.util.Optional;
 
@@ -101,6 +99,29 @@ public class ModbusBitUtilities {
      */
     public static Optional<DecimalType> extractStateFromRegisters(ModbusRegisterArray registers, int index,
             ModbusConstants.ValueType type) {
+        return extractStateFromRawValue(extractRawValueFromRegisters(registers, index, type), type);
+    }
+
+    /**
+     * Read the raw bits of a value from registers
+     *
+     * The registers are read with primitive shifts, no intermediate buffers or {@link DecimalType} are allocated. The
+     * returned value can be compared with the value of a previous poll to find out whether the value has changed, and
+     * can be converted with {@link #extractStateFromRawValue(long, ModbusConstants.ValueType)}.
+     *
+     * Signed integer types are sign extended, unsigned integer types are zero extended. FLOAT32 and FLOAT32_SWAP
+     * return the IEEE 754 bits of the float (see {@link Float#intBitsToFloat(int)}). UINT64 and UINT64_SWAP return the
+     * 64 bits as is, values larger than {@link Long#MAX_VALUE} are negative.
+     *
+     * @param registers list of registers, each register represent 16bit of data
+     * @param index zero based item index, interpreted as in
+     *            {@link #extractStateFromRegisters(ModbusRegisterArray, int, ModbusConstants.ValueType)}
+     * @param type item type, e.g. unsigned 16bit integer (<tt>ModbusBindingProvider.ValueType.UINT16</tt>)
+     * @return raw bits of the value
+     * @throws IllegalArgumentException when <tt>index</tt> is out of bounds of registers
+     */
+    public static long extractRawValueFromRegisters(ModbusRegisterArray registers, int index,
+            ModbusConstants.ValueType type) {
         int endBitIndex = (type.getBits() >= 16 ? 16 * index : type.getBits() * index) + type.getBits() - 1;
         // each register has 16 bits
         int lastValidIndex = registers.size() * 16 - 1;
@@ -111,107 +132,84 @@ public class ModbusBitUtilities {
         }
         switch (type) {
             case BIT:
-                return Optional
-                        .of(new DecimalType((registers.getRegister(index / 16).toUnsignedShort() >> (index % 16)) & 1));
+                return (registers.getUnsignedShort(index / 16) >> (index % 16)) & 1;
             case INT8:
-                return Optional.of(new DecimalType(registers.getRegister(index / 2).getBytes()[1 - (index % 2)]));
+                return (byte) (registers.getUnsignedShort(index / 2) >> (8 * (index % 2)));
             case UINT8:
-                return Optional.of(new DecimalType(
-                        (registers.getRegister(index / 2).toUnsignedShort() >> (8 * (index % 2))) & 0xff));
-            case INT16: {
-                ByteBuffer buff = ByteBuffer.allocate(2);
-                buff.put(registers.getRegister(index).getBytes());
-                return Optional.of(new DecimalType(buff.order(ByteOrder.BIG_ENDIAN).getShort(0)));
-            }
+                return (registers.getUnsignedShort(index / 2) >> (8 * (index % 2))) & 0xff;
+            case INT16:
+                return (short) registers.getUnsignedShort(index);
             case UINT16:
-                return Optional.of(new DecimalType(registers.getRegister(index).toUnsignedShort()));
-            case INT32: {
-                ByteBuffer buff = ByteBuffer.allocate(4);
-                buff.put(registers.getRegister(index).getBytes());
-                buff.put(registers.getRegister(index + 1).getBytes());
-                return Optional.of(new DecimalType(buff.order(ByteOrder.BIG_ENDIAN).getInt(0)));
-            }
-            case UINT32: {
-                ByteBuffer buff = ByteBuffer.allocate(8);
-                buff.position(4);
-                buff.put(registers.getRegister(index).getBytes());
-                buff.put(registers.getRegister(index + 1).getBytes());
-                return Optional.of(new DecimalType(buff.order(ByteOrder.BIG_ENDIAN).getLong(0)));
-            }
-            case FLOAT32: {
-                ByteBuffer buff = ByteBuffer.allocate(4);
-                buff.put(registers.getRegister(index).getBytes());
-                buff.put(registers.getRegister(index + 1).getBytes());
-                try {
-                    return Optional.of(new DecimalType(buff.order(ByteOrder.BIG_ENDIAN).getFloat(0)));
-                } catch (NumberFormatException e) {
-                    // floating point NaN or infinity encountered
-                    return Optional.empty();
-                }
-            }
-            case INT64: {
-                ByteBuffer buff = ByteBuffer.allocate(8);
-                buff.put(registers.getRegister(index).getBytes());
-                buff.put(registers.getRegister(index + 1).getBytes());
-                buff.put(registers.getRegister(index + 2).getBytes());
-                buff.put(registers.getRegister(index + 3).getBytes());
-                return Optional.of(new DecimalType(buff.order(ByteOrder.BIG_ENDIAN).getLong(0)));
-            }
-            case UINT64: {
-                ByteBuffer buff = ByteBuffer.allocate(8);
-                buff.put(registers.getRegister(index).getBytes());
-                buff.put(registers.getRegister(index + 1).getBytes());
-                buff.put(registers.getRegister(index + 2).getBytes());
-                buff.put(registers.getRegister(index + 3).getBytes());
-                return Optional.of(
-                        new DecimalType(new BigDecimal(new BigInteger(1, buff.order(ByteOrder.BIG_ENDIAN).array()))));
-            }
-            case INT32_SWAP: {
-                ByteBuffer buff = ByteBuffer.allocate(4);
-                buff.put(registers.getRegister(index + 1).getBytes());
-                buff.put(registers.getRegister(index).getBytes());
-                return Optional.of(new DecimalType(buff.order(ByteOrder.BIG_ENDIAN).getInt(0)));
-            }
-            case UINT32_SWAP: {
-                ByteBuffer buff = ByteBuffer.allocate(8);
-                buff.position(4);
-                buff.put(registers.getRegister(index + 1).getBytes());
-                buff.put(registers.getRegister(index).getBytes());
-                return Optional.of(new DecimalType(buff.order(ByteOrder.BIG_ENDIAN).getLong(0)));
-            }
+                return registers.getUnsignedShort(index);
+            case INT32:
+            case FLOAT32:
+                return read32(registers, index, index + 1);
+            case UINT32:
+                return read32(registers, index, index + 1) & 0xffffffffL;
+            case INT64:
+            case UINT64:
+                return read64(registers, index, index + 1, index + 2, index + 3);
+            case INT32_SWAP:
+            case FLOAT32_SWAP:
+                return read32(registers, index + 1, index);
+            case UINT32_SWAP:
+                return read32(registers, index + 1, index) & 0xffffffffL;
+            case INT64_SWAP:
+            case UINT64_SWAP:
+                return read64(registers, index + 3, index + 2, index + 1, index);
+            default:
+                throw new IllegalArgumentException(type.getConfigValue());
+        }
+    }
+
+    /**
+     * Convert raw bits read with
+     * {@link #extractRawValueFromRegisters(ModbusRegisterArray, int, ModbusConstants.ValueType)} to DecimalType
+     *
+     * @param rawValue raw bits of the value
+     * @param type item type the raw value was read with
+     * @return number representation of the value, <tt>DecimalType</tt>. Empty optional is returned
+     *         with NaN and infinity floating point values
+     */
+    public static Optional<DecimalType> extractStateFromRawValue(long rawValue, ModbusConstants.ValueType type) {
+        switch (type) {
+            case FLOAT32:
             case FLOAT32_SWAP: {
-                ByteBuffer buff = ByteBuffer.allocate(4);
-                buff.put(registers.getRegister(index + 1).getBytes());
-                buff.put(registers.getRegister(index).getBytes());
-                try {
-                    return Optional.of(new DecimalType(buff.order(ByteOrder.BIG_ENDIAN).getFloat(0)));
-                } catch (NumberFormatException e) {
+                float value = Float.intBitsToFloat((int) rawValue);
+                if (Float.isNaN(value) || Float.isInfinite(value)) {
                     // floating point NaN or infinity encountered
                     return Optional.empty();
                 }
+                return Optional.of(new DecimalType(value));
             }
-            case INT64_SWAP: {
-                ByteBuffer buff = ByteBuffer.allocate(8);
-                buff.put(registers.getRegister(index + 3).getBytes());
-                buff.put(registers.getRegister(index + 2).getBytes());
-                buff.put(registers.getRegister(index + 1).getBytes());
-                buff.put(registers.getRegister(index).getBytes());
-                return Optional.of(new DecimalType(buff.order(ByteOrder.BIG_ENDIAN).getLong(0)));
-            }
-            case UINT64_SWAP: {
-                ByteBuffer buff = ByteBuffer.allocate(8);
-                buff.put(registers.getRegister(index + 3).getBytes());
-                buff.put(registers.getRegister(index + 2).getBytes());
-                buff.put(registers.getRegister(index + 1).getBytes());
-                buff.put(registers.getRegister(index).getBytes());
-                return Optional.of(
-                        new DecimalType(new BigDecimal(new BigInteger(1, buff.order(ByteOrder.BIG_ENDIAN).array()))));
-            }
+            case UINT64:
+            case UINT64_SWAP:
+                if (rawValue < 0) {
+                    // does not fit into a signed long
+                    return Optional
+                            .of(new DecimalType(new BigDecimal(new BigInteger(Long.toUnsignedString(rawValue)))));
+                }
+                return Optional.of(new DecimalType(rawValue));
             default:
-                throw new IllegalArgumentException(type.getConfigValue());
+                return Optional.of(new DecimalType(rawValue));
         }
     }
 
+    /**
+     * Read 32 bits from two registers, most significant register first
+     */
+    private static int read32(ModbusRegisterArray registers, int high, int low) {
+        return (registers.getUnsignedShort(high) << 16) | registers.getUnsignedShort(low);
+    }
+
+    /**
+     * Read 64 bits from four registers, most significant register first
+     */
+    private static long read64(ModbusRegisterArray registers, int first, int second, int third, int fourth) {
+        return ((long) registers.getUnsignedShort(first) << 48) | ((long) registers.getUnsignedShort(second) << 32)
+                | ((long) registers.getUnsignedShort(third) << 16) | registers.getUnsignedShort(fourth);
+    }
+
     /**
      * Read data from registers and convert the result to StringType
      * Strings should start the the first byte of a register, but could
@@ -29,6 +29,11 @@ public class AggregateStopWatch {
      */
     final String operationId;
 
+    /**
+     * Time waiting in the queue of the endpoint before execution
+     */
+    final SimpleStopWatch queue = new SimpleStopWatch();
+
     /**
      * Total operation time
      */
@@ -57,7 +62,7 @@ public class AggregateStopWatch {
      * Suspend all running stopwatches of this aggregate
      */
     public void suspendAllRunning() {
-        for (SimpleStopWatch watch : new SimpleStopWatch[] { total, connection, transaction, callback }) {
+        for (SimpleStopWatch watch : new SimpleStopWatch[] { queue, total, connection, transaction, callback }) {
             if (watch.isRunning()) {
                 watch.suspend();
             }
@@ -66,7 +71,8 @@ public class AggregateStopWatch {
 
     @Override
     public String toString() {
-        return String.format("{total: %d ms, connection: %d, transaction=%d, callback=%d}", total.getTotalTimeMillis(),
-                connection.getTotalTimeMillis(), transaction.getTotalTimeMillis(), callback.getTotalTimeMillis());
+        return String.format("{queue: %d ms, total: %d ms, connection: %d, transaction=%d, callback=%d}",
+                queue.getTotalTimeMillis(), total.getTotalTimeMillis(), connection.getTotalTimeMillis(),
+                transaction.getTotalTimeMillis(), callback.getTotalTimeMillis());
     }
 }
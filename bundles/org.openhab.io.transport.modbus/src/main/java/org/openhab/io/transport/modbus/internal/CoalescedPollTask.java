@@ -0,0 +1,326 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.transport.modbus.internal;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import org.apache.commons.lang.builder.StandardToStringStyle;
+import org.apache.commons.lang.builder.ToStringBuilder;
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.io.transport.modbus.BasicModbusReadRequestBlueprint;
+import org.openhab.io.transport.modbus.BitArray;
+import org.openhab.io.transport.modbus.ModbusReadCallback;
+import org.openhab.io.transport.modbus.ModbusReadFunctionCode;
+import org.openhab.io.transport.modbus.ModbusReadRequestBlueprint;
+import org.openhab.io.transport.modbus.ModbusRegister;
+import org.openhab.io.transport.modbus.ModbusRegisterArray;
+import org.openhab.io.transport.modbus.PollTask;
+import org.openhab.io.transport.modbus.endpoint.ModbusSlaveEndpoint;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Poll task reading the combined data of several poll tasks with a single request
+ *
+ * The poll tasks must share the endpoint, unit id and function code. The response is split up again and passed to
+ * the callbacks of the original poll tasks, together with their original request.
+ *
+ * @author Martin van Wingerden - Initial contribution
+ */
+@NonNullByDefault
+public class CoalescedPollTask implements PollTask, ModbusReadCallback {
+
+    /**
+     * Maximum number of registers in a single read request, as defined by the Modbus specification
+     */
+    public static final int MAX_REGISTERS_PER_READ = 125;
+
+    /**
+     * Maximum number of coils or discrete inputs in a single read request, as defined by the Modbus specification
+     */
+    public static final int MAX_BITS_PER_READ = 2000;
+
+    private static StandardToStringStyle toStringStyle = new StandardToStringStyle();
+    static {
+        toStringStyle.setUseShortClassName(true);
+    }
+
+    private final Logger logger = LoggerFactory.getLogger(CoalescedPollTask.class);
+
+    private final ModbusSlaveEndpoint endpoint;
+    private final BasicModbusReadRequestBlueprint request;
+    private final List<PollTask> tasks;
+
+    private CoalescedPollTask(ModbusSlaveEndpoint endpoint, BasicModbusReadRequestBlueprint request,
+            List<PollTask> tasks) {
+        this.endpoint = endpoint;
+        this.request = request;
+        this.tasks = Collections.unmodifiableList(tasks);
+    }
+
+    /**
+     * Combine poll tasks to as few requests as possible
+     *
+     * Poll tasks are combined if they have the same endpoint, unit id and function code, and the data between them
+     * is at most <code>maxGap</code> registers (or bits with coils and discrete inputs). The data read with the
+     * combined request never exceeds the limits of a single Modbus request.
+     *
+     * @param tasks poll tasks to combine
+     * @param maxGap maximum number of unused registers (or bits) that may be read in order to combine two poll tasks.
+     *            Negative value disables combining, 0 combines only adjacent or overlapping poll tasks.
+     * @return combined poll tasks. Every given poll task is part of exactly one of them.
+     */
+    public static List<CoalescedPollTask> coalesce(Collection<PollTask> tasks, int maxGap) {
+        Map<List<Object>, List<PollTask>> compatible = new LinkedHashMap<>();
+        for (PollTask task : tasks) {
+            ModbusReadRequestBlueprint request = task.getRequest();
+            List<Object> key = Arrays.asList(task.getEndpoint(), request.getUnitID(), request.getFunctionCode());
+            compatible.computeIfAbsent(key, k -> new ArrayList<>()).add(task);
+        }
+
+        List<CoalescedPollTask> coalesced = new ArrayList<>();
+        for (List<PollTask> group : compatible.values()) {
+            group.sort(Comparator.comparingInt((PollTask task) -> task.getRequest().getReference())
+                    .thenComparingInt(task -> task.getRequest().getDataLength()));
+            List<PollTask> members = new ArrayList<>();
+            int start = 0;
+            int end = 0;
+            for (PollTask task : group) {
+                ModbusReadRequestBlueprint request = task.getRequest();
+                int taskStart = request.getReference();
+                int taskEnd = taskStart + request.getDataLength();
+                if (!members.isEmpty() && maxGap >= 0 && taskStart - end <= maxGap
+                        && Math.max(end, taskEnd) - start <= maxLength(request.getFunctionCode())) {
+                    end = Math.max(end, taskEnd);
+                } else {
+                    if (!members.isEmpty()) {
+                        coalesced.add(create(members, start, end));
+                    }
+                    members = new ArrayList<>();
+                    start = taskStart;
+                    end = taskEnd;
+                }
+                members.add(task);
+            }
+            if (!members.isEmpty()) {
+                coalesced.add(create(members, start, end));
+            }
+        }
+        return coalesced;
+    }
+
+    private static CoalescedPollTask create(List<PollTask> members, int start, int end) {
+        PollTask first = members.get(0);
+        ModbusReadRequestBlueprint firstRequest = first.getRequest();
+        int maxTries = members.stream().mapToInt(PollTask::getMaxTries).max().orElse(1);
+        BasicModbusReadRequestBlueprint request = new BasicModbusReadRequestBlueprint(firstRequest.getUnitID(),
+                firstRequest.getFunctionCode(), start, end - start, maxTries);
+        return new CoalescedPollTask(first.getEndpoint(), request, members);
+    }
+
+    private static int maxLength(ModbusReadFunctionCode functionCode) {
+        switch (functionCode) {
+            case READ_COILS:
+            case READ_INPUT_DISCRETES:
+                return MAX_BITS_PER_READ;
+            default:
+                return MAX_REGISTERS_PER_READ;
+        }
+    }
+
+    /**
+     * @return the poll tasks whose data is read by this poll task
+     */
+    public List<PollTask> getTasks() {
+        return tasks;
+    }
+
+    @Override
+    public ModbusReadRequestBlueprint getRequest() {
+        return request;
+    }
+
+    @Override
+    public ModbusSlaveEndpoint getEndpoint() {
+        return endpoint;
+    }
+
+    @Override
+    public @Nullable ModbusReadCallback getCallback() {
+        return this;
+    }
+
+    @Override
+    public void onRegisters(ModbusReadRequestBlueprint request, ModbusRegisterArray registers) {
+        for (PollTask task : tasks) {
+            ModbusReadCallback callback = task.getCallback();
+            if (callback == null) {
+                continue;
+            }
+            ModbusReadRequestBlueprint taskRequest = task.getRequest();
+            int offset = taskRequest.getReference() - this.request.getReference();
+            int length = Math.max(0, Math.min(taskRequest.getDataLength(), registers.size() - offset));
+            try {
+                callback.onRegisters(taskRequest, new RegisterArraySlice(registers, offset, length));
+            } catch (RuntimeException e) {
+                logger.error("Callback of poll task {} failed: {}", task, e.getMessage(), e);
+            }
+        }
+    }
+
+    @Override
+    public void onBits(ModbusReadRequestBlueprint request, BitArray bits) {
+        for (PollTask task : tasks) {
+            ModbusReadCallback callback = task.getCallback();
+            if (callback == null) {
+                continue;
+            }
+            ModbusReadRequestBlueprint taskRequest = task.getRequest();
+            int offset = taskRequest.getReference() - this.request.getReference();
+            int length = Math.max(0, Math.min(taskRequest.getDataLength(), bits.size() - offset));
+            try {
+                callback.onBits(taskRequest, new BitArraySlice(bits, offset, length));
+            } catch (RuntimeException e) {
+                logger.error("Callback of poll task {} failed: {}", task, e.getMessage(), e);
+            }
+        }
+    }
+
+    @Override
+    public void onError(ModbusReadRequestBlueprint request, Exception error) {
+        for (PollTask task : tasks) {
+            ModbusReadCallback callback = task.getCallback();
+            if (callback == null) {
+                continue;
+            }
+            try {
+                callback.onError(task.getRequest(), error);
+            } catch (RuntimeException e) {
+                logger.error("Callback of poll task {} failed: {}", task, e.getMessage(), e);
+            }
+        }
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(request, endpoint, tasks);
+    }
+
+    @Override
+    public boolean equals(@Nullable Object obj) {
+        if (obj == this) {
+            return true;
+        }
+        if (obj == null || obj.getClass() != getClass()) {
+            return false;
+        }
+        CoalescedPollTask rhs = (CoalescedPollTask) obj;
+        return request.equals(rhs.request) && endpoint.equals(rhs.endpoint) && tasks.equals(rhs.tasks);
+    }
+
+    @Override
+    public String toString() {
+        return new ToStringBuilder(this, toStringStyle).append("request", request).append("endpoint", endpoint)
+                .append("tasks", tasks.size()).toString();
+    }
+
+    /**
+     * View to a part of a {@link ModbusRegisterArray}
+     */
+    private static class RegisterArraySlice implements ModbusRegisterArray {
+
+        private final ModbusRegisterArray registers;
+        private final int offset;
+        private final int length;
+
+        RegisterArraySlice(ModbusRegisterArray registers, int offset, int length) {
+            this.registers = registers;
+            this.offset = offset;
+            this.length = length;
+        }
+
+        @Override
+        public ModbusRegister getRegister(int index) {
+            checkIndex(index, length);
+            return registers.getRegister(offset + index);
+        }
+
+        @Override
+        public int getUnsignedShort(int index) {
+            checkIndex(index, length);
+            return registers.getUnsignedShort(offset + index);
+        }
+
+        @Override
+        public int size() {
+            return length;
+        }
+
+        @Override
+        public String toString() {
+            if (length == 0) {
+                return "RegisterArraySlice(<empty>)";
+            }
+            StringBuffer buffer = new StringBuffer(length * 2).append("RegisterArraySlice(");
+            return appendHexString(buffer).append(')').toString();
+        }
+    }
+
+    /**
+     * View to a part of a {@link BitArray}
+     */
+    private static class BitArraySlice implements BitArray {
+
+        private final BitArray bits;
+        private final int offset;
+        private final int length;
+
+        BitArraySlice(BitArray bits, int offset, int length) {
+            this.bits = bits;
+            this.offset = offset;
+            this.length = length;
+        }
+
+        @Override
+        public boolean getBit(int index) {
+            checkIndex(index, length);
+            return bits.getBit(offset + index);
+        }
+
+        @Override
+        public int size() {
+            return length;
+        }
+
+        @Override
+        public String toString() {
+            return new StringBuilder(length + 15).append("BitArraySlice(").append(toBinaryString()).append(')')
+                    .toString();
+        }
+    }
+
+    private static void checkIndex(int index, int length) {
+        if (index < 0 || index >= length) {
+            throw new IndexOutOfBoundsException(String.format("Index %d out of bounds, size %d", index, length));
+        }
+    }
+}
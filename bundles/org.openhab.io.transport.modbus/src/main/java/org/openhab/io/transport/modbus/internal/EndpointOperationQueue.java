@@ -0,0 +1,327 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.transport.modbus.internal;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.smarthome.core.common.ThreadPoolManager;
+import org.openhab.io.transport.modbus.endpoint.ModbusSerialSlaveEndpoint;
+import org.openhab.io.transport.modbus.endpoint.ModbusSlaveEndpoint;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Queue of the operations of a single endpoint
+ *
+ * Operations are executed one at a time, writes before polls and otherwise in submission order. Serial endpoints are
+ * drained by a separate thread pool, so that a slow serial bus cannot hold up the threads shared by the other
+ * endpoints.
+ *
+ * @author Martin van Wingerden - Initial contribution
+ */
+@NonNullByDefault
+public class EndpointOperationQueue {
+
+    /**
+     * Thread naming for draining the queues of serial endpoints
+     */
+    public static final String SERIAL_THREAD_POOL_NAME = "modbusManagerSerialThreadPool";
+
+    /**
+     * Priority of an operation, operations with lower ordinal are executed first
+     */
+    public enum Priority {
+        WRITE,
+        POLL
+    }
+
+    private static class QueuedOperation implements Comparable<QueuedOperation> {
+        private final Priority priority;
+        private final long sequence;
+        private final @Nullable Object key;
+        private final AggregateStopWatch timer;
+        private final Consumer<AggregateStopWatch> operation;
+        private final @Nullable OperationFuture future;
+
+        private QueuedOperation(Priority priority, long sequence, @Nullable Object key, AggregateStopWatch timer,
+                Consumer<AggregateStopWatch> operation, @Nullable OperationFuture future) {
+            this.priority = priority;
+            this.sequence = sequence;
+            this.key = key;
+            this.timer = timer;
+            this.operation = operation;
+            this.future = future;
+        }
+
+        @Override
+        public int compareTo(QueuedOperation other) {
+            int result = priority.compareTo(other.priority);
+            return result != 0 ? result : Long.compare(sequence, other.sequence);
+        }
+    }
+
+    /**
+     * Future of a one-off operation. The future is done once the operation has been executed, cancelling the future
+     * removes the operation from the queue.
+     */
+    private class OperationFuture extends FutureTask<@Nullable Void> implements ScheduledFuture<@Nullable Void> {
+
+        private OperationFuture(Runnable operation) {
+            super(operation, null);
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            boolean cancelled = super.cancel(mayInterruptIfRunning);
+            if (cancelled && queue.removeIf(queued -> queued.future == this)) {
+                logger.debug("Cancelled operation removed from the queue of endpoint {}", endpoint);
+            }
+            return cancelled;
+        }
+
+        @Override
+        protected void setException(@Nullable Throwable t) {
+            logger.error("Unexpected error executing operation for endpoint {}", endpoint, t);
+            super.setException(t);
+        }
+
+        @Override
+        public long getDelay(@Nullable TimeUnit unit) {
+            return 0;
+        }
+
+        @Override
+        public int compareTo(@Nullable Delayed other) {
+            return other == null ? 1 : Long.compare(0, other.getDelay(TimeUnit.MILLISECONDS));
+        }
+    }
+
+    private final Logger logger = LoggerFactory.getLogger(EndpointOperationQueue.class);
+
+    private final ModbusSlaveEndpoint endpoint;
+    private final Executor executor;
+
+    private final PriorityBlockingQueue<QueuedOperation> queue = new PriorityBlockingQueue<>();
+    private final Set<Object> pendingKeys = ConcurrentHashMap.newKeySet();
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private volatile boolean shutdown;
+
+    private final AtomicLong maxQueueDepth = new AtomicLong();
+    private final AtomicLong skippedOperations = new AtomicLong();
+    private final AtomicLong[] executedOperations = { new AtomicLong(), new AtomicLong() };
+    private final AtomicLong[] totalWaitMillis = { new AtomicLong(), new AtomicLong() };
+    private final AtomicLong[] maxWaitMillis = { new AtomicLong(), new AtomicLong() };
+
+    /**
+     * @param endpoint the endpoint of the operations
+     * @param sharedExecutor executor used with other than serial endpoints, serial endpoints use the thread pool
+     *            {@value #SERIAL_THREAD_POOL_NAME}
+     */
+    public EndpointOperationQueue(ModbusSlaveEndpoint endpoint, Executor sharedExecutor) {
+        this.endpoint = endpoint;
+        this.executor = endpoint instanceof ModbusSerialSlaveEndpoint
+                ? ThreadPoolManager.getPool(SERIAL_THREAD_POOL_NAME)
+                : sharedExecutor;
+    }
+
+    /**
+     * Queue operation for execution
+     *
+     * @param priority priority of the operation
+     * @param key identifies the operation, an operation is not queued again while an operation with the same key is
+     *            queued or executing. Use null to always queue the operation.
+     * @param operation the operation, receives the timer used to time the operation
+     * @return whether the operation was queued
+     */
+    public boolean submit(Priority priority, @Nullable Object key, Consumer<AggregateStopWatch> operation) {
+        if (shutdown) {
+            return false;
+        }
+        if (key != null && !pendingKeys.add(key)) {
+            skippedOperations.incrementAndGet();
+            logger.debug("Previous operation {} for endpoint {} has not finished yet, skipping", key, endpoint);
+            return false;
+        }
+        add(priority, key, new AggregateStopWatch(), operation, null);
+        return true;
+    }
+
+    /**
+     * Queue one-off operation for execution
+     *
+     * @param priority priority of the operation
+     * @param operation the operation, receives the timer used to time the operation
+     * @return future which is done once the operation has been executed. Cancelling the future removes the operation
+     *         from the queue. The future is cancelled already when the queue has been shut down.
+     */
+    public ScheduledFuture<?> submitOneTime(Priority priority, Consumer<AggregateStopWatch> operation) {
+        AggregateStopWatch timer = new AggregateStopWatch();
+        OperationFuture future = new OperationFuture(() -> operation.accept(timer));
+        if (shutdown) {
+            future.cancel(false);
+            return future;
+        }
+        add(priority, null, timer, operation, future);
+        if (shutdown) {
+            // shut down while the operation was being queued
+            future.cancel(false);
+        }
+        return future;
+    }
+
+    private void add(Priority priority, @Nullable Object key, AggregateStopWatch timer,
+            Consumer<AggregateStopWatch> operation, @Nullable OperationFuture future) {
+        timer.queue.resume();
+        queue.add(new QueuedOperation(priority, sequence.incrementAndGet(), key, timer, operation, future));
+        maxQueueDepth.accumulateAndGet(queue.size(), Math::max);
+        scheduleDrain();
+    }
+
+    private void scheduleDrain() {
+        if (!queue.isEmpty() && draining.compareAndSet(false, true)) {
+            try {
+                executor.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                draining.set(false);
+                logger.warn("Could not execute queued operations of endpoint {}: {}", endpoint, e.getMessage());
+            }
+        }
+    }
+
+    private void drain() {
+        try {
+            QueuedOperation queued;
+            while (!shutdown && (queued = queue.poll()) != null) {
+                execute(queued);
+            }
+        } finally {
+            draining.set(false);
+        }
+        // operation might have been added after the last poll but before the flag was reset
+        if (!shutdown) {
+            scheduleDrain();
+        }
+    }
+
+    private void execute(QueuedOperation queued) {
+        AggregateStopWatch timer = queued.timer;
+        timer.queue.suspend();
+        long waited = timer.queue.getTotalTimeMillis();
+        int priority = queued.priority.ordinal();
+        executedOperations[priority].incrementAndGet();
+        totalWaitMillis[priority].addAndGet(waited);
+        maxWaitMillis[priority].accumulateAndGet(waited, Math::max);
+        try {
+            OperationFuture future = queued.future;
+            if (future == null) {
+                queued.operation.accept(timer);
+            } else {
+                // does nothing in case the future was cancelled after the operation was taken from the queue
+                future.run();
+            }
+        } catch (RuntimeException e) {
+            logger.error("Unexpected error executing operation for endpoint {}", endpoint, e);
+        } finally {
+            Object key = queued.key;
+            if (key != null) {
+                pendingKeys.remove(key);
+            }
+        }
+    }
+
+    /**
+     * Discard the queued operations. The futures of discarded one-off operations are cancelled. An executing operation
+     * is finished, after that the queue no longer uses its executor.
+     */
+    public void shutdown() {
+        shutdown = true;
+        List<QueuedOperation> discarded = new ArrayList<>();
+        queue.drainTo(discarded);
+        pendingKeys.clear();
+        for (QueuedOperation queued : discarded) {
+            OperationFuture future = queued.future;
+            if (future != null) {
+                future.cancel(false);
+            }
+        }
+    }
+
+    /**
+     * @return number of operations waiting for execution
+     */
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    /**
+     * @return maximum number of operations that have been waiting for execution at the same time
+     */
+    public long getMaxQueueDepth() {
+        return maxQueueDepth.get();
+    }
+
+    /**
+     * @return number of regular operations not queued because the previous one had not finished yet
+     */
+    public long getSkippedOperations() {
+        return skippedOperations.get();
+    }
+
+    /**
+     * @return number of executed operations with the given priority
+     */
+    public long getExecutedOperations(Priority priority) {
+        return executedOperations[priority.ordinal()].get();
+    }
+
+    /**
+     * @return average time in milliseconds operations with the given priority waited in the queue
+     */
+    public long getAverageWaitMillis(Priority priority) {
+        long count = executedOperations[priority.ordinal()].get();
+        return count == 0 ? 0 : totalWaitMillis[priority.ordinal()].get() / count;
+    }
+
+    /**
+     * @return maximum time in milliseconds an operation with the given priority waited in the queue
+     */
+    public long getMaxWaitMillis(Priority priority) {
+        return maxWaitMillis[priority.ordinal()].get();
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+                "{endpoint: %s, queueDepth: %d, maxQueueDepth: %d, skipped: %d, writes: %d (avg wait %d ms, max %d ms), polls: %d (avg wait %d ms, max %d ms)}",
+                endpoint, getQueueDepth(), getMaxQueueDepth(), getSkippedOperations(),
+                getExecutedOperations(Priority.WRITE), getAverageWaitMillis(Priority.WRITE),
+                getMaxWaitMillis(Priority.WRITE), getExecutedOperations(Priority.POLL),
+                getAverageWaitMillis(Priority.POLL), getMaxWaitMillis(Priority.POLL));
+    }
+}
@@ -13,7 +13,12 @@
 package org.openhab.io.transport.modbus.internal;
 
 import java.io.IOException;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
@@ -25,6 +30,7 @@ import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
 
 import javax.imageio.IIOException;
 
@@ -34,6 +40,7 @@ import org.apache.commons.pool2.impl.GenericKeyedObjectPool;
 import org.eclipse.jdt.annotation.NonNull;
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.smarthome.config.core.ConfigurableService;
 import org.eclipse.smarthome.core.common.ThreadPoolManager;
 import org.openhab.io.transport.modbus.ModbusCallback;
 import org.openhab.io.transport.modbus.ModbusConnectionException;
@@ -54,7 +61,9 @@ import org.openhab.io.transport.modbus.endpoint.ModbusSlaveEndpoint;
 import org.openhab.io.transport.modbus.endpoint.ModbusSlaveEndpointVisitor;
 import org.openhab.io.transport.modbus.endpoint.ModbusTCPSlaveEndpoint;
 import org.openhab.io.transport.modbus.endpoint.ModbusUDPSlaveEndpoint;
+import org.openhab.io.transport.modbus.internal.EndpointOperationQueue.Priority;
 import org.openhab.io.transport.modbus.internal.pooling.ModbusSlaveConnectionFactoryImpl;
+import org.osgi.framework.Constants;
 import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
 import org.osgi.service.component.annotations.Deactivate;
@@ -77,9 +86,16 @@ import net.wimpi.modbus.net.ModbusSlaveConnection;
  * important with serial slaves but practice has shown that even many tcp slaves have limited
  * capability to handle many connections at the same time
  *
+ * Operations are executed through a queue per endpoint (see {@link EndpointOperationQueue}), so that a slow endpoint
+ * does not occupy the threads needed by other endpoints, and writes are executed before polls that are still waiting.
+ *
  * @author Sami Salonen - Initial contribution
  */
-@Component(service = ModbusManager.class, immediate = true, configurationPid = "transport.modbus")
+@Component(service = ModbusManager.class, immediate = true, configurationPid = "transport.modbus", property = {
+        Constants.SERVICE_PID + "=transport.modbus",
+        ConfigurableService.SERVICE_PROPERTY_DESCRIPTION_URI + "=io:modbus",
+        ConfigurableService.SERVICE_PROPERTY_CATEGORY + "=io",
+        ConfigurableService.SERVICE_PROPERTY_LABEL + "=Modbus Transport" })
 @NonNullByDefault
 public class ModbusManagerImpl implements ModbusManager {
 
@@ -206,6 +222,19 @@ public class ModbusManagerImpl implements ModbusManager {
         }
     }
 
+    /**
+     * Regular polls sharing endpoint, unit id, function code and poll period. The polls are executed with a single
+     * schedule, using as few requests as possible.
+     *
+     * @author Martin van Wingerden - Initial contribution
+     */
+    private static class PollGroup {
+        private final Set<PollTask> tasks = new LinkedHashSet<>();
+        private volatile List<CoalescedPollTask> coalescedTasks = Collections.emptyList();
+        @Nullable
+        private volatile ScheduledFuture<?> future;
+    }
+
     private final Logger logger = LoggerFactory.getLogger(ModbusManagerImpl.class);
     private final Logger pollMonitorLogger = LoggerFactory
             .getLogger(ModbusManagerImpl.class.getName() + ".PollMonitor");
@@ -249,6 +278,20 @@ public class ModbusManagerImpl implements ModbusManager {
     private static final long WARN_QUEUE_SIZE = 500;
     private static final long MONITOR_QUEUE_INTERVAL_MILLIS = 10000;
 
+    /**
+     * Configuration parameter for combining regular polls of the same slave to fewer requests. Only polls with the same
+     * endpoint, unit id, function code and poll period are combined.
+     */
+    static final String CONFIG_COALESCE_POLLS = "coalescePolls";
+
+    /**
+     * Configuration parameter for the maximum number of unused registers (or coils and discrete inputs) that may be
+     * read in order to combine two polls. 0 combines only adjacent or overlapping polls.
+     *
+     * Note that some slaves respond with an error when unused registers are read.
+     */
+    static final String CONFIG_COALESCE_POLLS_MAX_GAP = "coalescePollsMaxGap";
+
     private final PollOperation pollOperation = new PollOperation();
     private final WriteOperation writeOperation = new WriteOperation();
 
@@ -268,6 +311,16 @@ public class ModbusManagerImpl implements ModbusManager {
     @Nullable
     private volatile ModbusSlaveConnectionFactoryImpl connectionFactory;
     private volatile Map<PollTask, ScheduledFuture<?>> scheduledPollTasks = new ConcurrentHashMap<>();
+    /**
+     * Groups of regular polls executed together, only used when polls are coalesced
+     */
+    private final Map<List<Object>, PollGroup> pollGroups = new ConcurrentHashMap<>();
+    /**
+     * Operations waiting for execution, per endpoint
+     */
+    private final Map<ModbusSlaveEndpoint, EndpointOperationQueue> endpointQueues = new ConcurrentHashMap<>();
+    private volatile boolean coalescePolls;
+    private volatile int coalescePollsMaxGap;
     /**
      * Executor for requests
      */
@@ -468,7 +521,13 @@ public class ModbusManagerImpl implements ModbusManager {
     }
 
     private void verifyTaskIsRegistered(PollTask task) throws PollTaskUnregistered {
-        if (!this.scheduledPollTasks.containsKey(task)) {
+        boolean registered;
+        if (task instanceof CoalescedPollTask) {
+            registered = ((CoalescedPollTask) task).getTasks().stream().anyMatch(this.scheduledPollTasks::containsKey);
+        } else {
+            registered = this.scheduledPollTasks.containsKey(task);
+        }
+        if (!registered) {
             String msg = String.format("Poll task %s is unregistered", task);
             logger.debug(msg);
             throw new PollTaskUnregistered(msg);
@@ -485,13 +544,13 @@ public class ModbusManagerImpl implements ModbusManager {
      *
      * With some other connection types, the operation is retried without reseting the connection type.
      *
+     * @param timer aggregate stop watch for performance profiling, created when the operation was queued
      * @param task
      * @param oneOffTask
      * @param operation
      */
     private <R extends ModbusRequestBlueprint, C extends ModbusCallback, T extends TaskWithEndpoint<R, C>> void executeOperation(
-            @NonNull T task, boolean oneOffTask, ModbusOperation<T> operation) {
-        AggregateStopWatch timer = new AggregateStopWatch();
+            AggregateStopWatch timer, @NonNull T task, boolean oneOffTask, ModbusOperation<T> operation) {
         timer.total.resume();
         String operationId = timer.operationId;
 
@@ -690,19 +749,58 @@ public class ModbusManagerImpl implements ModbusManager {
         }
     }
 
+    /**
+     * Queue operation to the queue of the endpoint
+     *
+     * @param executor executor draining the queue, unless the endpoint is a serial endpoint
+     * @param endpoint endpoint of the operation
+     * @param priority priority of the operation
+     * @param key key identifying a regular operation, which is skipped while the previous one is still queued or
+     *            executing. Null for one-off operations.
+     * @param operation the operation
+     */
+    private void queueOperation(ScheduledExecutorService executor, ModbusSlaveEndpoint endpoint, Priority priority,
+            @Nullable Object key, Consumer<AggregateStopWatch> operation) {
+        if (this.scheduledThreadPoolExecutor == null) {
+            logger.trace("Deactivated manager - not queuing operation for endpoint {}", endpoint);
+            return;
+        }
+        endpointQueues.computeIfAbsent(endpoint, e -> new EndpointOperationQueue(e, executor)).submit(priority, key,
+                operation);
+    }
+
+    /**
+     * Queue one-off operation to the queue of the endpoint
+     *
+     * @param executor executor draining the queue, unless the endpoint is a serial endpoint
+     * @param endpoint endpoint of the operation
+     * @param priority priority of the operation
+     * @param operation the operation
+     * @return future which is done once the operation has been executed. Cancelling the future removes the operation
+     *         from the queue.
+     */
+    private ScheduledFuture<?> queueOneTimeOperation(ScheduledExecutorService executor, ModbusSlaveEndpoint endpoint,
+            Priority priority, Consumer<AggregateStopWatch> operation) {
+        return endpointQueues.computeIfAbsent(endpoint, e -> new EndpointOperationQueue(e, executor))
+                .submitOneTime(priority, operation);
+    }
+
+    /**
+     * Queue statistics of the endpoints, e.g. queue depth and time operations waited in the queue
+     *
+     * @return queue of each endpoint that has been used
+     */
+    public Map<ModbusSlaveEndpoint, EndpointOperationQueue> getEndpointQueues() {
+        return Collections.unmodifiableMap(endpointQueues);
+    }
+
     @Override
     public ScheduledFuture<?> submitOneTimePoll(PollTask task) {
         ScheduledExecutorService executor = scheduledThreadPoolExecutor;
         Objects.requireNonNull(executor, "Not activated!");
-        long scheduleTime = System.currentTimeMillis();
-        logger.debug("Scheduling one-off poll task {}", task);
-        ScheduledFuture<?> future = executor.schedule(() -> {
-            long millisInThreadPoolWaiting = System.currentTimeMillis() - scheduleTime;
-            logger.debug("Will now execute one-off poll task {}, waited in thread pool for {}", task,
-                    millisInThreadPoolWaiting);
-            executeOperation(task, true, pollOperation);
-        }, 0L, TimeUnit.MILLISECONDS);
-        return future;
+        logger.debug("Queuing one-off poll task {}", task);
+        return queueOneTimeOperation(executor, task.getEndpoint(), Priority.POLL,
+                timer -> executeOperation(timer, task, true, pollOperation));
     }
 
     @Override
@@ -716,16 +814,21 @@ public class ModbusManagerImpl implements ModbusManager {
                 logger.trace("Unregistering previous poll task (possibly with different period)");
                 unregisterRegularPoll(task);
             }
-            ScheduledFuture<?> future = executor.scheduleWithFixedDelay(() -> {
-                long started = System.currentTimeMillis();
-                logger.debug("Executing scheduled ({}ms) poll task {}. Current millis: {}", pollPeriodMillis, task,
-                        started);
-                executeOperation(task, false, pollOperation);
-                long finished = System.currentTimeMillis();
-                logger.debug(
-                        "Execution of scheduled ({}ms) poll task {} finished at {}. Was started at millis: {} (=duration of {} millis)",
-                        pollPeriodMillis, task, finished, started, finished - started);
-            }, initialDelayMillis, pollPeriodMillis, TimeUnit.MILLISECONDS);
+            if (coalescePolls) {
+                registerCoalescedPoll(executor, task, pollPeriodMillis, initialDelayMillis);
+                return;
+            }
+            ScheduledFuture<?> future = executor.scheduleWithFixedDelay(
+                    () -> queueOperation(executor, task.getEndpoint(), Priority.POLL, task, timer -> {
+                        long started = System.currentTimeMillis();
+                        logger.debug("Executing scheduled ({}ms) poll task {}. Current millis: {}", pollPeriodMillis,
+                                task, started);
+                        executeOperation(timer, task, false, pollOperation);
+                        long finished = System.currentTimeMillis();
+                        logger.debug(
+                                "Execution of scheduled ({}ms) poll task {} finished at {}. Was started at millis: {} (=duration of {} millis)",
+                                pollPeriodMillis, task, finished, started, finished - started);
+                    }), initialDelayMillis, pollPeriodMillis, TimeUnit.MILLISECONDS);
 
             scheduledPollTasks.put(task, future);
             logger.trace("Registered poll task {} with period {} using initial delay {}", task, pollPeriodMillis,
@@ -733,6 +836,60 @@ public class ModbusManagerImpl implements ModbusManager {
         }
     }
 
+    /**
+     * Add the poll task to the group of compatible poll tasks, creating and scheduling the group if necessary
+     *
+     * Should be called while holding the lock of this manager
+     */
+    private void registerCoalescedPoll(ScheduledExecutorService executor, PollTask task, long pollPeriodMillis,
+            long initialDelayMillis) {
+        ModbusReadRequestBlueprint request = task.getRequest();
+        List<Object> key = Arrays.asList(task.getEndpoint(), request.getUnitID(), request.getFunctionCode(),
+                pollPeriodMillis);
+        PollGroup group = pollGroups.get(key);
+        if (group == null) {
+            PollGroup newGroup = group = new PollGroup();
+            newGroup.future = executor.scheduleWithFixedDelay(() -> {
+                List<CoalescedPollTask> coalescedTasks = newGroup.coalescedTasks;
+                logger.debug("Queuing scheduled ({}ms) poll tasks {}", pollPeriodMillis, coalescedTasks);
+                for (CoalescedPollTask coalescedTask : coalescedTasks) {
+                    queueOperation(executor, coalescedTask.getEndpoint(), Priority.POLL, coalescedTask,
+                            timer -> executeOperation(timer, coalescedTask, false, pollOperation));
+                }
+            }, initialDelayMillis, pollPeriodMillis, TimeUnit.MILLISECONDS);
+            pollGroups.put(key, newGroup);
+        }
+        group.tasks.add(task);
+        group.coalescedTasks = CoalescedPollTask.coalesce(group.tasks, coalescePollsMaxGap);
+        ScheduledFuture<?> future = group.future;
+        Objects.requireNonNull(future);
+        scheduledPollTasks.put(task, future);
+        logger.trace("Registered poll task {} with period {}, polled with {} request(s) together with {} other task(s)",
+                task, pollPeriodMillis, group.coalescedTasks.size(), group.tasks.size() - 1);
+    }
+
+    /**
+     * Remove the poll task from its group of compatible poll tasks
+     *
+     * Should be called while holding the lock of this manager
+     *
+     * @return true if other poll tasks remain in the group, i.e. the schedule of the group should not be canceled
+     */
+    private boolean unregisterCoalescedPoll(PollTask task) {
+        for (Iterator<PollGroup> iterator = pollGroups.values().iterator(); iterator.hasNext();) {
+            PollGroup group = iterator.next();
+            if (group.tasks.remove(task)) {
+                if (group.tasks.isEmpty()) {
+                    iterator.remove();
+                    return false;
+                }
+                group.coalescedTasks = CoalescedPollTask.coalesce(group.tasks, coalescePollsMaxGap);
+                return true;
+            }
+        }
+        return false;
+    }
+
     @SuppressWarnings({ "null", "unused" })
     @Override
     public boolean unregisterRegularPoll(PollTask task) {
@@ -756,9 +913,12 @@ public class ModbusManagerImpl implements ModbusManager {
             // is usually pretty soon as transactions should be relatively short-lived)
             factory.disconnectOnReturn(task.getEndpoint(), System.currentTimeMillis());
 
-            future.cancel(true);
-
-            logger.info("Poll task {} canceled", task);
+            if (unregisterCoalescedPoll(task)) {
+                logger.info("Poll task {} removed, poll tasks sharing its schedule continue", task);
+            } else {
+                future.cancel(true);
+                logger.info("Poll task {} canceled", task);
+            }
 
             try {
                 // Close all idle connections as well (they will be reconnected if necessary on borrow)
@@ -779,15 +939,9 @@ public class ModbusManagerImpl implements ModbusManager {
     public ScheduledFuture<?> submitOneTimeWrite(WriteTask task) {
         ScheduledExecutorService scheduledThreadPoolExecutor = this.scheduledThreadPoolExecutor;
         Objects.requireNonNull(scheduledThreadPoolExecutor, "Not activated!");
-        long scheduleTime = System.currentTimeMillis();
-        logger.debug("Scheduling one-off write task {}", task);
-        ScheduledFuture<?> future = scheduledThreadPoolExecutor.schedule(() -> {
-            long millisInThreadPoolWaiting = System.currentTimeMillis() - scheduleTime;
-            logger.debug("Will now execute one-off write task {}, waited in thread pool for {}", task,
-                    millisInThreadPoolWaiting);
-            executeOperation(task, true, writeOperation);
-        }, 0L, TimeUnit.MILLISECONDS);
-        return future;
+        logger.debug("Queuing one-off write task {}", task);
+        return queueOneTimeOperation(scheduledThreadPoolExecutor, task.getEndpoint(), Priority.WRITE,
+                timer -> executeOperation(timer, task, true, writeOperation));
     }
 
     @Override
@@ -825,6 +979,19 @@ public class ModbusManagerImpl implements ModbusManager {
     protected void activate(Map<String, Object> configProperties) {
         synchronized (this) {
             logger.info("Modbus manager activated");
+            Object coalesce = configProperties.get(CONFIG_COALESCE_POLLS);
+            coalescePolls = coalesce != null && Boolean.parseBoolean(coalesce.toString());
+            Object maxGap = configProperties.get(CONFIG_COALESCE_POLLS_MAX_GAP);
+            try {
+                coalescePollsMaxGap = maxGap == null ? 0 : Math.max(0, Integer.parseInt(maxGap.toString()));
+            } catch (NumberFormatException e) {
+                logger.warn("Invalid value '{}' for {}, using 0", maxGap, CONFIG_COALESCE_POLLS_MAX_GAP);
+                coalescePollsMaxGap = 0;
+            }
+            if (coalescePolls) {
+                logger.info("Regular polls of the same slave are combined, reading at most {} unused registers",
+                        coalescePollsMaxGap);
+            }
             if (connectionPool == null) {
                 constructConnectionPool();
             }
@@ -860,6 +1027,8 @@ public class ModbusManagerImpl implements ModbusManager {
                 monitorFuture.cancel(true);
                 monitorFuture = null;
             }
+            endpointQueues.values().forEach(EndpointOperationQueue::shutdown);
+            endpointQueues.clear();
             // Note that it is not allowed to shutdown the executor, since they will be reused when
             // when pool is received from ThreadPoolManager is called
             scheduledThreadPoolExecutor = null;
@@ -898,6 +1067,14 @@ public class ModbusManagerImpl implements ModbusManager {
                             executor.getQueue().size());
                 }
             }
+            endpointQueues.values().forEach(queue -> {
+                pollMonitorLogger.trace("POLL MONITOR: endpoint queue {}", queue);
+                if (queue.getQueueDepth() >= WARN_QUEUE_SIZE) {
+                    pollMonitorLogger.warn(
+                            "Many ({}) operations queued for endpoint {}! The endpoint cannot keep up with the polls and writes.",
+                            queue.getQueueDepth(), queue);
+                }
+            });
 
             pollMonitorLogger.trace("</POLL MONITOR>");
         }
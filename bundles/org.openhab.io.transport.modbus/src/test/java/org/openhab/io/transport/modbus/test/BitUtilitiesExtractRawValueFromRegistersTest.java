@@ -0,0 +1,79 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.transport.modbus.test;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.assertThat;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+
+import org.eclipse.smarthome.core.library.types.DecimalType;
+import org.junit.Test;
+import org.openhab.io.transport.modbus.BasicModbusRegisterArray;
+import org.openhab.io.transport.modbus.ModbusBitUtilities;
+import org.openhab.io.transport.modbus.ModbusConstants.ValueType;
+import org.openhab.io.transport.modbus.ModbusRegisterArray;
+
+/**
+ * @author Martin van Wingerden - Initial contribution
+ */
+public class BitUtilitiesExtractRawValueFromRegistersTest {
+
+    private static final ModbusRegisterArray REGISTERS = new BasicModbusRegisterArray(0x8001, 0x7ffe, 0xffff, 0x0102);
+
+    @Test
+    public void testSignExtension() {
+        assertThat(ModbusBitUtilities.extractRawValueFromRegisters(REGISTERS, 0, ValueType.INT16), is(-32767L));
+        assertThat(ModbusBitUtilities.extractRawValueFromRegisters(REGISTERS, 0, ValueType.UINT16), is(32769L));
+        assertThat(ModbusBitUtilities.extractRawValueFromRegisters(REGISTERS, 0, ValueType.INT32),
+                is((long) 0x80017ffe));
+        assertThat(ModbusBitUtilities.extractRawValueFromRegisters(REGISTERS, 0, ValueType.UINT32), is(0x80017ffeL));
+        assertThat(ModbusBitUtilities.extractRawValueFromRegisters(REGISTERS, 0, ValueType.INT32_SWAP),
+                is(0x7ffe8001L));
+        assertThat(ModbusBitUtilities.extractRawValueFromRegisters(REGISTERS, 1, ValueType.UINT32_SWAP),
+                is(0xffff7ffeL));
+    }
+
+    @Test
+    public void testInt64() {
+        assertThat(ModbusBitUtilities.extractRawValueFromRegisters(REGISTERS, 0, ValueType.INT64),
+                is(0x80017ffeffff0102L));
+        assertThat(ModbusBitUtilities.extractRawValueFromRegisters(REGISTERS, 0, ValueType.INT64_SWAP),
+                is(0x0102ffff7ffe8001L));
+    }
+
+    @Test
+    public void testUnsigned64BitValueLargerThanLong() {
+        long rawValue = ModbusBitUtilities.extractRawValueFromRegisters(REGISTERS, 0, ValueType.UINT64);
+        assertThat(ModbusBitUtilities.extractStateFromRawValue(rawValue, ValueType.UINT64),
+                is(equalTo(Optional.of(new DecimalType(new BigDecimal("9223794245024809218"))))));
+    }
+
+    @Test
+    public void testEqualRegistersGiveEqualRawValues() {
+        ModbusRegisterArray copy = new BasicModbusRegisterArray(0x8001, 0x7ffe, 0xffff, 0x0102);
+        for (ValueType type : new ValueType[] { ValueType.BIT, ValueType.INT8, ValueType.FLOAT32,
+                ValueType.FLOAT32_SWAP, ValueType.UINT64_SWAP }) {
+            assertThat(type.toString(), ModbusBitUtilities.extractRawValueFromRegisters(copy, 0, type),
+                    is(ModbusBitUtilities.extractRawValueFromRegisters(REGISTERS, 0, type)));
+        }
+        assertThat(ModbusBitUtilities.extractRawValueFromRegisters(copy, 0, ValueType.INT16),
+                is(not(ModbusBitUtilities.extractRawValueFromRegisters(REGISTERS, 1, ValueType.INT16))));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testOutOfBounds() {
+        ModbusBitUtilities.extractRawValueFromRegisters(REGISTERS, 1, ValueType.INT64);
+    }
+}
@@ -400,5 +400,10 @@ public class BitUtilitiesExtractStateFromRegistersTest {
                 : (Optional<@NonNull DecimalType>) expectedResult;
         assertThat(String.format("registers=%s, index=%d, type=%s", registers, index, type), actualState,
                 is(equalTo(expectedStateWrapped)));
+
+        // decoding the raw bits separately (as done by the data thing handler) must give the same result
+        long rawValue = ModbusBitUtilities.extractRawValueFromRegisters(this.registers, this.index, this.type);
+        assertThat(String.format("registers=%s, index=%d, type=%s, raw=%d", registers, index, type, rawValue),
+                ModbusBitUtilities.extractStateFromRawValue(rawValue, this.type), is(equalTo(expectedStateWrapped)));
     }
 }
@@ -0,0 +1,148 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.transport.modbus.test;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.assertThat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.Test;
+import org.openhab.io.transport.modbus.BasicBitArray;
+import org.openhab.io.transport.modbus.BasicModbusReadRequestBlueprint;
+import org.openhab.io.transport.modbus.BasicModbusRegisterArray;
+import org.openhab.io.transport.modbus.BasicPollTaskImpl;
+import org.openhab.io.transport.modbus.BitArray;
+import org.openhab.io.transport.modbus.ModbusReadCallback;
+import org.openhab.io.transport.modbus.ModbusReadFunctionCode;
+import org.openhab.io.transport.modbus.ModbusReadRequestBlueprint;
+import org.openhab.io.transport.modbus.ModbusRegisterArray;
+import org.openhab.io.transport.modbus.PollTask;
+import org.openhab.io.transport.modbus.endpoint.ModbusSlaveEndpoint;
+import org.openhab.io.transport.modbus.endpoint.ModbusTCPSlaveEndpoint;
+import org.openhab.io.transport.modbus.internal.CoalescedPollTask;
+
+/**
+ * @author Martin van Wingerden - Initial contribution
+ */
+public class CoalescedPollTaskTest {
+
+    private static final ModbusSlaveEndpoint ENDPOINT = new ModbusTCPSlaveEndpoint("localhost", 502);
+
+    @NonNullByDefault
+    private static class RecordingCallback implements ModbusReadCallback {
+        private final List<Object> received = new ArrayList<>();
+
+        @Override
+        public void onRegisters(ModbusReadRequestBlueprint request, ModbusRegisterArray registers) {
+            for (int i = 0; i < registers.size(); i++) {
+                received.add(registers.getUnsignedShort(i));
+            }
+        }
+
+        @Override
+        public void onBits(ModbusReadRequestBlueprint request, BitArray bits) {
+            for (int i = 0; i < bits.size(); i++) {
+                received.add(bits.getBit(i));
+            }
+        }
+
+        @Override
+        public void onError(ModbusReadRequestBlueprint request, Exception error) {
+            received.add(error);
+        }
+    }
+
+    private static PollTask task(int unitId, ModbusReadFunctionCode functionCode, int start, int length,
+            ModbusReadCallback callback) {
+        return new BasicPollTaskImpl(ENDPOINT,
+                new BasicModbusReadRequestBlueprint(unitId, functionCode, start, length, 3), callback);
+    }
+
+    private static PollTask task(int start, int length) {
+        return task(1, ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, start, length, new RecordingCallback());
+    }
+
+    @Test
+    public void testAdjacentAndOverlappingTasksAreCombined() {
+        List<CoalescedPollTask> coalesced = CoalescedPollTask
+                .coalesce(Arrays.asList(task(10, 2), task(0, 5), task(5, 5), task(3, 4)), 0);
+        assertThat(coalesced.size(), is(equalTo(1)));
+        assertThat(coalesced.get(0).getRequest().getReference(), is(equalTo(0)));
+        assertThat(coalesced.get(0).getRequest().getDataLength(), is(equalTo(12)));
+        assertThat(coalesced.get(0).getTasks().size(), is(equalTo(4)));
+    }
+
+    @Test
+    public void testGap() {
+        List<PollTask> tasks = Arrays.asList(task(0, 2), task(5, 2));
+        assertThat(CoalescedPollTask.coalesce(tasks, 2).size(), is(equalTo(2)));
+        assertThat(CoalescedPollTask.coalesce(tasks, 3).size(), is(equalTo(1)));
+        assertThat(CoalescedPollTask.coalesce(tasks, -1).size(), is(equalTo(2)));
+    }
+
+    @Test
+    public void testIncompatibleTasksAreNotCombined() {
+        RecordingCallback callback = new RecordingCallback();
+        List<PollTask> tasks = Arrays.asList(task(0, 2),
+                task(2, ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 2, 2, callback),
+                task(1, ModbusReadFunctionCode.READ_INPUT_REGISTERS, 2, 2, callback));
+        assertThat(CoalescedPollTask.coalesce(tasks, 10).size(), is(equalTo(3)));
+    }
+
+    @Test
+    public void testMaximumRequestLengthIsRespected() {
+        List<PollTask> tasks = Arrays.asList(task(0, 100), task(100, 25), task(125, 1));
+        List<CoalescedPollTask> coalesced = CoalescedPollTask.coalesce(tasks, 0);
+        assertThat(coalesced.size(), is(equalTo(2)));
+        assertThat(coalesced.get(0).getRequest().getDataLength(),
+                is(equalTo(CoalescedPollTask.MAX_REGISTERS_PER_READ)));
+        assertThat(coalesced.get(1).getRequest().getReference(), is(equalTo(125)));
+    }
+
+    @Test
+    public void testRegistersAreSplitToOriginalCallbacks() {
+        RecordingCallback first = new RecordingCallback();
+        RecordingCallback second = new RecordingCallback();
+        List<CoalescedPollTask> coalesced = CoalescedPollTask.coalesce(
+                Arrays.asList(task(1, ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 10, 2, first),
+                        task(1, ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 13, 2, second)),
+                1);
+        assertThat(coalesced.size(), is(equalTo(1)));
+        CoalescedPollTask task = coalesced.get(0);
+        task.getCallback().onRegisters(task.getRequest(), new BasicModbusRegisterArray(1, 2, 3, 4, 5));
+        assertThat(first.received, is(equalTo(Arrays.asList(1, 2))));
+        assertThat(second.received, is(equalTo(Arrays.asList(4, 5))));
+    }
+
+    @Test
+    public void testBitsAndErrorsAreSplitToOriginalCallbacks() {
+        RecordingCallback first = new RecordingCallback();
+        RecordingCallback second = new RecordingCallback();
+        List<CoalescedPollTask> coalesced = CoalescedPollTask
+                .coalesce(Arrays.asList(task(1, ModbusReadFunctionCode.READ_COILS, 0, 2, first),
+                        task(1, ModbusReadFunctionCode.READ_COILS, 1, 2, second)), 0);
+        CoalescedPollTask task = coalesced.get(0);
+        task.getCallback().onBits(task.getRequest(), new BasicBitArray(true, false, true));
+        assertThat(first.received, is(equalTo(Arrays.asList(true, false))));
+        assertThat(second.received, is(equalTo(Arrays.asList(false, true))));
+
+        Exception error = new Exception();
+        task.getCallback().onError(task.getRequest(), error);
+        assertThat(first.received.get(2), is(sameInstance(error)));
+        assertThat(second.received.get(2), is(sameInstance(error)));
+    }
+}
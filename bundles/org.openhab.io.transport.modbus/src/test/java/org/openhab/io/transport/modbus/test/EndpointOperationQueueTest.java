@@ -0,0 +1,208 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.transport.modbus.test;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.After;
+import org.junit.Test;
+import org.openhab.io.transport.modbus.endpoint.ModbusSerialSlaveEndpoint;
+import org.openhab.io.transport.modbus.endpoint.ModbusTCPSlaveEndpoint;
+import org.openhab.io.transport.modbus.internal.EndpointOperationQueue;
+import org.openhab.io.transport.modbus.internal.EndpointOperationQueue.Priority;
+
+import gnu.io.SerialPort;
+import net.wimpi.modbus.Modbus;
+
+/**
+ * @author Martin van Wingerden - Initial contribution
+ */
+public class EndpointOperationQueueTest {
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testWritesAreExecutedBeforeQueuedPolls() throws InterruptedException {
+        EndpointOperationQueue queue = new EndpointOperationQueue(new ModbusTCPSlaveEndpoint("localhost", 502),
+                executor);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch blocker = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(4);
+        List<String> executed = new ArrayList<>();
+
+        // occupies the queue until all other operations are queued
+        queue.submit(Priority.POLL, null, timer -> {
+            started.countDown();
+            try {
+                blocker.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            done.countDown();
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        queue.submit(Priority.POLL, null, timer -> {
+            executed.add("poll1");
+            done.countDown();
+        });
+        queue.submit(Priority.WRITE, null, timer -> {
+            executed.add("write");
+            done.countDown();
+        });
+        queue.submit(Priority.POLL, null, timer -> {
+            executed.add("poll2");
+            done.countDown();
+        });
+        assertThat(queue.getQueueDepth(), is(equalTo(3)));
+        blocker.countDown();
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertThat(executed, is(equalTo(Arrays.asList("write", "poll1", "poll2"))));
+        assertThat(queue.getExecutedOperations(Priority.WRITE), is(equalTo(1L)));
+        assertThat(queue.getExecutedOperations(Priority.POLL), is(equalTo(3L)));
+        assertThat(queue.getMaxQueueDepth(), is(equalTo(3L)));
+    }
+
+    @Test
+    public void testOperationWithSameKeyIsSkippedWhilePending() throws InterruptedException {
+        EndpointOperationQueue queue = new EndpointOperationQueue(new ModbusTCPSlaveEndpoint("localhost", 502),
+                executor);
+        CountDownLatch blocker = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(1);
+        Object key = new Object();
+
+        assertTrue(queue.submit(Priority.POLL, key, timer -> {
+            try {
+                blocker.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            done.countDown();
+        }));
+        assertFalse(queue.submit(Priority.POLL, key, timer -> fail("should be skipped")));
+        assertThat(queue.getSkippedOperations(), is(equalTo(1L)));
+        blocker.countDown();
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testOneTimeFutureIsDoneAfterExecution() throws Exception {
+        EndpointOperationQueue queue = new EndpointOperationQueue(new ModbusTCPSlaveEndpoint("localhost", 502),
+                executor);
+        CountDownLatch blocker = new CountDownLatch(1);
+
+        Future<?> future = queue.submitOneTime(Priority.WRITE, timer -> {
+            try {
+                blocker.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        assertFalse(future.isDone());
+        blocker.countDown();
+        future.get(5, TimeUnit.SECONDS);
+        assertTrue(future.isDone());
+        assertFalse(future.isCancelled());
+    }
+
+    @Test
+    public void testCancelRemovesQueuedOneTimeOperation() throws Exception {
+        EndpointOperationQueue queue = new EndpointOperationQueue(new ModbusTCPSlaveEndpoint("localhost", 502),
+                executor);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch blocker = new CountDownLatch(1);
+
+        Future<?> running = queue.submitOneTime(Priority.POLL, timer -> {
+            started.countDown();
+            try {
+                blocker.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        Future<?> queued = queue.submitOneTime(Priority.POLL, timer -> fail("cancelled operation executed"));
+        assertThat(queue.getQueueDepth(), is(equalTo(1)));
+
+        assertTrue(queued.cancel(false));
+        assertTrue(queued.isCancelled());
+        assertThat(queue.getQueueDepth(), is(equalTo(0)));
+        blocker.countDown();
+        running.get(5, TimeUnit.SECONDS);
+        assertThat(queue.getExecutedOperations(Priority.POLL), is(equalTo(1L)));
+    }
+
+    @Test
+    public void testShutdownCancelsQueuedOneTimeOperations() throws Exception {
+        EndpointOperationQueue queue = new EndpointOperationQueue(new ModbusTCPSlaveEndpoint("localhost", 502),
+                executor);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch blocker = new CountDownLatch(1);
+
+        queue.submitOneTime(Priority.POLL, timer -> {
+            started.countDown();
+            try {
+                blocker.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        Future<?> queued = queue.submitOneTime(Priority.WRITE, timer -> fail("discarded operation executed"));
+
+        queue.shutdown();
+        blocker.countDown();
+        assertTrue(queued.isCancelled());
+        assertTrue(queue.submitOneTime(Priority.WRITE, timer -> fail("operation executed after shutdown"))
+                .isCancelled());
+    }
+
+    @Test
+    public void testSerialEndpointIsDrainedByTheSerialThreadPool() throws Exception {
+        EndpointOperationQueue queue = new EndpointOperationQueue(new ModbusSerialSlaveEndpoint("port1", 9600,
+                SerialPort.FLOWCONTROL_NONE, SerialPort.FLOWCONTROL_NONE, SerialPort.DATABITS_8,
+                SerialPort.STOPBITS_1, SerialPort.PARITY_NONE, Modbus.DEFAULT_SERIAL_ENCODING, true, 500), executor);
+        AtomicReference<String> threadName = new AtomicReference<>();
+
+        queue.submitOneTime(Priority.POLL, timer -> threadName.set(Thread.currentThread().getName())).get(5,
+                TimeUnit.SECONDS);
+        assertThat(threadName.get(), containsString(EndpointOperationQueue.SERIAL_THREAD_POOL_NAME));
+
+        // the pool is shared, a shut down queue only stops using it
+        queue.shutdown();
+        assertTrue(queue.submitOneTime(Priority.WRITE, timer -> fail("operation executed after shutdown"))
+                .isCancelled());
+        EndpointOperationQueue otherQueue = new EndpointOperationQueue(new ModbusSerialSlaveEndpoint("port2", 9600,
+                SerialPort.FLOWCONTROL_NONE, SerialPort.FLOWCONTROL_NONE, SerialPort.DATABITS_8,
+                SerialPort.STOPBITS_1, SerialPort.PARITY_NONE, Modbus.DEFAULT_SERIAL_ENCODING, true, 500), executor);
+        otherQueue.submitOneTime(Priority.POLL, timer -> {
+        }).get(5, TimeUnit.SECONDS);
+        assertThat(otherQueue.getExecutedOperations(Priority.POLL), is(equalTo(1L)));
+    }
+}
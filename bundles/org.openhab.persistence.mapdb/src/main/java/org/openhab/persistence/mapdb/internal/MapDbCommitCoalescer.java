@@ -0,0 +1,189 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.mapdb.internal;
+
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Groups the writes to the database into a single commit.
+ *
+ * A commit is performed at the latest {@code commitInterval} milliseconds after the first uncommitted write, or
+ * directly once {@code maxPendingWrites} writes are pending, whatever comes first. After {@link #close()} no commit
+ * is performed any more, so the database can be closed safely.
+ *
+ * @author Martin van Wingerden - Initial contribution
+ */
+@NonNullByDefault
+public class MapDbCommitCoalescer {
+
+    private final Logger logger = LoggerFactory.getLogger(MapDbCommitCoalescer.class);
+
+    private final Runnable commitAction;
+    private final ScheduledExecutorService scheduler;
+    private final long commitInterval;
+    private final int maxPendingWrites;
+
+    private final AtomicInteger pendingWrites = new AtomicInteger();
+    private final AtomicBoolean commitScheduled = new AtomicBoolean();
+    private @Nullable ScheduledFuture<?> scheduledCommit;
+    private boolean closed;
+
+    private final AtomicLong commitCount = new AtomicLong();
+    private final AtomicLong committedWrites = new AtomicLong();
+    private final AtomicLong totalCommitTime = new AtomicLong();
+    private final AtomicLong maxCommitTime = new AtomicLong();
+    private volatile long lastCommitTime;
+
+    /**
+     * @param commitAction the action that commits the database
+     * @param scheduler the scheduler used to run the commits
+     * @param commitInterval maximum time in milliseconds a write stays uncommitted
+     * @param maxPendingWrites number of pending writes that triggers an immediate commit
+     */
+    public MapDbCommitCoalescer(Runnable commitAction, ScheduledExecutorService scheduler, long commitInterval,
+            int maxPendingWrites) {
+        this.commitAction = commitAction;
+        this.scheduler = scheduler;
+        this.commitInterval = Math.max(0, commitInterval);
+        this.maxPendingWrites = Math.max(1, maxPendingWrites);
+    }
+
+    /**
+     * Registers a write to the database and makes sure it gets committed.
+     */
+    public void writePerformed() {
+        int pending = pendingWrites.incrementAndGet();
+        if (pending == maxPendingWrites) {
+            scheduler.execute(this::commit);
+        } else if (commitScheduled.compareAndSet(false, true)) {
+            scheduleCommit();
+        }
+    }
+
+    private synchronized void scheduleCommit() {
+        if (!closed) {
+            scheduledCommit = scheduler.schedule(this::commit, commitInterval, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Commits all pending writes in the calling thread.
+     */
+    public synchronized void commit() {
+        if (closed) {
+            return;
+        }
+        // reset the flag first, a write arriving during the commit then schedules the next one
+        commitScheduled.set(false);
+        cancelScheduledCommit();
+        int writes = pendingWrites.getAndSet(0);
+        if (writes == 0) {
+            return;
+        }
+
+        long start = System.nanoTime();
+        try {
+            commitAction.run();
+        } catch (RuntimeException e) {
+            logger.warn("Commit of {} writes to the MapDB database failed: {}", writes, e.getMessage(), e);
+            return;
+        }
+        long duration = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        commitCount.incrementAndGet();
+        committedWrites.addAndGet(writes);
+        totalCommitTime.addAndGet(duration);
+        maxCommitTime.accumulateAndGet(duration, Math::max);
+        lastCommitTime = duration;
+        logger.trace("Committed {} writes in {} ms", writes, duration);
+    }
+
+    /**
+     * Commits all pending writes in the calling thread and cancels the scheduled commit. A commit which is running
+     * concurrently is finished before this method returns, later writes are not committed any more.
+     */
+    public synchronized void close() {
+        commit();
+        closed = true;
+        cancelScheduledCommit();
+    }
+
+    private void cancelScheduledCommit() {
+        ScheduledFuture<?> scheduledCommit = this.scheduledCommit;
+        if (scheduledCommit != null) {
+            // doesn't interrupt, when called from the scheduled commit itself
+            scheduledCommit.cancel(false);
+            this.scheduledCommit = null;
+        }
+    }
+
+    /**
+     * @return number of writes that are not committed yet
+     */
+    public int getPendingWrites() {
+        return pendingWrites.get();
+    }
+
+    /**
+     * @return number of commits performed
+     */
+    public long getCommitCount() {
+        return commitCount.get();
+    }
+
+    /**
+     * @return number of writes committed
+     */
+    public long getCommittedWrites() {
+        return committedWrites.get();
+    }
+
+    /**
+     * @return duration in milliseconds of the last commit
+     */
+    public long getLastCommitTime() {
+        return lastCommitTime;
+    }
+
+    /**
+     * @return maximum duration in milliseconds of a commit
+     */
+    public long getMaxCommitTime() {
+        return maxCommitTime.get();
+    }
+
+    /**
+     * @return average duration in milliseconds of a commit
+     */
+    public long getAverageCommitTime() {
+        long count = commitCount.get();
+        return count == 0 ? 0 : totalCommitTime.get() / count;
+    }
+
+    @Override
+    public String toString() {
+        return "pendingWrites=" + getPendingWrites() + ", commits=" + getCommitCount() + ", committedWrites="
+                + getCommittedWrites() + ", lastCommitTime=" + getLastCommitTime() + "ms, averageCommitTime="
+                + getAverageCommitTime() + "ms, maxCommitTime=" + getMaxCommitTime() + "ms";
+    }
+}
@@ -0,0 +1,42 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.mapdb.internal;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+
+/**
+ * The configuration for {@link MapDbPersistenceService}.
+ *
+ * @author Martin van Wingerden - Initial contribution
+ */
+@NonNullByDefault
+public class MapDbConfiguration {
+
+    /** Maximum time in milliseconds a stored state stays uncommitted */
+    public long commitInterval = 5000;
+
+    /** Number of uncommitted writes that triggers an immediate commit */
+    public int commitMaxPendingWrites = 1000;
+
+    /** Keep a time-series of all stored states instead of only the last one */
+    public boolean historyEnabled = false;
+
+    /** History records older than this many days are removed, 0 keeps them forever */
+    public int historyRetentionDays = 30;
+
+    /** Maximum number of history records kept per item, 0 means unlimited */
+    public int historyMaxEntriesPerItem = 0;
+
+    /** Interval in hours between two runs of the history retention and compaction job */
+    public int historyCompactionInterval = 24;
+}
@@ -0,0 +1,221 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.mapdb.internal;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.NavigableMap;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.smarthome.core.library.types.DecimalType;
+import org.eclipse.smarthome.core.persistence.FilterCriteria;
+import org.eclipse.smarthome.core.persistence.FilterCriteria.Ordering;
+import org.eclipse.smarthome.core.persistence.HistoricItem;
+import org.eclipse.smarthome.core.types.State;
+import org.mapdb.BTreeKeySerializer;
+import org.mapdb.DB;
+import org.mapdb.Fun;
+import org.mapdb.Serializer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Time-series store of item states, used when the history mode of the {@link MapDbPersistenceService} is enabled.
+ *
+ * Records are encoded with the {@link StateCodec} and kept in a single B-tree keyed by (item name, timestamp), so all
+ * records of one item are stored next to each other in chronological order and a {@link FilterCriteria} can be
+ * answered with a range scan.
+ *
+ * @author Martin van Wingerden - Initial contribution
+ */
+@NonNullByDefault
+public class MapDbHistoryStore {
+
+    private static final String HISTORY_MAP_NAME = "itemHistory";
+
+    private final Logger logger = LoggerFactory.getLogger(MapDbHistoryStore.class);
+
+    private final NavigableMap<Fun.Tuple2<String, Long>, byte[]> history;
+
+    public MapDbHistoryStore(DB db) {
+        history = db.createTreeMap(HISTORY_MAP_NAME).keySerializer(BTreeKeySerializer.TUPLE2)
+                .valueSerializer(Serializer.BYTE_ARRAY).makeOrGet();
+    }
+
+    /**
+     * Appends a record for the given item. A record with the same timestamp is replaced.
+     *
+     * @param name the name (or alias) of the item
+     * @param state the state to store
+     * @param timestamp the time the state was stored
+     */
+    public void append(String name, State state, Date timestamp) {
+        try {
+            history.put(Fun.t2(name, timestamp.getTime()), StateCodec.encode(state));
+        } catch (IOException e) {
+            logger.warn("Couldn't serialize state '{}' of item '{}': {}", state, name, e.getMessage());
+        }
+    }
+
+    /**
+     * Checks whether any record of the given item is stored.
+     *
+     * @param name the name (or alias) of the item
+     * @return true if at least one record of the item is stored
+     */
+    public boolean contains(String name) {
+        Fun.Tuple2<String, Long> key = history.ceilingKey(Fun.t2(name, Long.MIN_VALUE));
+        return key != null && name.equals(key.a);
+    }
+
+    /**
+     * Answers the given filter with a range scan over the records of the item, honouring the begin and end date,
+     * ordering, state filter and paging of the criteria.
+     *
+     * @param filter the filter criteria
+     * @return the matching records, never null
+     */
+    public List<HistoricItem> query(FilterCriteria filter) {
+        String name = filter.getItemName();
+        Date begin = filter.getBeginDate();
+        Date end = filter.getEndDate();
+        long from = begin == null ? Long.MIN_VALUE : begin.getTime();
+        long to = end == null ? Long.MAX_VALUE : end.getTime();
+        int pageSize = filter.getPageSize();
+        if (name == null || from > to || pageSize <= 0) {
+            return Collections.emptyList();
+        }
+
+        NavigableMap<Fun.Tuple2<String, Long>, byte[]> range = history.subMap(Fun.t2(name, from), true,
+                Fun.t2(name, to), true);
+        if (filter.getOrdering() == Ordering.DESCENDING) {
+            range = range.descendingMap();
+        }
+
+        long skip = (long) filter.getPageNumber() * pageSize;
+        List<HistoricItem> result = new ArrayList<>();
+        for (Entry<Fun.Tuple2<String, Long>, byte[]> entry : range.entrySet()) {
+            State state = decode(name, entry.getValue());
+            if (state == null || !matches(filter, state)) {
+                continue;
+            }
+            if (skip > 0) {
+                skip--;
+                continue;
+            }
+            MapDbItem item = new MapDbItem();
+            item.setName(name);
+            item.setState(state);
+            item.setTimestamp(new Date(entry.getKey().b));
+            result.add(item);
+            if (result.size() >= pageSize) {
+                break;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Applies the retention policy to the records of all items. The newest record of an item is always kept, so the
+     * last state of an item which didn't change for longer than the retention period can still be restored.
+     *
+     * @param cutoff records older than this timestamp (in ms) are removed, use {@link Long#MIN_VALUE} to keep all
+     * @param maxEntriesPerItem maximum number of records kept per item (oldest are removed first), 0 for no limit
+     * @return the number of removed records
+     */
+    public int applyRetention(long cutoff, int maxEntriesPerItem) {
+        int removed = 0;
+        Fun.Tuple2<String, Long> key = history.isEmpty() ? null : history.firstKey();
+        while (key != null) {
+            String name = key.a;
+            NavigableMap<Fun.Tuple2<String, Long>, byte[]> itemHistory = history.subMap(Fun.t2(name, Long.MIN_VALUE),
+                    true, Fun.t2(name, Long.MAX_VALUE), true);
+
+            List<Fun.Tuple2<String, Long>> expired = new ArrayList<>(
+                    itemHistory.headMap(Fun.t2(name, cutoff), false).keySet());
+            expired.remove(itemHistory.lastKey());
+            removed += removeKeys(expired);
+
+            if (maxEntriesPerItem > 0) {
+                int excess = itemHistory.size() - maxEntriesPerItem;
+                if (excess > 0) {
+                    List<Fun.Tuple2<String, Long>> oldest = new ArrayList<>(excess);
+                    for (Fun.Tuple2<String, Long> itemKey : itemHistory.keySet()) {
+                        if (oldest.size() >= excess) {
+                            break;
+                        }
+                        oldest.add(itemKey);
+                    }
+                    removed += removeKeys(oldest);
+                }
+            }
+
+            // jump directly to the first record of the next item
+            key = history.higherKey(Fun.t2(name, Long.MAX_VALUE));
+        }
+        return removed;
+    }
+
+    private int removeKeys(List<Fun.Tuple2<String, Long>> keys) {
+        for (Fun.Tuple2<String, Long> key : keys) {
+            history.remove(key);
+        }
+        return keys.size();
+    }
+
+    private static boolean matches(FilterCriteria filter, State state) {
+        State expected = filter.getState();
+        if (expected == null) {
+            return true;
+        }
+        switch (filter.getOperator()) {
+            case EQ:
+                return expected.equals(state);
+            case NEQ:
+                return !expected.equals(state);
+            default:
+                DecimalType value = state.as(DecimalType.class);
+                DecimalType reference = expected.as(DecimalType.class);
+                if (value == null || reference == null) {
+                    return false;
+                }
+                int comparison = value.toBigDecimal().compareTo(reference.toBigDecimal());
+                switch (filter.getOperator()) {
+                    case GT:
+                        return comparison > 0;
+                    case GTE:
+                        return comparison >= 0;
+                    case LT:
+                        return comparison < 0;
+                    case LTE:
+                        return comparison <= 0;
+                    default:
+                        return false;
+                }
+        }
+    }
+
+    private @Nullable State decode(String name, byte[] record) {
+        try {
+            return StateCodec.decode(record);
+        } catch (IOException e) {
+            logger.warn("Couldn't deserialize history record of item '{}': {}", name, e.getMessage());
+            return null;
+        }
+    }
+}
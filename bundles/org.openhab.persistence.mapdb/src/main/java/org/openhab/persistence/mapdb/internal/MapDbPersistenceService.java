@@ -12,20 +12,31 @@
  */
 package org.openhab.persistence.mapdb.internal;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
 import java.io.File;
+import java.io.IOException;
 import java.util.Collections;
 import java.util.Date;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
-import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.smarthome.config.core.ConfigConstants;
+import org.eclipse.smarthome.config.core.ConfigurableService;
+import org.eclipse.smarthome.config.core.Configuration;
 import org.eclipse.smarthome.core.common.ThreadPoolManager;
 import org.eclipse.smarthome.core.items.Item;
 import org.eclipse.smarthome.core.persistence.FilterCriteria;
@@ -37,7 +48,11 @@ import org.eclipse.smarthome.core.types.State;
 import org.eclipse.smarthome.core.types.UnDefType;
 import org.mapdb.DB;
 import org.mapdb.DBMaker;
+import org.mapdb.Serializer;
+import org.osgi.framework.Constants;
+import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Deactivate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -53,34 +68,60 @@ import com.google.gson.GsonBuilder;
  * @author Martin Kühl - Port to Eclipse SmartHome
  */
 @NonNullByDefault
-@Component(service = { PersistenceService.class, QueryablePersistenceService.class })
+@Component(service = { PersistenceService.class,
+        QueryablePersistenceService.class }, configurationPid = MapDbPersistenceService.CONFIG_PID, property = {
+                Constants.SERVICE_PID + "=" + MapDbPersistenceService.CONFIG_PID,
+                ConfigurableService.SERVICE_PROPERTY_DESCRIPTION_URI + "=persistence:mapdb",
+                ConfigurableService.SERVICE_PROPERTY_LABEL + "=MapDB Persistence",
+                ConfigurableService.SERVICE_PROPERTY_CATEGORY + "=persistence" })
 public class MapDbPersistenceService implements QueryablePersistenceService {
 
+    static final String CONFIG_PID = "org.openhab.mapdb";
+
     private static final String SERVICE_NAME = "mapdb";
 
     private static final String DB_FOLDER_NAME = ConfigConstants.getUserDataFolder() + File.separator + "persistence" + File.separator + "mapdb";
 
     private static final String DB_FILE_NAME = "storage.mapdb";
 
+    /** name of the map holding the last state of each item in the binary format */
+    private static final String ITEM_STATE_MAP_NAME = "itemStates";
+
+    /** name of the map holding the last state of each item as JSON, only read to migrate existing databases */
+    private static final String LEGACY_ITEM_STORE_MAP_NAME = "itemStore";
+
     private final Logger logger = LoggerFactory.getLogger(MapDbPersistenceService.class);
 
     @NonNullByDefault({})
-    private ExecutorService threadPool;
+    private ScheduledExecutorService scheduler;
 
     /** holds the local instance of the MapDB database */
     @NonNullByDefault({})
     private DB db;
     @NonNullByDefault({})
-    private Map<String, String> map;
+    private Map<String, byte[]> map;
+
+    @NonNullByDefault({})
+    private MapDbCommitCoalescer committer;
+
+    /** holds the time-series of item states, only set when the history mode is enabled */
+    private @Nullable MapDbHistoryStore history;
 
-    private transient Gson mapper = new GsonBuilder()
-            .registerTypeHierarchyAdapter(State.class, new StateTypeAdapter())
-            .create();
+    private @Nullable ScheduledFuture<?> compactionJob;
 
-    public void activate() {
+    /**
+     * Writes hold the read lock, so they run concurrently. The history compaction and the shutdown hold the write
+     * lock, MapDB can only compact without uncommitted writes.
+     */
+    private final ReadWriteLock dbLock = new ReentrantReadWriteLock();
+
+    @Activate
+    public void activate(Map<String, Object> properties) {
         logger.debug("MapDB persistence service is being activated");
 
-        threadPool = ThreadPoolManager.getPool(getClass().getSimpleName());
+        MapDbConfiguration config = new Configuration(properties).as(MapDbConfiguration.class);
+
+        scheduler = ThreadPoolManager.getScheduledPool(getClass().getSimpleName());
 
         File folder = new File(DB_FOLDER_NAME);
         if (!folder.exists()) {
@@ -93,16 +134,44 @@ public class MapDbPersistenceService implements QueryablePersistenceService {
 
         File dbFile = new File(DB_FOLDER_NAME, DB_FILE_NAME);
         db = DBMaker.newFileDB(dbFile).closeOnJvmShutdown().make();
-        map = db.createTreeMap("itemStore").makeOrGet();
+        map = db.createTreeMap(ITEM_STATE_MAP_NAME).valueSerializer(Serializer.BYTE_ARRAY).makeOrGet();
+        migrateLegacyItemStore();
+
+        committer = new MapDbCommitCoalescer(db::commit, scheduler, config.commitInterval,
+                config.commitMaxPendingWrites);
+
+        if (config.historyEnabled) {
+            history = new MapDbHistoryStore(db);
+            long interval = TimeUnit.HOURS.toMinutes(Math.max(1, config.historyCompactionInterval));
+            compactionJob = scheduler.scheduleWithFixedDelay(() -> compactHistory(config), 1, interval,
+                    TimeUnit.MINUTES);
+            logger.debug("MapDB history mode enabled with a retention of {} days", config.historyRetentionDays);
+        }
         logger.debug("MapDB persistence service is now activated");
     }
 
+    @Deactivate
     public void deactivate() {
         logger.debug("MapDB persistence service deactivated");
-        if (db != null) {
-            db.close();
+        ScheduledFuture<?> job = compactionJob;
+        if (job != null) {
+            job.cancel(false);
+            compactionJob = null;
+        }
+        // waits for a running history compaction
+        dbLock.writeLock().lock();
+        try {
+            history = null;
+            if (db != null) {
+                if (committer != null) {
+                    committer.close();
+                    logger.debug("MapDB commit statistics: {}", committer);
+                }
+                db.close();
+            }
+        } finally {
+            dbLock.writeLock().unlock();
         }
-        threadPool.shutdown();
     }
 
     @Override
@@ -117,8 +186,8 @@ public class MapDbPersistenceService implements QueryablePersistenceService {
 
     @Override
     public Set<PersistenceItemInfo> getItemInfo() {
-        return map.values().stream()
-                .map(this::deserialize)
+        return map.entrySet().stream()
+                .map(entry -> deserialize(entry.getKey(), entry.getValue()))
                 .flatMap(MapDbPersistenceService::streamOptional)
                 .collect(Collectors.<PersistenceItemInfo>toSet());
     }
@@ -145,40 +214,123 @@ public class MapDbPersistenceService implements QueryablePersistenceService {
         mItem.setName(alias);
         mItem.setState(state);
         mItem.setTimestamp(new Date());
-        String json = serialize(mItem);
-        map.put(alias, json);
-        commit();
+        byte[] data;
+        try {
+            data = serialize(mItem);
+        } catch (IOException e) {
+            logger.warn("Couldn't serialize state '{}' of item '{}': {}", state, alias, e.getMessage());
+            return;
+        }
+        dbLock.readLock().lock();
+        try {
+            map.put(alias, data);
+            MapDbHistoryStore history = this.history;
+            if (history != null) {
+                history.append(alias, state, mItem.getTimestamp());
+            }
+            committer.writePerformed();
+        } finally {
+            dbLock.readLock().unlock();
+        }
         logger.debug("Stored '{}' with state '{}' in MapDB database", alias, state.toString());
     }
 
     @Override
     public Iterable<HistoricItem> query(FilterCriteria filter) {
-        String json = map.get(filter.getItemName());
-        if (json == null) {
+        String name = filter.getItemName();
+        MapDbHistoryStore history = this.history;
+        // items which were only stored before the history mode was enabled are answered from their last state
+        if (history != null && name != null && history.contains(name)) {
+            return history.query(filter);
+        }
+        byte[] data = name == null ? null : map.get(name);
+        if (data == null) {
             return Collections.emptyList();
         }
-        Optional<MapDbItem> item = deserialize(json);
+        Optional<MapDbItem> item = deserialize(name, data);
         if (!item.isPresent()) {
             return Collections.emptyList();
         }
         return Collections.singletonList(item.get());
     }
 
-    private String serialize(MapDbItem item) {
-        return mapper.toJson(item);
+    private byte[] serialize(MapDbItem item) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(24);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeLong(item.getTimestamp().getTime());
+            StateCodec.write(out, item.getState());
+        }
+        return bytes.toByteArray();
     }
 
-    private Optional<MapDbItem> deserialize(String json) {
-        MapDbItem item = mapper.<MapDbItem>fromJson(json, MapDbItem.class);
-        if (item == null || !item.isValid()) {
-            logger.warn("Deserialized invalid item: {}", item);
+    private Optional<MapDbItem> deserialize(String name, byte[] data) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(data))) {
+            MapDbItem item = new MapDbItem();
+            item.setName(name);
+            item.setTimestamp(new Date(in.readLong()));
+            item.setState(StateCodec.read(in));
+            return Optional.of(item);
+        } catch (IOException e) {
+            logger.warn("Couldn't deserialize state of item '{}': {}", name, e.getMessage());
             return Optional.empty();
         }
-        return Optional.of(item);
     }
 
-    private void commit() {
-        threadPool.submit(() -> db.commit());
+    /**
+     * Converts the JSON encoded states written by older versions of this service into the binary format.
+     */
+    private void migrateLegacyItemStore() {
+        if (!db.exists(LEGACY_ITEM_STORE_MAP_NAME)) {
+            return;
+        }
+        Gson mapper = new GsonBuilder().registerTypeHierarchyAdapter(State.class, new StateTypeAdapter()).create();
+        Map<String, String> legacyMap = db.getTreeMap(LEGACY_ITEM_STORE_MAP_NAME);
+        int migrated = 0;
+        for (Map.Entry<String, String> entry : legacyMap.entrySet()) {
+            MapDbItem item = mapper.<MapDbItem>fromJson(entry.getValue(), MapDbItem.class);
+            if (item == null || !item.isValid()) {
+                logger.warn("Skipping invalid item '{}' during migration", entry.getKey());
+                continue;
+            }
+            try {
+                map.putIfAbsent(entry.getKey(), serialize(item));
+                migrated++;
+            } catch (IOException e) {
+                logger.warn("Couldn't migrate state of item '{}': {}", entry.getKey(), e.getMessage());
+            }
+        }
+        db.delete(LEGACY_ITEM_STORE_MAP_NAME);
+        db.commit();
+        logger.info("Migrated {} items of the MapDB database to the binary format", migrated);
+    }
+
+    private void compactHistory(MapDbConfiguration config) {
+        dbLock.writeLock().lock();
+        try {
+            MapDbHistoryStore history = this.history;
+            if (history == null) {
+                return;
+            }
+            long cutoff = config.historyRetentionDays > 0
+                    ? System.currentTimeMillis() - TimeUnit.DAYS.toMillis(config.historyRetentionDays)
+                    : Long.MIN_VALUE;
+            int removed = history.applyRetention(cutoff, config.historyMaxEntriesPerItem);
+            if (removed > 0) {
+                committer.writePerformed();
+            }
+            // commit through the coalescer, its scheduled commit has nothing left to do then
+            committer.commit();
+            if (removed > 0) {
+                // give the space of the removed records back to the file system
+                db.compact();
+            }
+            logger.debug("MapDB history compaction removed {} records", removed);
+        } catch (RuntimeException | Error e) {
+            // MapDB signals a non empty write ahead log with an Error, it must not end the scheduled job
+            logger.warn("MapDB history compaction failed: {}", e.getMessage(), e);
+        } finally {
+            dbLock.writeLock().unlock();
+        }
     }
 
     private static <T> Stream<T> streamOptional(Optional<T> opt) {
@@ -0,0 +1,262 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.mapdb.internal;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.Collections;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.smarthome.core.library.types.DateTimeType;
+import org.eclipse.smarthome.core.library.types.DecimalType;
+import org.eclipse.smarthome.core.library.types.HSBType;
+import org.eclipse.smarthome.core.library.types.OnOffType;
+import org.eclipse.smarthome.core.library.types.OpenClosedType;
+import org.eclipse.smarthome.core.library.types.PercentType;
+import org.eclipse.smarthome.core.library.types.PlayPauseType;
+import org.eclipse.smarthome.core.library.types.RawType;
+import org.eclipse.smarthome.core.library.types.RewindFastforwardType;
+import org.eclipse.smarthome.core.library.types.StringType;
+import org.eclipse.smarthome.core.library.types.UpDownType;
+import org.eclipse.smarthome.core.types.State;
+import org.eclipse.smarthome.core.types.TypeParser;
+
+/**
+ * Compact binary encoding of Eclipse SmartHome {@link State} values.
+ *
+ * Every value starts with a one byte type tag followed by a primitive payload. The common state types are written
+ * without any text conversion, all other types fall back to their class name and full string representation.
+ *
+ * @author Martin van Wingerden - Initial contribution
+ */
+@NonNullByDefault
+public final class StateCodec {
+
+    /** class name and full string representation, used for all types without a dedicated tag */
+    private static final byte TAG_GENERIC = 0;
+    private static final byte TAG_ON_OFF = 1;
+    private static final byte TAG_OPEN_CLOSED = 2;
+    private static final byte TAG_UP_DOWN = 3;
+    private static final byte TAG_PLAY_PAUSE = 4;
+    private static final byte TAG_REWIND_FASTFORWARD = 5;
+    /** a {@link DecimalType} without fraction that fits into a long */
+    private static final byte TAG_DECIMAL_LONG = 6;
+    private static final byte TAG_DECIMAL = 7;
+    private static final byte TAG_PERCENT = 8;
+    private static final byte TAG_HSB = 9;
+    private static final byte TAG_STRING = 10;
+    private static final byte TAG_DATE_TIME = 11;
+    private static final byte TAG_RAW = 12;
+
+    private StateCodec() {
+        // static utility class
+    }
+
+    /**
+     * Encodes the given state into a new byte array.
+     *
+     * @param state the state to encode
+     * @return the encoded state
+     * @throws IOException if the state cannot be encoded
+     */
+    public static byte[] encode(State state) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(16);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            write(out, state);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Decodes a state previously encoded with {@link #encode(State)}.
+     *
+     * @param data the encoded state
+     * @return the decoded state
+     * @throws IOException if the data cannot be decoded
+     */
+    public static State decode(byte[] data) throws IOException {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(data))) {
+            return read(in);
+        }
+    }
+
+    /**
+     * Writes the type tag and payload of the given state.
+     *
+     * @param out the output to write to
+     * @param state the state to write
+     * @throws IOException if the state cannot be written
+     */
+    public static void write(DataOutput out, State state) throws IOException {
+        // compare the exact class, as e.g. HSBType extends PercentType extends DecimalType
+        Class<?> type = state.getClass();
+        if (type == OnOffType.class) {
+            writeEnum(out, TAG_ON_OFF, (OnOffType) state);
+        } else if (type == OpenClosedType.class) {
+            writeEnum(out, TAG_OPEN_CLOSED, (OpenClosedType) state);
+        } else if (type == UpDownType.class) {
+            writeEnum(out, TAG_UP_DOWN, (UpDownType) state);
+        } else if (type == PlayPauseType.class) {
+            writeEnum(out, TAG_PLAY_PAUSE, (PlayPauseType) state);
+        } else if (type == RewindFastforwardType.class) {
+            writeEnum(out, TAG_REWIND_FASTFORWARD, (RewindFastforwardType) state);
+        } else if (type == DecimalType.class) {
+            BigDecimal value = ((DecimalType) state).toBigDecimal();
+            if (value.scale() == 0 && value.unscaledValue().bitLength() < Long.SIZE) {
+                out.writeByte(TAG_DECIMAL_LONG);
+                out.writeLong(value.longValue());
+            } else {
+                out.writeByte(TAG_DECIMAL);
+                writeBigDecimal(out, value);
+            }
+        } else if (type == PercentType.class) {
+            out.writeByte(TAG_PERCENT);
+            writeBigDecimal(out, ((PercentType) state).toBigDecimal());
+        } else if (type == HSBType.class) {
+            HSBType hsb = (HSBType) state;
+            out.writeByte(TAG_HSB);
+            writeBigDecimal(out, hsb.getHue().toBigDecimal());
+            writeBigDecimal(out, hsb.getSaturation().toBigDecimal());
+            writeBigDecimal(out, hsb.getBrightness().toBigDecimal());
+        } else if (type == StringType.class) {
+            out.writeByte(TAG_STRING);
+            writeBytes(out, state.toFullString().getBytes(StandardCharsets.UTF_8));
+        } else if (type == DateTimeType.class) {
+            ZonedDateTime dateTime = ((DateTimeType) state).getZonedDateTime();
+            Instant instant = dateTime.toInstant();
+            out.writeByte(TAG_DATE_TIME);
+            out.writeLong(instant.getEpochSecond());
+            out.writeInt(instant.getNano());
+            out.writeUTF(dateTime.getZone().getId());
+        } else if (type == RawType.class) {
+            RawType raw = (RawType) state;
+            out.writeByte(TAG_RAW);
+            out.writeUTF(raw.getMimeType());
+            writeBytes(out, raw.getBytes());
+        } else {
+            out.writeByte(TAG_GENERIC);
+            out.writeUTF(type.getName());
+            out.writeUTF(state.toFullString());
+        }
+    }
+
+    /**
+     * Reads a state previously written with {@link #write(DataOutput, State)}.
+     *
+     * @param in the input to read from
+     * @return the state
+     * @throws IOException if no valid state could be read
+     */
+    public static State read(DataInput in) throws IOException {
+        byte tag = in.readByte();
+        switch (tag) {
+            case TAG_ON_OFF:
+                return readEnum(in, OnOffType.values());
+            case TAG_OPEN_CLOSED:
+                return readEnum(in, OpenClosedType.values());
+            case TAG_UP_DOWN:
+                return readEnum(in, UpDownType.values());
+            case TAG_PLAY_PAUSE:
+                return readEnum(in, PlayPauseType.values());
+            case TAG_REWIND_FASTFORWARD:
+                return readEnum(in, RewindFastforwardType.values());
+            case TAG_DECIMAL_LONG:
+                return new DecimalType(in.readLong());
+            case TAG_DECIMAL:
+                return new DecimalType(readBigDecimal(in));
+            case TAG_PERCENT:
+                return new PercentType(readBigDecimal(in));
+            case TAG_HSB:
+                return new HSBType(new DecimalType(readBigDecimal(in)), new PercentType(readBigDecimal(in)),
+                        new PercentType(readBigDecimal(in)));
+            case TAG_STRING:
+                return new StringType(new String(readBytes(in), StandardCharsets.UTF_8));
+            case TAG_DATE_TIME:
+                Instant instant = Instant.ofEpochSecond(in.readLong(), in.readInt());
+                return new DateTimeType(ZonedDateTime.ofInstant(instant, ZoneId.of(in.readUTF())));
+            case TAG_RAW:
+                String mimeType = in.readUTF();
+                return new RawType(readBytes(in), mimeType);
+            case TAG_GENERIC:
+                return readGeneric(in);
+            default:
+                throw new IOException("Unknown state type tag " + tag);
+        }
+    }
+
+    private static State readGeneric(DataInput in) throws IOException {
+        String typeName = in.readUTF();
+        String value = in.readUTF();
+        State state;
+        try {
+            @SuppressWarnings("unchecked")
+            Class<? extends State> valueType = (Class<? extends State>) Class.forName(typeName);
+            state = TypeParser.parseState(Collections.singletonList(valueType), value);
+        } catch (ClassNotFoundException | ClassCastException e) {
+            throw new IOException("Unknown state type " + typeName, e);
+        }
+        if (state == null) {
+            throw new IOException("Couldn't parse '" + value + "' as " + typeName);
+        }
+        return state;
+    }
+
+    private static void writeEnum(DataOutput out, byte tag, Enum<?> value) throws IOException {
+        out.writeByte(tag);
+        out.writeByte(value.ordinal());
+    }
+
+    private static <T extends State> T readEnum(DataInput in, T[] values) throws IOException {
+        int ordinal = in.readUnsignedByte();
+        if (ordinal >= values.length) {
+            throw new IOException("Invalid ordinal " + ordinal);
+        }
+        return values[ordinal];
+    }
+
+    private static void writeBigDecimal(DataOutput out, BigDecimal value) throws IOException {
+        out.writeInt(value.scale());
+        writeBytes(out, value.unscaledValue().toByteArray());
+    }
+
+    private static BigDecimal readBigDecimal(DataInput in) throws IOException {
+        int scale = in.readInt();
+        return new BigDecimal(new BigInteger(readBytes(in)), scale);
+    }
+
+    private static void writeBytes(DataOutput out, byte[] data) throws IOException {
+        out.writeInt(data.length);
+        out.write(data);
+    }
+
+    private static byte[] readBytes(DataInput in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            throw new IOException("Invalid length " + length);
+        }
+        byte[] data = new byte[length];
+        in.readFully(data);
+        return data;
+    }
+}
@@ -0,0 +1,98 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.mapdb;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.openhab.persistence.mapdb.internal.MapDbCommitCoalescer;
+
+/**
+ *
+ * @author Martin van Wingerden - Initial contribution
+ */
+public class MapDbCommitCoalescerTest {
+    private ScheduledExecutorService scheduler;
+    private final AtomicInteger commits = new AtomicInteger();
+
+    @Before
+    public void setUp() {
+        scheduler = Executors.newSingleThreadScheduledExecutor();
+    }
+
+    @After
+    public void tearDown() {
+        scheduler.shutdownNow();
+    }
+
+    @Test
+    public void writesWithinTheIntervalShouldBeCommittedTogether() throws InterruptedException, ExecutionException {
+        MapDbCommitCoalescer committer = new MapDbCommitCoalescer(commits::incrementAndGet, scheduler, 100, 1000);
+
+        for (int i = 0; i < 10; i++) {
+            committer.writePerformed();
+        }
+        assertThat(commits.get(), is(0));
+
+        awaitScheduledCommits();
+        assertThat(commits.get(), is(1));
+        assertThat(committer.getCommittedWrites(), is(10L));
+        assertThat(committer.getPendingWrites(), is(0));
+    }
+
+    @Test
+    public void maxPendingWritesShouldTriggerAnImmediateCommit() throws InterruptedException, ExecutionException {
+        MapDbCommitCoalescer committer = new MapDbCommitCoalescer(commits::incrementAndGet, scheduler, 60000, 5);
+
+        for (int i = 0; i < 5; i++) {
+            committer.writePerformed();
+        }
+
+        awaitScheduledCommits();
+        assertThat(commits.get(), is(1));
+        assertThat(committer.getCommittedWrites(), is(5L));
+    }
+
+    @Test
+    public void closeShouldCommitPendingWritesAndStopLaterCommits() throws InterruptedException, ExecutionException {
+        MapDbCommitCoalescer committer = new MapDbCommitCoalescer(commits::incrementAndGet, scheduler, 100, 1000);
+
+        committer.writePerformed();
+        committer.close();
+        assertThat(commits.get(), is(1));
+
+        committer.writePerformed();
+        committer.commit();
+        awaitScheduledCommits();
+        assertThat(commits.get(), is(1));
+        assertThat(committer.getPendingWrites(), is(1));
+    }
+
+    private void awaitScheduledCommits() throws InterruptedException, ExecutionException {
+        // the scheduler has a single thread, all commits which were not delayed are done once this task ran
+        scheduler.submit(() -> {
+        }).get();
+        // delayed tasks are still executed after a shutdown, cancelled ones are not
+        scheduler.shutdown();
+        assertTrue(scheduler.awaitTermination(1, TimeUnit.SECONDS));
+    }
+}
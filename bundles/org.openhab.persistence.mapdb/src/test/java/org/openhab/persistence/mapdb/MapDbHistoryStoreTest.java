@@ -0,0 +1,116 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.mapdb;
+
+import static java.util.Arrays.asList;
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import org.eclipse.smarthome.core.library.types.DecimalType;
+import org.eclipse.smarthome.core.persistence.FilterCriteria;
+import org.eclipse.smarthome.core.persistence.FilterCriteria.Operator;
+import org.eclipse.smarthome.core.persistence.FilterCriteria.Ordering;
+import org.eclipse.smarthome.core.persistence.HistoricItem;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mapdb.DB;
+import org.mapdb.DBMaker;
+import org.openhab.persistence.mapdb.internal.MapDbHistoryStore;
+
+/**
+ *
+ * @author Martin van Wingerden - Initial contribution
+ */
+public class MapDbHistoryStoreTest {
+    private DB db;
+    private MapDbHistoryStore store;
+
+    @Before
+    public void setUp() {
+        db = DBMaker.newMemoryDB().make();
+        store = new MapDbHistoryStore(db);
+        for (int i = 1; i <= 10; i++) {
+            store.append("item", new DecimalType(i), new Date(i * 1000L));
+            store.append("other", new DecimalType(-i), new Date(i * 1000L));
+        }
+    }
+
+    @After
+    public void tearDown() {
+        db.close();
+    }
+
+    @Test
+    public void queryShouldOnlyReturnRecordsOfTheItemWithinTheRange() {
+        FilterCriteria filter = new FilterCriteria().setItemName("item").setBeginDate(new Date(3000))
+                .setEndDate(new Date(5000)).setOrdering(Ordering.ASCENDING);
+
+        assertThat(values(store.query(filter)), is(equalTo(asList(3, 4, 5))));
+    }
+
+    @Test
+    public void queryShouldHonourOrderingAndPaging() {
+        FilterCriteria filter = new FilterCriteria().setItemName("item").setOrdering(Ordering.DESCENDING)
+                .setPageSize(3).setPageNumber(1);
+
+        assertThat(values(store.query(filter)), is(equalTo(asList(7, 6, 5))));
+    }
+
+    @Test
+    public void queryShouldApplyTheStateFilter() {
+        FilterCriteria filter = new FilterCriteria().setItemName("item").setOrdering(Ordering.ASCENDING)
+                .setOperator(Operator.GT).setState(new DecimalType(8));
+
+        assertThat(values(store.query(filter)), is(equalTo(asList(9, 10))));
+    }
+
+    @Test
+    public void retentionShouldRemoveOldAndExcessRecords() {
+        int removed = store.applyRetention(3000, 5);
+
+        // 2 records per item are older than the cutoff, 3 more per item exceed the maximum
+        assertThat(removed, is(10));
+        FilterCriteria filter = new FilterCriteria().setItemName("item").setOrdering(Ordering.ASCENDING);
+        assertThat(values(store.query(filter)), is(equalTo(asList(6, 7, 8, 9, 10))));
+    }
+
+    @Test
+    public void retentionShouldKeepTheNewestRecordOfAnItem() {
+        int removed = store.applyRetention(20000, 0);
+
+        assertThat(removed, is(18));
+        FilterCriteria filter = new FilterCriteria().setItemName("item").setOrdering(Ordering.ASCENDING);
+        assertThat(values(store.query(filter)), is(equalTo(asList(10))));
+        assertThat(store.contains("item"), is(true));
+    }
+
+    @Test
+    public void containsShouldOnlyReportItemsWithRecords() {
+        assertThat(store.contains("item"), is(true));
+        assertThat(store.contains("ite"), is(false));
+        assertThat(store.contains("unknown"), is(false));
+    }
+
+    private static List<Integer> values(Iterable<HistoricItem> items) {
+        List<Integer> values = new ArrayList<>();
+        for (HistoricItem item : items) {
+            values.add(((DecimalType) item.getState()).intValue());
+        }
+        return values;
+    }
+}
@@ -0,0 +1,68 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.mapdb;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+
+import org.eclipse.smarthome.core.library.types.DateTimeType;
+import org.eclipse.smarthome.core.library.types.DecimalType;
+import org.eclipse.smarthome.core.library.types.HSBType;
+import org.eclipse.smarthome.core.library.types.OnOffType;
+import org.eclipse.smarthome.core.library.types.OpenClosedType;
+import org.eclipse.smarthome.core.library.types.PercentType;
+import org.eclipse.smarthome.core.library.types.PointType;
+import org.eclipse.smarthome.core.library.types.QuantityType;
+import org.eclipse.smarthome.core.library.types.RawType;
+import org.eclipse.smarthome.core.library.types.StringType;
+import org.eclipse.smarthome.core.types.State;
+import org.junit.Test;
+import org.openhab.persistence.mapdb.internal.StateCodec;
+
+/**
+ *
+ * @author Martin van Wingerden - Initial contribution
+ */
+public class StateCodecTest {
+
+    @Test
+    public void encodeDecodeRoundtripShouldRecreateTheEncodedState() throws IOException {
+        assertRoundtrip(OnOffType.OFF);
+        assertRoundtrip(OpenClosedType.OPEN);
+        assertRoundtrip(new DecimalType(42));
+        assertRoundtrip(new DecimalType(Long.MIN_VALUE));
+        assertRoundtrip(new DecimalType(new BigDecimal("-12.3456")));
+        assertRoundtrip(new DecimalType(new BigDecimal("123456789012345678901234567890")));
+        assertRoundtrip(PercentType.HUNDRED);
+        assertRoundtrip(HSBType.GREEN);
+        assertRoundtrip(StringType.valueOf("test äöü"));
+        assertRoundtrip(new DateTimeType("2019-10-12T07:30:00.123+02:00"));
+        assertRoundtrip(new RawType(new byte[] { 1, 2, 3 }, "application/octet-stream"));
+        // types without a dedicated tag
+        assertRoundtrip(new QuantityType<>("21.5 °C"));
+        assertRoundtrip(new PointType("52.5,6.1"));
+    }
+
+    @Test
+    public void primitiveStatesShouldBeEncodedCompactly() throws IOException {
+        assertThat(StateCodec.encode(OnOffType.ON).length, is(2));
+        assertThat(StateCodec.encode(new DecimalType(42)).length, is(9));
+    }
+
+    private void assertRoundtrip(State state) throws IOException {
+        assertThat(StateCodec.decode(StateCodec.encode(state)), is(equalTo(state)));
+    }
+}
@@ -17,9 +17,19 @@ import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStreamReader;
 import java.io.Reader;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
 
+import javax.script.Bindings;
 import javax.script.Compilable;
 import javax.script.CompiledScript;
 import javax.script.ScriptEngine;
@@ -27,53 +37,201 @@ import javax.script.ScriptEngineManager;
 import javax.script.ScriptException;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.smarthome.core.transform.TransformationException;
 import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Deactivate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
- * Simple cache for compiled JavaScript files.
+ * Bounded pool of JavaScript engines, each with its own cache of compiled JavaScript files.
+ *
+ * A {@link ScriptEngine} must not evaluate scripts from several threads at the same time, so each transformation
+ * borrows an engine for the duration of the evaluation. Scripts are compiled per engine, as a {@link CompiledScript}
+ * is bound to the engine that compiled it. At most one engine per processor is created.
  *
  * @author Thomas Kordelle - pre compiled scripts
+ * @author Martin van Wingerden - engine pool and execution statistics
  *
  */
 @NonNullByDefault
 @Component(service = JavaScriptEngineManager.class)
 public class JavaScriptEngineManager {
 
+    private static final long ACQUIRE_TIMEOUT_SECONDS = 60;
+
     private final Logger logger = LoggerFactory.getLogger(JavaScriptEngineManager.class);
-    private final ScriptEngineManager manager = new ScriptEngineManager();
-    /* keep memory foot print low. max 2 concurrent threads are estimated */
-    private final Map<String, CompiledScript> compiledScriptMap = new ConcurrentHashMap<>(4, 0.5f, 2);
+
+    private final int maxEngines;
+    private final long acquireTimeoutMillis;
+    private final Supplier<@Nullable ScriptEngine> engineFactory;
+    private final AtomicInteger createdEngines = new AtomicInteger();
+    private final BlockingQueue<PooledEngine> idleEngines = new LinkedBlockingQueue<>();
+    private final List<PooledEngine> allEngines = new CopyOnWriteArrayList<>();
+
+    private final Map<String, ScriptStatistics> statistics = new ConcurrentHashMap<>();
 
     /**
-     * Get a pre compiled script {@link CompiledScript} from cache. If it is not in the cache, then load it from
-     * storage and put a pre compiled version into the cache.
+     * A script engine together with the scripts it has compiled.
+     */
+    static class PooledEngine {
+        private final ScriptEngine engine;
+        /* only used by the thread that borrowed the engine, but cleared by the file watcher */
+        private final Map<String, CompiledScript> compiledScriptMap = new ConcurrentHashMap<>(4, 0.5f, 2);
+
+        private PooledEngine(ScriptEngine engine) {
+            this.engine = engine;
+        }
+    }
+
+    /**
+     * Execution time statistics of a single script.
+     */
+    private static class ScriptStatistics {
+        private final LongAdder executions = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+
+        private void record(long nanos) {
+            executions.increment();
+            totalNanos.add(nanos);
+            maxNanos.accumulateAndGet(nanos, Math::max);
+        }
+
+        public long getExecutions() {
+            return executions.sum();
+        }
+
+        public long getAverageMicros() {
+            long count = executions.sum();
+            return count == 0 ? 0 : TimeUnit.NANOSECONDS.toMicros(totalNanos.sum() / count);
+        }
+
+        public long getMaxMicros() {
+            return TimeUnit.NANOSECONDS.toMicros(maxNanos.get());
+        }
+
+        @Override
+        public String toString() {
+            return "executions=" + getExecutions() + ", average=" + getAverageMicros() + "us, max=" + getMaxMicros()
+                    + "us";
+        }
+    }
+
+    public JavaScriptEngineManager() {
+        this(Math.max(1, Runtime.getRuntime().availableProcessors()),
+                TimeUnit.SECONDS.toMillis(ACQUIRE_TIMEOUT_SECONDS), javaScriptEngines());
+    }
+
+    /**
+     * Creates a pool of engines.
      *
-     * @param filename name of the JavaScript file to load
-     * @return a pre compiled script {@link CompiledScript}
-     * @throws TransformationException if compile of JavaScript failed
+     * @param maxEngines the maximum number of engines to create
+     * @param acquireTimeoutMillis how long to wait for an engine, if all engines are in use
+     * @param engineFactory creates the engines, returns null if no engine is available
      */
-    protected CompiledScript getScript(final String filename) throws TransformationException {
-        synchronized (compiledScriptMap) {
-            if (compiledScriptMap.containsKey(filename)) {
-                logger.debug("Loading JavaScript {} from cache.", filename);
-                return compiledScriptMap.get(filename);
-            } else {
-                final String path = TransformationScriptWatcher.TRANSFORM_FOLDER + File.separator + filename;
-                logger.debug("Loading script {} from storage ", path);
-                try (final Reader reader = new InputStreamReader(new FileInputStream(path))) {
-                    final ScriptEngine engine = manager.getEngineByName("javascript");
-                    final CompiledScript cScript = ((Compilable) engine).compile(reader);
-                    logger.debug("Putting compiled JavaScript {} to cache.", cScript);
-                    compiledScriptMap.put(filename, cScript);
-                    return cScript;
-                } catch (IOException | ScriptException e) {
-                    throw new TransformationException("An error occurred while loading JavaScript. " + e.getMessage(),
-                            e);
-                }
+    JavaScriptEngineManager(int maxEngines, long acquireTimeoutMillis,
+            Supplier<@Nullable ScriptEngine> engineFactory) {
+        this.maxEngines = maxEngines;
+        this.acquireTimeoutMillis = acquireTimeoutMillis;
+        this.engineFactory = engineFactory;
+    }
+
+    private static Supplier<@Nullable ScriptEngine> javaScriptEngines() {
+        final ScriptEngineManager manager = new ScriptEngineManager();
+        return () -> manager.getEngineByName("javascript");
+    }
+
+    /**
+     * Evaluates a JavaScript file on one of the pooled engines. The pre compiled script is taken from the cache of
+     * that engine, if it is not in the cache yet it is loaded from storage and compiled first.
+     *
+     * @param filename name of the JavaScript file to evaluate
+     * @param variables the variables to bind during the evaluation
+     * @return the result of the script
+     * @throws TransformationException if loading, compiling or evaluating the JavaScript failed
+     */
+    protected @Nullable Object eval(final String filename, final Map<String, Object> variables)
+            throws TransformationException {
+        final PooledEngine pooledEngine = acquire();
+        try {
+            final CompiledScript cScript = getScript(pooledEngine, filename);
+            final Bindings bindings = pooledEngine.engine.createBindings();
+            bindings.putAll(variables);
+
+            final long start = System.nanoTime();
+            try {
+                return cScript.eval(bindings);
+            } finally {
+                statistics.computeIfAbsent(filename, name -> new ScriptStatistics()).record(System.nanoTime() - start);
+            }
+        } catch (ScriptException e) {
+            throw new TransformationException("An error occurred while executing script. " + e.getMessage(), e);
+        } finally {
+            release(pooledEngine);
+        }
+    }
+
+    /**
+     * Borrows an idle engine, creates a new one if the pool is not exhausted or waits for an engine to be released.
+     *
+     * @throws TransformationException if no engine is available or none was released in time
+     */
+    PooledEngine acquire() throws TransformationException {
+        PooledEngine pooledEngine = idleEngines.poll();
+        if (pooledEngine != null) {
+            return pooledEngine;
+        }
+        if (createdEngines.incrementAndGet() <= maxEngines) {
+            final ScriptEngine engine = engineFactory.get();
+            if (engine == null) {
+                createdEngines.decrementAndGet();
+                throw new TransformationException("No JavaScript engine available.");
             }
+            logger.debug("Created JavaScript engine {} of {}.", createdEngines.get(), maxEngines);
+            pooledEngine = new PooledEngine(engine);
+            allEngines.add(pooledEngine);
+            return pooledEngine;
+        }
+        createdEngines.decrementAndGet();
+        try {
+            pooledEngine = idleEngines.poll(acquireTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TransformationException("Interrupted while waiting for a JavaScript engine.", e);
+        }
+        if (pooledEngine == null) {
+            throw new TransformationException(
+                    "No JavaScript engine became available within " + acquireTimeoutMillis + " milliseconds.");
+        }
+        return pooledEngine;
+    }
+
+    /**
+     * Returns a borrowed engine to the pool.
+     */
+    void release(PooledEngine pooledEngine) {
+        idleEngines.offer(pooledEngine);
+    }
+
+    private CompiledScript getScript(final PooledEngine pooledEngine, final String filename)
+            throws TransformationException {
+        final CompiledScript cached = pooledEngine.compiledScriptMap.get(filename);
+        if (cached != null) {
+            logger.debug("Loading JavaScript {} from cache.", filename);
+            return cached;
+        }
+
+        final String path = TransformationScriptWatcher.TRANSFORM_FOLDER + File.separator + filename;
+        logger.debug("Loading script {} from storage ", path);
+        try (final Reader reader = new InputStreamReader(new FileInputStream(path))) {
+            final CompiledScript cScript = ((Compilable) pooledEngine.engine).compile(reader);
+            logger.debug("Putting compiled JavaScript {} to cache.", cScript);
+            pooledEngine.compiledScriptMap.put(filename, cScript);
+            return cScript;
+        } catch (IOException | ScriptException e) {
+            throw new TransformationException("An error occurred while loading JavaScript. " + e.getMessage(), e);
         }
     }
 
@@ -84,6 +242,17 @@ public class JavaScriptEngineManager {
      */
     protected void removeFromCache(String fileName) {
         logger.debug("Removing JavaScript {} from cache.", fileName);
-        compiledScriptMap.remove(fileName);
+        for (PooledEngine pooledEngine : allEngines) {
+            pooledEngine.compiledScriptMap.remove(fileName);
+        }
+    }
+
+    @Deactivate
+    protected void deactivate() {
+        if (logger.isDebugEnabled()) {
+            statistics.forEach((filename, stats) -> logger.debug("JavaScript {}: {}", filename, stats));
+        }
+        allEngines.clear();
+        idleEngines.clear();
     }
 }
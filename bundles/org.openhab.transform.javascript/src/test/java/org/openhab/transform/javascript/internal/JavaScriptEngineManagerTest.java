@@ -0,0 +1,122 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.transform.javascript.internal;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.lang.reflect.Proxy;
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.script.ScriptEngine;
+
+import org.eclipse.smarthome.core.transform.TransformationException;
+import org.junit.Test;
+import org.openhab.transform.javascript.internal.JavaScriptEngineManager.PooledEngine;
+
+/**
+ * Tests cases for the engine pool of {@link JavaScriptEngineManager}.
+ *
+ * @author Martin van Wingerden - Initial contribution
+ */
+public class JavaScriptEngineManagerTest {
+    private static final long ACQUIRE_TIMEOUT = 200;
+
+    private final AtomicInteger createdEngines = new AtomicInteger();
+
+    private JavaScriptEngineManager createManager(int maxEngines, long acquireTimeout) {
+        return new JavaScriptEngineManager(maxEngines, acquireTimeout, () -> {
+            createdEngines.incrementAndGet();
+            return (ScriptEngine) Proxy.newProxyInstance(getClass().getClassLoader(),
+                    new Class<?>[] { ScriptEngine.class }, (proxy, method, args) -> null);
+        });
+    }
+
+    @Test
+    public void releasedEnginesAreReused() throws Exception {
+        JavaScriptEngineManager subject = createManager(2, ACQUIRE_TIMEOUT);
+
+        PooledEngine engine = subject.acquire();
+        subject.release(engine);
+
+        assertThat(subject.acquire(), is(sameInstance(engine)));
+        assertThat(createdEngines.get(), is(1));
+    }
+
+    @Test
+    public void exhaustedPoolTimesOut() throws Exception {
+        JavaScriptEngineManager subject = createManager(2, ACQUIRE_TIMEOUT);
+        subject.acquire();
+        subject.acquire();
+
+        long start = System.nanoTime();
+        try {
+            subject.acquire();
+            fail("The pool is exhausted");
+        } catch (TransformationException e) {
+            assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) >= ACQUIRE_TIMEOUT);
+        }
+        assertThat(createdEngines.get(), is(2));
+    }
+
+    @Test
+    public void exhaustedPoolWaitsForARelease() throws Exception {
+        JavaScriptEngineManager subject = createManager(1, TimeUnit.SECONDS.toMillis(10));
+        PooledEngine engine = subject.acquire();
+
+        CompletableFuture<PooledEngine> waiting = CompletableFuture.supplyAsync(() -> {
+            try {
+                return subject.acquire();
+            } catch (TransformationException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        Thread.sleep(ACQUIRE_TIMEOUT);
+        assertFalse(waiting.isDone());
+
+        subject.release(engine);
+        assertThat(waiting.get(5, TimeUnit.SECONDS), is(sameInstance(engine)));
+        assertThat(createdEngines.get(), is(1));
+    }
+
+    @Test
+    public void engineIsReleasedIfTheEvaluationFails() throws Exception {
+        JavaScriptEngineManager subject = createManager(1, ACQUIRE_TIMEOUT);
+
+        try {
+            subject.eval("doesNotExist.js", Collections.emptyMap());
+            fail("The script does not exist");
+        } catch (TransformationException e) {
+            assertTrue(e.getMessage().startsWith("An error occurred while loading JavaScript."));
+        }
+
+        // would time out if the engine was not returned to the pool
+        assertThat(subject.acquire(), is(notNullValue()));
+        assertThat(createdEngines.get(), is(1));
+    }
+
+    @Test
+    public void missingEngineIsReported() throws Exception {
+        JavaScriptEngineManager subject = new JavaScriptEngineManager(1, ACQUIRE_TIMEOUT, () -> null);
+
+        try {
+            subject.acquire();
+            fail("There is no engine");
+        } catch (TransformationException e) {
+            assertThat(e.getMessage(), is("No JavaScript engine available."));
+        }
+    }
+}
@@ -13,12 +13,11 @@
 package org.openhab.transform.jinja.internal;
 
 import java.io.IOException;
-import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
-import java.util.Iterator;
-import java.util.List;
+import java.util.LinkedHashMap;
 import java.util.Map;
-import java.util.Map.Entry;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
@@ -31,6 +30,13 @@ import org.slf4j.LoggerFactory;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.hubspot.jinjava.Jinjava;
+import com.hubspot.jinjava.JinjavaConfig;
+import com.hubspot.jinjava.interpret.Context;
+import com.hubspot.jinjava.interpret.InterpretException;
+import com.hubspot.jinjava.interpret.JinjavaInterpreter;
+import com.hubspot.jinjava.interpret.TemplateError;
+import com.hubspot.jinjava.interpret.TemplateError.ErrorType;
+import com.hubspot.jinjava.tree.Node;
 
 /**
  * <p>
@@ -43,9 +49,29 @@ import com.hubspot.jinjava.Jinjava;
 @Component(immediate = true, property = { "smarthome.transform=JINJA" })
 public class JinjaTransformationService implements TransformationService {
 
+    private static final int CACHE_SIZE = 200;
+
+    private static final String VALUE_JSON = "value_json";
+
+    /** an ObjectMapper is thread-safe once configured, so all transformations share one instance */
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
     private final Logger logger = LoggerFactory.getLogger(JinjaTransformationService.class);
 
-    private Jinjava jinjava = new Jinjava();
+    private final Jinjava jinjava = new Jinjava();
+
+    /** parsed templates, rendering a template does not modify its node tree */
+    @SuppressWarnings("serial")
+    private final Map<String, Node> templateCache = Collections
+            .synchronizedMap(new LinkedHashMap<String, Node>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Node> eldest) {
+                    return size() > CACHE_SIZE;
+                }
+            });
+
+    private final AtomicLong cacheHits = new AtomicLong();
+    private final AtomicLong cacheMisses = new AtomicLong();
 
     /**
      * Transforms the input <code>value</code> by Jinja template.
@@ -61,47 +87,64 @@ public class JinjaTransformationService implements TransformationService {
         Map<String, @Nullable Object> bindings = new HashMap<>();
         bindings.put("value", value);
 
-        try {
-            JsonNode tree = new ObjectMapper().readTree(value);
-            bindings.put("value_json", toObject(tree));
-        } catch (IOException e) {
-            // ok, then value_json is null...
+        // only parse the JSON if the template can use it
+        if (template.contains(VALUE_JSON)) {
+            try {
+                JsonNode tree = MAPPER.readTree(value);
+                bindings.put(VALUE_JSON, JsonNodeBindings.toObject(tree));
+            } catch (IOException e) {
+                // ok, then value_json is null...
+            }
         }
 
-        String transformationResult = jinjava.render(template, bindings);
+        String transformationResult = render(template, bindings);
 
         logger.debug("transformation resulted in '{}'", transformationResult);
 
         return transformationResult;
     }
 
-    private static @Nullable Object toObject(JsonNode node) {
-        switch (node.getNodeType()) {
-            case ARRAY: {
-                List<@Nullable Object> result = new ArrayList<>();
-                for (JsonNode el : node) {
-                    result.add(toObject(el));
-                }
-                return result;
+    private @Nullable String render(String template, Map<String, @Nullable Object> bindings)
+            throws TransformationException {
+        JinjavaConfig config = jinjava.getGlobalConfig();
+        Context context = new Context(jinjava.getGlobalContext(), bindings, config.getDisabled());
+        JinjavaInterpreter interpreter = new JinjavaInterpreter(jinjava, context, config);
+
+        // same as Jinjava.render(), except that the template is only parsed on its first use
+        JinjavaInterpreter.pushCurrent(interpreter);
+        try {
+            Node root = templateCache.get(template);
+            if (root == null) {
+                root = interpreter.parse(template);
+                // syntax errors are recorded by the parser, a template with errors is never cached
+                checkFatalErrors(template, interpreter);
+                templateCache.put(template, root);
+                logger.debug("parsed the template '{}', {} cache hits and {} misses so far", template,
+                        cacheHits.get(), cacheMisses.incrementAndGet());
+            } else {
+                cacheHits.incrementAndGet();
             }
-            case NUMBER:
-                return node.decimalValue();
-            case OBJECT: {
-                Map<String, @Nullable Object> result = new HashMap<>();
-                Iterator<Entry<String, JsonNode>> it = node.fields();
-                while (it.hasNext()) {
-                    Entry<String, JsonNode> field = it.next();
-                    result.put(field.getKey(), toObject(field.getValue()));
-                }
-                return result;
+            String result = interpreter.render(root);
+            checkFatalErrors(template, interpreter);
+            return result;
+        } catch (InterpretException e) {
+            throw new TransformationException("Rendering template '" + template + "' failed: " + e.getMessage(), e);
+        } finally {
+            jinjava.getGlobalContext().reset();
+            JinjavaInterpreter.popCurrent();
+        }
+    }
+
+    /**
+     * Fails like {@link Jinjava#render(String, Map)} does, if a fatal error occurred.
+     */
+    private static void checkFatalErrors(String template, JinjavaInterpreter interpreter)
+            throws TransformationException {
+        for (TemplateError error : interpreter.getErrors()) {
+            if (error.getSeverity() == ErrorType.FATAL) {
+                throw new TransformationException(
+                        "Rendering template '" + template + "' failed: " + error.getMessage());
             }
-            case STRING:
-                return node.asText();
-            case BOOLEAN:
-                return node.asBoolean();
-            case NULL:
-            default:
-                return null;
         }
     }
 }
@@ -62,4 +62,49 @@ public class JinjaTransformationServiceTest {
         Assert.assertEquals("Hello world!", transformedResponse);
     }
 
+    @Test
+    public void testIterateOverJsonArray() throws TransformationException {
+
+        String json = "{\"values\":[1,2,3],\"unused\":{\"a\":\"b\"}}";
+        // method under test, rendered twice to use the cached template
+        processor.transform("{% for v in value_json.values %}{{ v }};{% endfor %}", json);
+        String transformedResponse = processor.transform("{% for v in value_json.values %}{{ v }};{% endfor %}",
+                json);
+
+        // Asserts
+        Assert.assertEquals("1;2;3;", transformedResponse);
+    }
+
+    @Test
+    public void testIterateOverJsonObject() throws TransformationException {
+
+        String json = "{\"first\":1,\"second\":true}";
+        // method under test
+        String transformedResponse = processor
+                .transform("{% for k, v in value_json.items() %}{{ k }}={{ v }} {% endfor %}", json);
+
+        // Asserts
+        Assert.assertEquals("first=1 second=true ", transformedResponse);
+    }
+
+    @Test
+    public void testMalformedTemplateFails() throws TransformationException {
+        String template = "{% if value %}missing end tag";
+
+        // the template must not be cached after the first failure
+        for (int i = 0; i < 2; i++) {
+            try {
+                processor.transform(template, "world");
+                Assert.fail("TransformationException expected");
+            } catch (TransformationException e) {
+                Assert.assertTrue(e.getMessage().contains("endif"));
+            }
+        }
+    }
+
+    @Test(expected = TransformationException.class)
+    public void testInvalidTagFails() throws TransformationException {
+        processor.transform("{% for %}{% endfor %}", "world");
+    }
+
 }
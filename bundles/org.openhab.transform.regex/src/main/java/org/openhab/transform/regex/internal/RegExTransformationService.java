@@ -12,6 +12,11 @@
  */
 package org.openhab.transform.regex.internal;
 
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -40,6 +45,17 @@ public class RegExTransformationService implements TransformationService {
 
     private static final Pattern SUBSTR_PATTERN = Pattern.compile("^s/(.*?[^\\\\])/(.*?[^\\\\])/(.*)$");
 
+    private static final int CACHE_SIZE = 200;
+
+    /** patterns of the substitution form, keyed by the regex part */
+    private final Map<String, Pattern> substitutionCache = createCache();
+
+    /** patterns of the matching form, keyed by the full expression */
+    private final Map<String, Pattern> matchCache = createCache();
+
+    private final AtomicLong cacheHits = new AtomicLong();
+    private final AtomicLong cacheMisses = new AtomicLong();
+
     @Override
     public @Nullable String transform(String regExpression, String source) throws TransformationException {
         if (regExpression == null || source == null) {
@@ -56,17 +72,20 @@ public class RegExTransformationService implements TransformationService {
             String regex = substMatcher.group(1);
             String substitution = substMatcher.group(2);
             String options = substMatcher.group(3);
+            Matcher replaceMatcher = getPattern(substitutionCache, regex, Pattern::compile).matcher(source.trim());
             if (options.equals("g")) {
-                result = source.trim().replaceAll(regex, substitution);
+                result = replaceMatcher.replaceAll(substitution);
             } else {
-                result = source.trim().replaceFirst(regex, substitution);
+                result = replaceMatcher.replaceFirst(substitution);
             }
             if (result != null) {
                 return result;
             }
         }
 
-        Matcher matcher = Pattern.compile("^" + regExpression + "$", Pattern.DOTALL).matcher(source.trim());
+        Pattern pattern = getPattern(matchCache, regExpression,
+                expression -> Pattern.compile("^" + expression + "$", Pattern.DOTALL));
+        Matcher matcher = pattern.matcher(source.trim());
         if (!matcher.matches()) {
             logger.debug(
                     "the given regex '^{}$' doesn't match the given content '{}' -> couldn't compute transformation",
@@ -95,4 +114,33 @@ public class RegExTransformationService implements TransformationService {
         return result;
     }
 
+    /**
+     * Returns the cached pattern or compiles and caches it. An invalid pattern throws a
+     * {@link java.util.regex.PatternSyntaxException}, so it is never cached.
+     */
+    private Pattern getPattern(Map<String, Pattern> cache, String expression, Function<String, Pattern> compiler) {
+        Pattern pattern = cache.get(expression);
+        if (pattern != null) {
+            cacheHits.incrementAndGet();
+            return pattern;
+        }
+        pattern = compiler.apply(expression);
+        cache.put(expression, pattern);
+        logger.debug("compiled the regex '{}', {} cache hits and {} misses so far", expression, cacheHits.get(),
+                cacheMisses.incrementAndGet());
+        return pattern;
+    }
+
+    /**
+     * Creates a LRU map of compiled patterns.
+     */
+    @SuppressWarnings("serial")
+    private static Map<String, Pattern> createCache() {
+        return Collections.synchronizedMap(new LinkedHashMap<String, Pattern>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Pattern> eldest) {
+                return size() > CACHE_SIZE;
+            }
+        });
+    }
 }
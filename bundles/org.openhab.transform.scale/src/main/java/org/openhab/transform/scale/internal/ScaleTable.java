@@ -0,0 +1,122 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.transform.scale.internal;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * The parsed content of a scale file, indexed for fast lookups.
+ *
+ * The limits of all ranges split the number line into elementary segments: the limit values themselves and the open
+ * intervals between two consecutive limits. Within one segment every value is contained in exactly the same ranges,
+ * so the label of the first matching range (in file order) is computed once per segment when the file is loaded. A
+ * lookup is then a binary search over the sorted limits.
+ *
+ * @author Martin van Wingerden - Initial contribution
+ */
+public class ScaleTable {
+
+    private static final BigDecimal TWO = BigDecimal.valueOf(2);
+
+    private final String format;
+    private final String nonNumericLabel;
+
+    /** distinct limits of all ranges in ascending order */
+    private final BigDecimal[] limits;
+
+    /** label for a value equal to limits[i], or null if no range contains it */
+    private final String[] limitLabels;
+
+    /** label for a value between limits[i - 1] and limits[i] (exclusive), or null if no range contains it */
+    private final String[] gapLabels;
+
+    /**
+     * @param ranges the ranges and their labels, in the order of the scale file
+     * @param format the format of the result
+     * @param nonNumericLabel the label returned for non-numeric input, or null if there is none
+     */
+    public ScaleTable(Map<Range, String> ranges, String format, String nonNumericLabel) {
+        this.format = format;
+        this.nonNumericLabel = nonNumericLabel;
+
+        // BigDecimal.compareTo ignores the scale, so 10 and 10.0 end up as one limit
+        TreeSet<BigDecimal> sortedLimits = new TreeSet<>();
+        for (Range range : ranges.keySet()) {
+            if (range.min != null) {
+                sortedLimits.add(range.min);
+            }
+            if (range.max != null) {
+                sortedLimits.add(range.max);
+            }
+        }
+        limits = sortedLimits.toArray(new BigDecimal[sortedLimits.size()]);
+
+        limitLabels = new String[limits.length];
+        for (int i = 0; i < limits.length; i++) {
+            limitLabels[i] = findFirst(ranges, limits[i]);
+        }
+
+        gapLabels = new String[limits.length + 1];
+        for (int i = 0; i <= limits.length; i++) {
+            gapLabels[i] = findFirst(ranges, gapRepresentative(i));
+        }
+    }
+
+    private BigDecimal gapRepresentative(int gap) {
+        if (limits.length == 0) {
+            return BigDecimal.ZERO;
+        } else if (gap == 0) {
+            return limits[0].subtract(BigDecimal.ONE);
+        } else if (gap == limits.length) {
+            return limits[limits.length - 1].add(BigDecimal.ONE);
+        } else {
+            // the midpoint of two decimals always has a finite decimal expansion
+            return limits[gap - 1].add(limits[gap]).divide(TWO);
+        }
+    }
+
+    private static String findFirst(Map<Range, String> ranges, BigDecimal value) {
+        for (Map.Entry<Range, String> entry : ranges.entrySet()) {
+            if (entry.getKey().contains(value)) {
+                return entry.getValue();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the label of the first range (in file order) that contains the given value.
+     *
+     * @param value the value to look up
+     * @return the label, or null if no range contains the value
+     */
+    public String lookup(BigDecimal value) {
+        int index = Arrays.binarySearch(limits, value);
+        if (index >= 0) {
+            return limitLabels[index];
+        }
+        // binarySearch returns (-(insertion point) - 1), the insertion point is the index of the gap
+        return gapLabels[-index - 1];
+    }
+
+    public String getFormat() {
+        return format;
+    }
+
+    public String getNonNumericLabel() {
+        return nonNumericLabel;
+    }
+}
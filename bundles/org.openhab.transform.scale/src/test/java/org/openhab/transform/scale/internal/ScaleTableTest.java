@@ -0,0 +1,67 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.transform.scale.internal;
+
+import static org.junit.Assert.*;
+
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.junit.Test;
+
+/**
+ * @author Martin van Wingerden - Initial contribution
+ */
+public class ScaleTableTest {
+
+    @Test
+    public void testLookupReturnsFirstMatchingRangeInFileOrder() {
+        // same ranges as scale/evaluationorder.scale
+        Map<Range, String> ranges = new LinkedHashMap<>();
+        ranges.put(Range.range(null, false, new BigDecimal("15"), false), "first");
+        ranges.put(Range.range(new BigDecimal("10"), true, new BigDecimal("17"), false), "second");
+        ranges.put(Range.range(new BigDecimal("15"), true, null, false), "last");
+        ScaleTable table = new ScaleTable(ranges, "%label%", null);
+
+        assertEquals("first", table.lookup(new BigDecimal("-1000")));
+        assertEquals("first", table.lookup(new BigDecimal("12")));
+        assertEquals("second", table.lookup(new BigDecimal("15")));
+        assertEquals("second", table.lookup(new BigDecimal("16.99")));
+        assertEquals("last", table.lookup(new BigDecimal("17.0")));
+        assertEquals("last", table.lookup(new BigDecimal("1E+6")));
+    }
+
+    @Test
+    public void testLookupHonoursInclusiveAndExclusiveLimits() {
+        Map<Range, String> ranges = new LinkedHashMap<>();
+        ranges.put(Range.range(new BigDecimal("0"), false, new BigDecimal("10"), true), "low");
+        ranges.put(Range.range(new BigDecimal("10"), false, new BigDecimal("20"), false), "high");
+        ScaleTable table = new ScaleTable(ranges, "%label%", null);
+
+        assertNull(table.lookup(new BigDecimal("0")));
+        assertEquals("low", table.lookup(new BigDecimal("0.001")));
+        assertEquals("low", table.lookup(new BigDecimal("10.00")));
+        assertEquals("high", table.lookup(new BigDecimal("10.001")));
+        assertNull(table.lookup(new BigDecimal("20")));
+        assertNull(table.lookup(new BigDecimal("-5")));
+    }
+
+    @Test
+    public void testEmptyTableMatchesNothing() {
+        ScaleTable table = new ScaleTable(new LinkedHashMap<>(), "%label%", "undefined");
+
+        assertNull(table.lookup(BigDecimal.ONE));
+        assertEquals("undefined", table.getNonNumericLabel());
+    }
+}
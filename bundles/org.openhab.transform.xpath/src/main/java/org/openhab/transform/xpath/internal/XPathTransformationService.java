@@ -13,12 +13,17 @@
 package org.openhab.transform.xpath.internal;
 
 import java.io.StringReader;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
 
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
 import javax.xml.xpath.XPath;
 import javax.xml.xpath.XPathConstants;
 import javax.xml.xpath.XPathExpression;
+import javax.xml.xpath.XPathExpressionException;
 import javax.xml.xpath.XPathFactory;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
@@ -41,8 +46,32 @@ import org.xml.sax.InputSource;
 @Component(immediate = true, property = { "smarthome.transform=XPATH" })
 public class XPathTransformationService implements TransformationService {
 
+    private static final int CACHE_SIZE = 200;
+
     private final Logger logger = LoggerFactory.getLogger(XPathTransformationService.class);
 
+    private final DocumentBuilderFactory domFactory;
+    private final XPathFactory xpathFactory = XPathFactory.newInstance();
+
+    /**
+     * an XPath and the expressions it compiled are not thread-safe, so each thread compiles and caches its own
+     * expressions, the least recently used one is evicted first
+     */
+    private final ThreadLocal<@Nullable XPath> xpath = new ThreadLocal<>();
+    private final ThreadLocal<Map<String, XPathExpression>> cache = ThreadLocal.withInitial(this::createCache);
+
+    private final AtomicLong cacheHits = new AtomicLong();
+    private final AtomicLong cacheMisses = new AtomicLong();
+
+    /** a DocumentBuilder is not thread-safe, so each thread gets its own instance which is reset after use */
+    private final ThreadLocal<@Nullable DocumentBuilder> documentBuilder = new ThreadLocal<>();
+
+    public XPathTransformationService() {
+        domFactory = DocumentBuilderFactory.newInstance();
+        domFactory.setNamespaceAware(true);
+        domFactory.setValidating(false);
+    }
+
     @Override
     public @Nullable String transform(String xpathExpression, String source) throws TransformationException {
         if (xpathExpression == null || source == null) {
@@ -54,20 +83,20 @@ public class XPathTransformationService implements TransformationService {
         StringReader stringReader = null;
 
         try {
-            DocumentBuilderFactory domFactory = DocumentBuilderFactory.newInstance();
-            domFactory.setNamespaceAware(true);
-            domFactory.setValidating(false);
-            DocumentBuilder builder = domFactory.newDocumentBuilder();
+            DocumentBuilder builder = getDocumentBuilder();
 
             stringReader = new StringReader(source);
             InputSource inputSource = new InputSource(stringReader);
             inputSource.setEncoding("UTF-8");
 
-            Document doc = builder.parse(inputSource);
-
-            XPath xpath = XPathFactory.newInstance().newXPath();
-            XPathExpression expr = xpath.compile(xpathExpression);
+            Document doc;
+            try {
+                doc = builder.parse(inputSource);
+            } finally {
+                builder.reset();
+            }
 
+            XPathExpression expr = getExpression(xpathExpression);
             String transformationResult = (String) expr.evaluate(doc, XPathConstants.STRING);
 
             logger.debug("transformation resulted in '{}'", transformationResult);
@@ -82,4 +111,52 @@ public class XPathTransformationService implements TransformationService {
         }
     }
 
+    private DocumentBuilder getDocumentBuilder() throws ParserConfigurationException {
+        DocumentBuilder builder = documentBuilder.get();
+        if (builder == null) {
+            synchronized (domFactory) {
+                builder = domFactory.newDocumentBuilder();
+            }
+            documentBuilder.set(builder);
+        }
+        return builder;
+    }
+
+    private XPathExpression getExpression(String expression) throws XPathExpressionException {
+        Map<String, XPathExpression> expressions = cache.get();
+        XPathExpression expr = expressions.get(expression);
+        if (expr != null) {
+            cacheHits.incrementAndGet();
+            return expr;
+        }
+        // an invalid expression throws, so it is never cached
+        expr = getXPath().compile(expression);
+        expressions.put(expression, expr);
+        logger.debug("compiled the expression '{}', {} cache hits and {} misses so far", expression,
+                cacheHits.get(), cacheMisses.incrementAndGet());
+        return expr;
+    }
+
+    private XPath getXPath() {
+        XPath xp = xpath.get();
+        if (xp == null) {
+            // the XPathFactory is not thread-safe
+            synchronized (xpathFactory) {
+                xp = xpathFactory.newXPath();
+            }
+            xpath.set(xp);
+        }
+        return xp;
+    }
+
+    @SuppressWarnings("serial")
+    private Map<String, XPathExpression> createCache() {
+        return new LinkedHashMap<String, XPathExpression>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, XPathExpression> eldest) {
+                return size() > CACHE_SIZE;
+            }
+        };
+    }
+
 }
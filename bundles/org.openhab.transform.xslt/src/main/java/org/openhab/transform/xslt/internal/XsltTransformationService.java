@@ -15,9 +15,12 @@ package org.openhab.transform.xslt.internal;
 import java.io.File;
 import java.io.StringReader;
 import java.io.StringWriter;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
-import javax.xml.transform.Source;
+import javax.xml.transform.Templates;
 import javax.xml.transform.Transformer;
+import javax.xml.transform.TransformerConfigurationException;
 import javax.xml.transform.TransformerFactory;
 import javax.xml.transform.stream.StreamResult;
 import javax.xml.transform.stream.StreamSource;
@@ -43,6 +46,43 @@ public class XsltTransformationService implements TransformationService {
 
     private final Logger logger = LoggerFactory.getLogger(XsltTransformationService.class);
 
+    private final TransformerFactory transformerFactory = TransformerFactory.newInstance();
+
+    /** compiled stylesheets, keyed by the path of the XSL file */
+    private final Map<String, CachedTemplates> templatesCache = new ConcurrentHashMap<>();
+
+    /**
+     * A compiled stylesheet together with the modification time of the file it was compiled from.
+     *
+     * {@link Templates} are thread-safe, the {@link Transformer}s created from them are not. So every thread keeps
+     * its own Transformer, which is reset after each transformation.
+     */
+    private static class CachedTemplates {
+        private final long lastModified;
+        private final long length;
+        private final Templates templates;
+        private final ThreadLocal<@Nullable Transformer> transformer = new ThreadLocal<>();
+
+        private CachedTemplates(long lastModified, long length, Templates templates) {
+            this.lastModified = lastModified;
+            this.length = length;
+            this.templates = templates;
+        }
+
+        private boolean isUpToDate(File file) {
+            return file.lastModified() == lastModified && file.length() == length;
+        }
+
+        private Transformer getTransformer() throws TransformerConfigurationException {
+            Transformer result = transformer.get();
+            if (result == null) {
+                result = templates.newTransformer();
+                transformer.set(result);
+            }
+            return result;
+        }
+    }
+
     /**
      * Transforms the input <code>source</code> by XSLT.
      *
@@ -50,6 +90,8 @@ public class XsltTransformationService implements TransformationService {
      * is stored under the 'configurations/transform' folder. To organize the
      * various transformations one should use subfolders.
      *
+     * The compiled stylesheet is cached and only recompiled when the file is modified.
+     *
      * @param filename the name of the file which contains the XSLT transformation rule.
      *            The name may contain subfoldernames as well
      * @param source the input to transform
@@ -60,12 +102,12 @@ public class XsltTransformationService implements TransformationService {
             throw new TransformationException("the given parameters 'filename' and 'source' must not be null");
         }
 
-        Source xsl = null;
+        CachedTemplates templates;
 
         try {
             String path = ConfigConstants.getConfigFolder() + File.separator
                     + TransformationService.TRANSFORM_FOLDER_NAME + File.separator + filename;
-            xsl = new StreamSource(new File(path));
+            templates = getTemplates(new File(path));
         } catch (Exception e) {
             String message = "opening file '" + filename + "' throws exception";
 
@@ -73,19 +115,23 @@ public class XsltTransformationService implements TransformationService {
             throw new TransformationException(message, e);
         }
 
-        logger.debug("about to transform '{}' by the function '{}'", source, xsl);
+        logger.debug("about to transform '{}' by the function '{}'", source, filename);
 
         StringReader xml = new StringReader(source);
         StringWriter out = new StringWriter();
 
-        Transformer transformer;
+        Transformer transformer = null;
 
         try {
-            transformer = TransformerFactory.newInstance().newTransformer(xsl);
+            transformer = templates.getTransformer();
             transformer.transform(new StreamSource(xml), new StreamResult(out));
         } catch (Exception e) {
             logger.error("transformation throws exception", e);
             throw new TransformationException("transformation throws exception", e);
+        } finally {
+            if (transformer != null) {
+                transformer.reset();
+            }
         }
 
         logger.debug("transformation resulted in '{}'", out.toString());
@@ -93,4 +139,25 @@ public class XsltTransformationService implements TransformationService {
         return out.toString();
     }
 
+    private CachedTemplates getTemplates(File file) throws TransformerConfigurationException {
+        String key = file.getPath();
+        CachedTemplates cached = templatesCache.get(key);
+        if (cached != null && cached.isUpToDate(file)) {
+            return cached;
+        }
+
+        // read the modification time before compiling, so a change during compilation triggers a recompile
+        long lastModified = file.lastModified();
+        long length = file.length();
+        Templates templates;
+        synchronized (transformerFactory) {
+            templates = transformerFactory.newTemplates(new StreamSource(file));
+        }
+        logger.debug("compiled XSLT file '{}'", file);
+
+        cached = new CachedTemplates(lastModified, length, templates);
+        templatesCache.put(key, cached);
+        return cached;
+    }
+
 }
@@ -41,4 +41,15 @@ public class XsltTransformationServiceTest extends AbstractTransformationService
         assertEquals("8", transformedResponse);
     }
 
+    @Test
+    public void testTransformByXSLTWithCachedStylesheet() throws TransformationException {
+
+        // the second call reuses the compiled stylesheet and the transformer of this thread
+        processor.transform("http/google_weather.xsl", source);
+        String transformedResponse = processor.transform("http/google_weather.xsl", source);
+
+        // Asserts
+        assertEquals("8", transformedResponse);
+    }
+
 }